@@ -14,6 +14,14 @@ uniform vec2 u_cameraPos;
 uniform float u_cameraZoom;
 uniform vec2 u_viewportSize;
 
+// Map uniforms - the mask holds one texel per tile, top row first
+uniform vec2 u_mapOrigin;
+uniform vec2 u_mapSize;
+
+// Overlay uniforms - 1 to draw fog, and the darkness of the map at night
+uniform float u_showFog;
+uniform float u_nightAlpha;
+
 //--------------------------------------------------
 // 3D Simplex Noise (faster than Perlin)
 //--------------------------------------------------
@@ -90,43 +98,54 @@ float fbm(vec3 p) {
     return f;
 }
 
+// Mask UV of a world position, the texture's rows going down the world
+vec2 maskUV(vec2 worldPos) {
+    vec2 uv = (worldPos - u_mapOrigin) / u_mapSize;
+    return vec2(uv.x, 1.0 - uv.y);
+}
+
 void main() {
     // Fog color - dark forest green
     vec3 fogColor = vec3(0.09, 0.188, 0.11);
     
-    // Sample fog mask - values: 0 = revealed, 1 = fogged, in-between = adjacent to revealed
-    float originalMask = texture2D(u_texture, v_texCoords).r;
-    
-    // Early-out for fully revealed pixels (no fog at all)
-    if (originalMask < 0.001) {
-        discard;
-    }
-    
     // Calculate world coordinates from screen UV
     vec2 screenOffset = v_texCoords - 0.5;
     vec2 effectiveViewport = u_viewportSize / u_cameraZoom;
     vec2 worldPos = u_cameraPos + screenOffset * effectiveViewport;
     
-    // Noise parameters - in WORLD space
-    float noiseScale = 1.5;
-    float animTime = u_time * 0.1;
-    
-    // 3D noise with time as Z axis - computed per pixel for full resolution
-    float noiseX = fbm(vec3(worldPos * noiseScale, animTime));
-    float noiseY = fbm(vec3(worldPos * noiseScale + 100.0, animTime + 50.0));
-    
-    // Distortion in UV space
-    float distortWorld = 2.0;
-    vec2 distortUV = vec2(noiseX, noiseY) * (distortWorld / effectiveViewport);
+    // Nothing is drawn off the map
+    vec2 mapUV = (worldPos - u_mapOrigin) / u_mapSize;
+    if (mapUV.x < 0.0 || mapUV.y < 0.0 || mapUV.x > 1.0 || mapUV.y > 1.0) {
+        discard;
+    }
     
-    // Sample fog mask with distorted coordinates
-    vec2 distortedUV = v_texCoords + distortUV;
-    float fogMask = texture2D(u_texture, distortedUV).r;
+    // Sample fog mask from alpha - values: 0 = revealed, 1 = fogged, in-between = adjacent to revealed
+    float originalMask = u_showFog * texture2D(u_texture, maskUV(worldPos)).a;
+    
+    float fogMask = 0.0;
+    // Fully revealed pixels skip the noise
+    if (originalMask >= 0.001) {
+        // Noise parameters - in WORLD space
+        float noiseScale = 1.5;
+        float animTime = u_time * 0.1;
+        
+        // 3D noise with time as Z axis - computed per pixel for full resolution
+        float noiseX = fbm(vec3(worldPos * noiseScale, animTime));
+        float noiseY = fbm(vec3(worldPos * noiseScale + 100.0, animTime + 50.0));
+        
+        // Distortion in world space
+        float distortWorld = 2.0;
+        vec2 distortedPos = worldPos + vec2(noiseX, noiseY) * distortWorld;
+        fogMask = texture2D(u_texture, maskUV(distortedPos)).a;
+    }
     
-    // Simple on/off: render fog if mask > 0.5, otherwise discard
-    if (fogMask < 0.5) {
+    // Simple on/off: fog if mask > 0.5, darkened like the rest of the map at
+    // night, otherwise only the night
+    if (fogMask >= 0.5) {
+        gl_FragColor = vec4(fogColor * (1.0 - u_nightAlpha), 1.0) * v_color;
+    } else if (u_nightAlpha > 0.0) {
+        gl_FragColor = vec4(0.0, 0.0, 0.0, u_nightAlpha) * v_color;
+    } else {
         discard;
     }
-    
-    gl_FragColor = vec4(fogColor, 1.0) * v_color;
 }
@@ -1,40 +1,48 @@
 precision highp float;
 
-varying vec4 v_color;
-varying vec2 v_texCoords;
+varying vec2 v_worldPos;
 
+// One texture per pheromone type for the page being drawn, with a texel per
+// pheromone cell in and around the page. Luminance and alpha hold the high and
+// low byte of the distance from the colony, 0 where there is no pheromone.
+uniform sampler2D u_texture; // GATHER
+uniform sampler2D u_attack;
+uniform sampler2D u_explore;
+
+uniform vec2 u_gridOrigin;  // Grid coordinates of the page's first texel
+uniform vec2 u_gridSize;    // Texture size in cells
+uniform float u_cellSize;   // World size of a cell
+uniform float u_maxDistance;
 uniform float u_time;
 
-// Decode pheromone type to actual color
-vec3 getTypeColor(float typeIndex) {
-    if (typeIndex < 0.2) {
-        return vec3(0.1, 0.3, 1.0);  // GATHER - blue
-    } else if (typeIndex < 0.5) {
-        return vec3(1.0, 0.3, 0.3);  // ATTACK - red
-    } else {
-        return vec3(0.9, 0.9, 0.1);  // EXPLORE - yellow
-    }
-}
+// A pheromone is drawn at up to about 4.8 cells across, so cells this far
+// away can still reach a pixel
+const int REACH = 3;
 
 // Deterministic hash for consistent randomness [0, 1)
 float hash(vec2 p) {
     return fract(sin(dot(p, vec2(127.1, 311.7))) * 43758.5453123);
 }
 
-void main() {
-    float trailStrength = v_color.g;  // 1.0 at start, 0.0 at end
-    float seedVal = v_color.b;        // Random seed per pheromone
-    vec3 baseColor = getTypeColor(v_color.r);
-    
-    vec2 uv = v_texCoords; // 0..1
-    
-    float alpha = 0.0;
-    
+// Whether the pheromone in the cell covers the point with one of its squares
+bool covers(vec2 cell, float trailDistance) {
+    float trailStrength = 1.0 - trailDistance / u_maxDistance;  // 1.0 at start, 0.0 at end
+    float drawSize = (log(trailStrength + 1.0) + 0.5) * 4.0 * u_cellSize;
+
+    // Position within the pheromone's square, 0..1 with v pointing down
+    vec2 uv = (v_worldPos - (cell + 0.5) * u_cellSize) / drawSize + 0.5;
+    uv.y = 1.0 - uv.y;
+    if (uv.x < 0.0 || uv.x > 1.0 || uv.y < 0.0 || uv.y > 1.0) {
+        return false;
+    }
+
+    float seedVal = hash(cell);  // Random seed per pheromone
+
     // Max spread radius relative to texture size
-    float spread = 0.5; 
-    
+    float spread = 0.5;
+
     // Size of each square (in UV units)
-    float size = 0.04; 
+    float size = 0.04;
 
     for (int i = 0; i < 10; i++) {
         vec2 p = vec2(seedVal * 100.0 + float(i) * 13.0, seedVal * 50.0 + float(i) * 7.0);
@@ -50,12 +58,43 @@ void main() {
         // Check if current pixel is inside this square
         vec2 d = abs(uv - center);
         if (d.x < size && d.y < size) {
-            alpha = 1.0;
-            break;
+            return true;
         }
     }
-    
-    if (alpha < 0.1) discard;
-    
-    gl_FragColor = vec4(baseColor, 0.6);
+    return false;
+}
+
+// Draws the pheromones of one type around the pixel over what is drawn so
+// far, kept premultiplied, each at the same alpha as one sprite used to be
+vec4 drawType(vec4 result, sampler2D pheromones, vec3 color) {
+    vec2 pixelCell = floor(v_worldPos / u_cellSize);
+    for (int dy = -REACH; dy <= REACH; dy++) {
+        for (int dx = -REACH; dx <= REACH; dx++) {
+            vec2 cell = pixelCell + vec2(float(dx), float(dy));
+            vec2 texel = cell - u_gridOrigin;
+            if (texel.x < 0.0 || texel.y < 0.0 || texel.x >= u_gridSize.x || texel.y >= u_gridSize.y) {
+                continue;
+            }
+            vec4 value = texture2D(pheromones, (texel + 0.5) / u_gridSize);
+            float trailDistance = floor(value.r * 255.0 + 0.5) * 256.0 + floor(value.a * 255.0 + 0.5);
+            if (trailDistance < 0.5) {
+                continue;
+            }
+            if (covers(cell, trailDistance)) {
+                result = vec4(color * 0.6, 0.6) + result * 0.4;
+            }
+        }
+    }
+    return result;
+}
+
+void main() {
+    vec4 result = vec4(0.0);
+    result = drawType(result, u_texture, vec3(0.1, 0.3, 1.0));  // GATHER - blue
+    result = drawType(result, u_attack, vec3(1.0, 0.3, 0.3));   // ATTACK - red
+    result = drawType(result, u_explore, vec3(0.9, 0.9, 0.1));  // EXPLORE - yellow
+
+    if (result.a < 0.1) discard;
+
+    gl_FragColor = vec4(result.rgb / result.a, result.a);
 }
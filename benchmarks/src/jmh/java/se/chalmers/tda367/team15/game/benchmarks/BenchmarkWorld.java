@@ -0,0 +1,131 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.AntFactory;
+import se.chalmers.tda367.team15.game.model.AttackCategory;
+import se.chalmers.tda367.team15.game.model.DestructionListener;
+import se.chalmers.tda367.team15.game.model.EnemyFactory;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntTypeRegistry;
+import se.chalmers.tda367.team15.game.model.managers.EntityManager;
+import se.chalmers.tda367.team15.game.model.managers.PheromoneManager;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.structure.Colony;
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerationResult;
+import se.chalmers.tda367.team15.game.model.world.Tile;
+import se.chalmers.tda367.team15.game.model.world.TileType;
+import se.chalmers.tda367.team15.game.model.world.WorldMap;
+
+/**
+ * Shared fixture for benchmarks. Wires the model the same way
+ * {@link se.chalmers.tda367.team15.game.model.GameModelFactory} does, but on a
+ * flat all-grass map so results do not depend on terrain generation.
+ *
+ * Entity deaths are not forwarded to the {@link EntityManager}, so entity
+ * counts stay constant over a benchmark run.
+ */
+public class BenchmarkWorld {
+    private static final long SEED = 42;
+
+    public final WorldMap worldMap;
+    public final EntityManager entityManager;
+    public final PheromoneManager pheromoneManager;
+    public final Colony colony;
+    public final AntFactory antFactory;
+    public final EnemyFactory enemyFactory;
+    public final AntTypeRegistry antTypeRegistry;
+
+    public BenchmarkWorld(int mapSize) {
+        this(mapSize, false);
+    }
+
+    public BenchmarkWorld(int mapSize, boolean parallelEntities) {
+        worldMap = new WorldMap(mapSize, mapSize, BenchmarkWorld::flatTerrain);
+        entityManager = new EntityManager(parallelEntities);
+        pheromoneManager = createPheromoneManager();
+        colony = new Colony(new GridPoint2(0, 0), entityManager, 0);
+
+        antTypeRegistry = new AntTypeRegistry();
+        GameConfiguration.registerAntTypes(antTypeRegistry);
+
+        DestructionListener destructionListener = new DestructionListener();
+        // Fixed seed, so every run of a benchmark simulates the same ants
+        Random random = new Random(SEED);
+
+        HashMap<AttackCategory, Integer> antTargetPriority = new HashMap<>();
+        antTargetPriority.put(AttackCategory.TERMITE, 2);
+        antFactory = new AntFactory(pheromoneManager, worldMap, entityManager, destructionListener,
+                antTargetPriority, random);
+
+        HashMap<AttackCategory, Integer> termiteTargetPriority = new HashMap<>();
+        termiteTargetPriority.put(AttackCategory.WORKER_ANT, 2);
+        enemyFactory = new EnemyFactory(entityManager, destructionListener, termiteTargetPriority, random);
+    }
+
+    public static PheromoneManager createPheromoneManager() {
+        return new PheromoneManager(new GridPoint2(0, 0), new PheromoneGridConverter(4), 4);
+    }
+
+    public AntType antType(String id) {
+        return antTypeRegistry.get(id).orElseThrow();
+    }
+
+    public void spawnAnts(String typeId, int count) {
+        spawnAnts(antType(typeId), count);
+    }
+
+    public void spawnAnts(AntType type, int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.addEntity(antFactory.createAnt(colony, type));
+        }
+    }
+
+    private static TerrainGenerationResult flatTerrain(int width, int height) {
+        Tile[][] tiles = new Tile[width][height];
+        Tile grass = new Tile(0, TileType.GRASS);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                tiles[x][y] = grass;
+            }
+        }
+        return new TerrainGenerationResult(tiles, new ArrayList<>());
+    }
+
+    /**
+     * Builds the cells of a comb shaped trail network: a spine going east from
+     * the colony edge with branches going north and south every fourth cell.
+     * The cells are returned in an order where every cell is adjacent to an
+     * earlier one, so they can be passed to
+     * {@link PheromoneManager#addPheromone} one by one.
+     *
+     * @param cellCount approximate number of cells in the network
+     * @return the cells in a valid placement order
+     */
+    public static List<GridPoint2> combNetwork(int cellCount) {
+        int branchLength = 64;
+        int spacing = 4;
+        int branches = Math.max(1, cellCount / (2 * branchLength + spacing));
+        int spineLength = branches * spacing;
+
+        List<GridPoint2> cells = new ArrayList<>(cellCount);
+        int startX = 8; // First cell outside the colony
+        for (int i = 0; i < spineLength; i++) {
+            int x = startX + i;
+            cells.add(new GridPoint2(x, 0));
+            if (i % spacing == spacing - 1) {
+                for (int j = 1; j <= branchLength; j++) {
+                    cells.add(new GridPoint2(x, j));
+                    cells.add(new GridPoint2(x, -j));
+                }
+            }
+        }
+        return cells;
+    }
+}
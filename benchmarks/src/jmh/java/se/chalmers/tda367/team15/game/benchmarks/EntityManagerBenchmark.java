@@ -0,0 +1,42 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one {@link se.chalmers.tda367.team15.game.model.managers.EntityManager#update}
+ * call, i.e. the entity part of a simulation tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntityManagerBenchmark {
+    private static final float TICK_DELTA = 0.01f;
+
+    @Param({ "1000", "10000", "100000" })
+    public int ants;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private BenchmarkWorld world;
+
+    @Setup
+    public void setUp() {
+        world = new BenchmarkWorld(400, parallel);
+        world.spawnAnts("worker", ants);
+    }
+
+    @Benchmark
+    public void update() {
+        world.entityManager.update(TICK_DELTA);
+    }
+}
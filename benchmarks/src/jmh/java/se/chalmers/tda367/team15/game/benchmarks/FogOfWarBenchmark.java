@@ -0,0 +1,56 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.model.managers.fog.FogOfWar;
+
+/**
+ * Measures a single {@link FogOfWar#reveal} call at random positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FogOfWarBenchmark {
+    private static final int CENTER_COUNT = 1024;
+
+    @Param({ "400", "4000" })
+    public int mapSize;
+
+    @Param({ "8", "32" })
+    public int radius;
+
+    private FogOfWar fogOfWar;
+    private GridPoint2[] centers;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        BenchmarkWorld world = new BenchmarkWorld(mapSize);
+        fogOfWar = new FogOfWar(world.worldMap);
+
+        Random random = new Random(42);
+        centers = new GridPoint2[CENTER_COUNT];
+        for (int i = 0; i < CENTER_COUNT; i++) {
+            centers[i] = new GridPoint2(random.nextInt(mapSize), random.nextInt(mapSize));
+        }
+    }
+
+    @Benchmark
+    public FogOfWar reveal() {
+        fogOfWar.reveal(centers[next], radius);
+        next = (next + 1) % CENTER_COUNT;
+        return fogOfWar;
+    }
+}
@@ -0,0 +1,145 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
+import se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail.CongestionAwareGatherTrailStrategy;
+import se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail.GatherTrailStrategy;
+import se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail.TrailStrategy;
+import se.chalmers.tda367.team15.game.model.managers.ResourceManager;
+import se.chalmers.tda367.team15.game.model.managers.StructureManager;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceNode;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
+
+/**
+ * Simulates workers gathering on a branched trail network, one in-game day per
+ * iteration, with and without congestion-aware routing.
+ *
+ * Every branch ends at a small food node that takes a while to grow back, so
+ * workers crowding the same branches wait for their food while other nodes go
+ * unharvested. Besides the time a day takes to simulate, the food delivered to
+ * the colony during it is reported as {@code foodPerDay}. The world carries on
+ * from one iteration to the next, so the warmup days are also the days the
+ * workers take to find the network and spread out over it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GatherThroughputBenchmark {
+    private static final float TICK_DELTA = 0.01f;
+    private static final int TICKS_PER_DAY = 24 * 60 * GameConfiguration.TICKS_PER_MINUTE;
+    private static final int SPINE_LENGTH = 64;
+    private static final int BRANCH_SPACING = 16;
+    private static final int BRANCH_LENGTH = 48;
+    private static final int FOOD_PER_NODE = 40;
+    private static final int FOOD_REGROWTH_TICKS = 1000;
+
+    /**
+     * Food delivered during the measured day.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Delivery {
+        public long foodPerDay;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            foodPerDay = 0;
+        }
+    }
+
+    @Param({ "uniform", "congestionAware" })
+    public String routing;
+
+    @Param({ "100", "400" })
+    public int workers;
+
+    private BenchmarkWorld world;
+    private StructureManager structureManager;
+    private ResourceManager resourceManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new BenchmarkWorld(200);
+        structureManager = new StructureManager();
+        resourceManager = new ResourceManager(world.entityManager, structureManager);
+
+        PheromoneGridConverter converter = world.pheromoneManager.getConverter();
+        for (GridPoint2 end : buildNetwork()) {
+            GridPoint2 tile = new GridPoint2(
+                    Math.round(converter.pheromoneGridToWorldX(end.x)),
+                    Math.round(converter.pheromoneGridToWorldY(end.y)));
+            structureManager.addStructure(
+                    new ResourceNode(tile, 1, ResourceType.FOOD, FOOD_PER_NODE, FOOD_REGROWTH_TICKS));
+        }
+
+        TrailStrategy strategy = "congestionAware".equals(routing)
+                ? new CongestionAwareGatherTrailStrategy()
+                : new GatherTrailStrategy();
+        world.spawnAnts(withTrailStrategy(world.antType("worker"), strategy), workers);
+    }
+
+    /**
+     * Places a spine going east from the colony with a branch going north and
+     * one going south every {@link #BRANCH_SPACING} cells.
+     *
+     * @return the ends of the branches and of the spine
+     */
+    private List<GridPoint2> buildNetwork() {
+        List<GridPoint2> ends = new ArrayList<>();
+        int startX = 8; // First cell outside the colony
+        for (int i = 0; i < SPINE_LENGTH; i++) {
+            int x = startX + i;
+            world.pheromoneManager.addPheromone(new GridPoint2(x, 0), PheromoneType.GATHER);
+            if (i % BRANCH_SPACING == BRANCH_SPACING - 1 && i != SPINE_LENGTH - 1) {
+                for (int j = 1; j <= BRANCH_LENGTH; j++) {
+                    world.pheromoneManager.addPheromone(new GridPoint2(x, j), PheromoneType.GATHER);
+                    world.pheromoneManager.addPheromone(new GridPoint2(x, -j), PheromoneType.GATHER);
+                }
+                ends.add(new GridPoint2(x, BRANCH_LENGTH));
+                ends.add(new GridPoint2(x, -BRANCH_LENGTH));
+            }
+        }
+        ends.add(new GridPoint2(startX + SPINE_LENGTH - 1, 0));
+        return ends;
+    }
+
+    private static AntType withTrailStrategy(AntType type, TrailStrategy strategy) {
+        return new AntType(type.id(), type.displayName(), type.foodCost(), type.visionRadius(),
+                type.developmentTicks(), type.maxHealth(), type.moveSpeed(), type.carryCapacity(),
+                type.allowedPheromones(), strategy, type.hunger(), type.homeBias());
+    }
+
+    /** Simulates one in-game day of gathering. */
+    @Benchmark
+    public int gatherForOneDay(Delivery delivery) {
+        int foodBefore = world.colony.getTotalResources(ResourceType.FOOD);
+        for (int tick = 0; tick < TICKS_PER_DAY; tick++) {
+            world.entityManager.update(TICK_DELTA);
+            structureManager.update(TICK_DELTA);
+            resourceManager.update(TICK_DELTA);
+            world.pheromoneManager.update(TICK_DELTA);
+        }
+        int delivered = world.colony.getTotalResources(ResourceType.FOOD) - foodBefore;
+        delivery.foodPerDay += delivered;
+        return delivered;
+    }
+}
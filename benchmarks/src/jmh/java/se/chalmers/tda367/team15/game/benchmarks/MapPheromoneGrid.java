@@ -0,0 +1,64 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGrid;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+
+/**
+ * The hash map layout {@link PheromoneGrid} used before it was split into
+ * chunks, kept as a baseline for {@link PheromoneGridBenchmark}.
+ */
+public class MapPheromoneGrid {
+    /** A pheromone as it was stored before, holding its own values */
+    public static class MapPheromone {
+        private final GridPoint2 position;
+        private final PheromoneType type;
+        private int distance;
+        private int antCount;
+
+        MapPheromone(GridPoint2 position, PheromoneType type, int distance) {
+            this.position = position;
+            this.type = type;
+            this.distance = distance;
+        }
+
+        public GridPoint2 getPosition() {
+            return position;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    private final Map<GridPoint2, Map<PheromoneType, MapPheromone>> pheromones = new HashMap<>();
+    private final GridPoint2 probe = new GridPoint2();
+
+    public void addPheromone(GridPoint2 pos, PheromoneType type, int distance) {
+        MapPheromone pheromone = new MapPheromone(new GridPoint2(pos), type, distance);
+        pheromones.computeIfAbsent(pheromone.getPosition(), k -> new EnumMap<>(PheromoneType.class))
+                .put(type, pheromone);
+    }
+
+    public MapPheromone getPheromoneAt(int x, int y, PheromoneType type) {
+        Map<PheromoneType, MapPheromone> typeMap = pheromones.get(probe.set(x, y));
+        return typeMap != null ? typeMap.get(type) : null;
+    }
+
+    public void getPheromonesIn3x3(int centerX, int centerY, PheromoneType type, List<MapPheromone> result) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                MapPheromone pheromone = getPheromoneAt(centerX + dx, centerY + dy, type);
+                if (pheromone != null) {
+                    result.add(pheromone);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.model.AttackCategory;
+import se.chalmers.tda367.team15.game.model.entity.MeleeAttackBehaviour;
+import se.chalmers.tda367.team15.game.model.entity.enemy.Termite;
+import se.chalmers.tda367.team15.game.model.entity.enemy.TermiteAttackBehaviour;
+
+/**
+ * Measures target selection for a whole termite wave, i.e. one
+ * {@link MeleeAttackBehaviour#update} per termite.
+ *
+ * The wave spawns out of attack range of the colony so no entity dies during
+ * the benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MeleeAttackBenchmark {
+    @Param({ "100", "1000", "5000" })
+    public int termites;
+
+    @Param({ "1000" })
+    public int ants;
+
+    private final List<MeleeAttackBehaviour> behaviours = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        BenchmarkWorld world = new BenchmarkWorld(400);
+        world.spawnAnts("worker", ants);
+
+        HashMap<AttackCategory, Integer> targetPriority = new HashMap<>();
+        targetPriority.put(AttackCategory.WORKER_ANT, 2);
+
+        Random random = new Random(42);
+        behaviours.clear();
+        for (int i = 0; i < termites; i++) {
+            float angle = random.nextFloat() * (float) Math.PI * 2;
+            Vector2 position = new Vector2((float) Math.cos(angle), (float) Math.sin(angle)).scl(45);
+            Termite termite = world.enemyFactory.createTermite(position);
+            world.entityManager.addEntity(termite);
+            behaviours.add(new TermiteAttackBehaviour(termite, world.entityManager, targetPriority));
+        }
+    }
+
+    @Benchmark
+    public void updateWave() {
+        for (MeleeAttackBehaviour behaviour : behaviours) {
+            behaviour.update();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGrid;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+
+/**
+ * Compares the chunked {@link PheromoneGrid} with the hash map layout it
+ * replaced, {@link MapPheromoneGrid}, on a comb shaped trail network.
+ *
+ * The lookup benchmarks query every cell of the network once. The build
+ * benchmarks place the whole network; run them with {@code -prof gc} and
+ * compare {@code gc.alloc.rate.norm} to see the memory each layout needs,
+ * since nearly everything allocated while building stays reachable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PheromoneGridBenchmark {
+    @Param({ "10000", "100000" })
+    public int cells;
+
+    private List<GridPoint2> network;
+    private PheromoneGrid chunkedGrid;
+    private MapPheromoneGrid mapGrid;
+    private final List<Pheromone> result = new ArrayList<>();
+    private final List<MapPheromoneGrid.MapPheromone> mapResult = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        network = BenchmarkWorld.combNetwork(cells);
+        chunkedGrid = buildChunked();
+        mapGrid = buildMap();
+    }
+
+    @Benchmark
+    public PheromoneGrid buildChunked() {
+        PheromoneGrid grid = new PheromoneGrid();
+        for (int i = 0; i < network.size(); i++) {
+            grid.addPheromone(network.get(i), PheromoneType.GATHER, i + 1);
+        }
+        return grid;
+    }
+
+    @Benchmark
+    public MapPheromoneGrid buildMap() {
+        MapPheromoneGrid grid = new MapPheromoneGrid();
+        for (int i = 0; i < network.size(); i++) {
+            grid.addPheromone(network.get(i), PheromoneType.GATHER, i + 1);
+        }
+        return grid;
+    }
+
+    @Benchmark
+    public int lookupChunked() {
+        int found = 0;
+        for (GridPoint2 cell : network) {
+            if (chunkedGrid.getPheromoneAt(cell.x, cell.y, PheromoneType.GATHER) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int lookupMap() {
+        int found = 0;
+        for (GridPoint2 cell : network) {
+            if (mapGrid.getPheromoneAt(cell.x, cell.y, PheromoneType.GATHER) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int neighbourhoodChunked() {
+        int found = 0;
+        for (GridPoint2 cell : network) {
+            result.clear();
+            chunkedGrid.getPheromonesIn3x3(cell.x, cell.y, PheromoneType.GATHER, result);
+            found += result.size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int neighbourhoodMap() {
+        int found = 0;
+        for (GridPoint2 cell : network) {
+            mapResult.clear();
+            mapGrid.getPheromonesIn3x3(cell.x, cell.y, PheromoneType.GATHER, mapResult);
+            found += mapResult.size();
+        }
+        return found;
+    }
+}
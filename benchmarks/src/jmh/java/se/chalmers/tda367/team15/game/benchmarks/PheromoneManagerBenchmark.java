@@ -0,0 +1,103 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.model.managers.PheromoneManager;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+
+/**
+ * Measures building, loading and tearing down large pheromone trail networks.
+ *
+ * Every call changes the manager it is given, so the managers are replaced
+ * before each call. Each benchmark takes only the manager state it uses, so a
+ * call is not preceded by rebuilding managers it never touches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PheromoneManagerBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int cells;
+
+    private List<GridPoint2> network;
+    private byte[] savedNetwork;
+
+    /**
+     * A manager without pheromones.
+     */
+    @State(Scope.Thread)
+    public static class EmptyManager {
+        PheromoneManager manager;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            manager = BenchmarkWorld.createPheromoneManager();
+        }
+    }
+
+    /**
+     * A manager holding the whole network, loaded from its saved form since that
+     * is much faster than placing it cell by cell.
+     */
+    @State(Scope.Thread)
+    public static class FilledManager {
+        PheromoneManager manager;
+
+        @Setup(Level.Invocation)
+        public void reset(PheromoneManagerBenchmark benchmark) throws IOException {
+            manager = BenchmarkWorld.createPheromoneManager();
+            manager.loadNetwork(new ByteArrayInputStream(benchmark.savedNetwork));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createNetwork() throws IOException {
+        network = BenchmarkWorld.combNetwork(cells);
+        PheromoneManager manager = BenchmarkWorld.createPheromoneManager();
+        for (GridPoint2 cell : network) {
+            manager.addPheromone(cell, PheromoneType.GATHER);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manager.saveNetwork(out);
+        savedNetwork = out.toByteArray();
+    }
+
+    /** Places every cell of the network one at a time, like a player drawing it. */
+    @Benchmark
+    public PheromoneManager addNetwork(EmptyManager empty) {
+        for (GridPoint2 cell : network) {
+            empty.manager.addPheromone(cell, PheromoneType.GATHER);
+        }
+        return empty.manager;
+    }
+
+    /** Loads the whole network from its saved form in one go. */
+    @Benchmark
+    public PheromoneManager loadNetwork(EmptyManager empty) throws IOException {
+        empty.manager.loadNetwork(new ByteArrayInputStream(savedNetwork));
+        return empty.manager;
+    }
+
+    /** Removes the cell closest to the colony, which cascades through the whole network. */
+    @Benchmark
+    public PheromoneManager removeRoot(FilledManager filled) {
+        filled.manager.removePheromone(network.getFirst(), PheromoneType.GATHER);
+        return filled.manager;
+    }
+}
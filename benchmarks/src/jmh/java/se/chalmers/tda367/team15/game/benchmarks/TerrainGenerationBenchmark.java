@@ -0,0 +1,42 @@
+package se.chalmers.tda367.team15.game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.world.TerrainFactory;
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerationResult;
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerator;
+
+/**
+ * Measures the standard terrain pipeline
+ * ({@link se.chalmers.tda367.team15.game.model.world.terrain.PipelineTerrainGenerator#generate})
+ * for a fixed seed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TerrainGenerationBenchmark {
+    @Param({ "400", "1000", "2000", "4000" })
+    public int mapSize;
+
+    private TerrainGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = TerrainFactory.createStandardPerlinGenerator(1L, GameConfiguration.GRASS_VARIANT_TYPES);
+    }
+
+    @Benchmark
+    public TerrainGenerationResult generate() {
+        return generator.generate(mapSize, mapSize);
+    }
+}
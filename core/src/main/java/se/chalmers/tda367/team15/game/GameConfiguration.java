@@ -15,7 +15,8 @@ import se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail.PatrolTrai
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
 
 public record GameConfiguration(boolean unlimitedFps, boolean noFog, int startAnts, Long seed,
-        int startResources, String antType, GridPoint2 mapSize) {
+        int startResources, String antType, GridPoint2 mapSize, boolean parallelEntities,
+        boolean adaptiveSpeed, int pheromoneLifetime, String pheromoneNetwork) {
     public static final float WORLD_VIEWPORT_WIDTH = 15f;
     public static final float MIN_ZOOM = 0.05f;
     public static final float MAX_ZOOM = 4.0f;
@@ -38,6 +39,16 @@ public record GameConfiguration(boolean unlimitedFps, boolean noFog, int startAn
         String antType;
         @Option(names = "--map-size", defaultValue = "400,400", converter = GridPointConverter.class)
         GridPoint2 mapSize;
+        @Option(names = "--parallel-entities")
+        boolean parallelEntities = false;
+        @Option(names = "--adaptive-speed")
+        boolean adaptiveSpeed = false;
+        // Ticks a pheromone lasts without ants walking it, 0 keeps them forever
+        @Option(names = "--pheromone-lifetime", defaultValue = "6000")
+        int pheromoneLifetime;
+        // File with a saved pheromone network to start the game with
+        @Option(names = "--pheromone-network")
+        String pheromoneNetwork;
     }
 
     public static GameConfiguration fromArgs(String[] args) {
@@ -51,7 +62,11 @@ public record GameConfiguration(boolean unlimitedFps, boolean noFog, int startAn
                 cli.seed,
                 cli.startResources,
                 cli.antType,
-                cli.mapSize);
+                cli.mapSize,
+                cli.parallelEntities,
+                cli.adaptiveSpeed,
+                cli.pheromoneLifetime,
+                cli.pheromoneNetwork);
     }
 
     private static class GridPointConverter implements CommandLine.ITypeConverter<GridPoint2> {
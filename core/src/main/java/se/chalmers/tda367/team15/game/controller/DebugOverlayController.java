@@ -0,0 +1,28 @@
+package se.chalmers.tda367.team15.game.controller;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+import se.chalmers.tda367.team15.game.view.ui.HudView;
+
+/**
+ * Toggles the profiler overlay in the HUD with F3.
+ */
+public class DebugOverlayController extends InputAdapter {
+    private static final int TOGGLE_KEY = Input.Keys.F3;
+
+    private final HudView hudView;
+
+    public DebugOverlayController(HudView hudView) {
+        this.hudView = hudView;
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode != TOGGLE_KEY) {
+            return false;
+        }
+        hudView.toggleProfilerOverlay();
+        return true;
+    }
+}
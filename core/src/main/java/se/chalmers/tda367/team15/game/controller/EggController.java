@@ -5,19 +5,24 @@ import java.util.Optional;
 import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
 import se.chalmers.tda367.team15.game.model.entity.ant.AntTypeRegistry;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.EggProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.SimulationProvider;
 import se.chalmers.tda367.team15.game.view.ui.EggPanelListener;
 
 public class EggController implements EggPanelListener {
     private final AntTypeRegistry antTypeRegistry;
     private final EggProvider eggProvider;
+    private final SimulationProvider simulationProvider;
 
-    public EggController(AntTypeRegistry antTypeRegistry, EggProvider eggProvider) {
+    public EggController(AntTypeRegistry antTypeRegistry, EggProvider eggProvider,
+            SimulationProvider simulationProvider) {
         this.antTypeRegistry = antTypeRegistry;
         this.eggProvider = eggProvider;
+        this.simulationProvider = simulationProvider;
     }
 
     /**
-     * Attempts to purchase an egg of the specified type.
+     * Attempts to purchase an egg of the specified type. The purchase happens on
+     * the simulation thread before the next tick.
      *
      * @param typeId the ID of the egg type to purchase
      */
@@ -29,6 +34,7 @@ public class EggController implements EggPanelListener {
             return;
         }
 
-        eggProvider.purchaseEgg(type.orElseThrow());
+        AntType antType = type.orElseThrow();
+        simulationProvider.submit(() -> eggProvider.purchaseEgg(antType));
     }
 }
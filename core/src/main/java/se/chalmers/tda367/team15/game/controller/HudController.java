@@ -1,10 +1,8 @@
 package se.chalmers.tda367.team15.game.controller;
 
 import se.chalmers.tda367.team15.game.model.entity.ant.AntTypeRegistry;
-import se.chalmers.tda367.team15.game.model.interfaces.providers.ColonyDataProvider;
-import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
-import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
+import se.chalmers.tda367.team15.game.model.snapshot.WorldSnapshot;
 import se.chalmers.tda367.team15.game.view.ui.EggPanelView;
 import se.chalmers.tda367.team15.game.view.ui.HudView;
 import se.chalmers.tda367.team15.game.view.ui.PheromoneSelectionListener;
@@ -13,22 +11,17 @@ import se.chalmers.tda367.team15.game.view.ui.UiSkin;
 public class HudController implements PheromoneSelectionListener {
     private final HudView view;
     private final PheromoneController pheromoneController;
-    private final ColonyDataProvider colonyDataProvider;
     private final SpeedController speedController;
-    private final TimeCycleDataProvider timeProvider;
     private final EggController eggController;
     private final EggPanelView eggPanelView;
 
     public HudController(HudView view, AntTypeRegistry antTypeRegistry,
             PheromoneController pheromoneController, SpeedController speedController, UiSkin uiFactory,
-            TimeCycleDataProvider timeProvider, ColonyDataProvider colonyDataProvider,
             EggController eggController,
             EggPanelView eggPanelView) {
         this.view = view;
-        this.timeProvider = timeProvider;
         this.pheromoneController = pheromoneController;
         this.speedController = speedController;
-        this.colonyDataProvider = colonyDataProvider;
         this.eggPanelView = eggPanelView;
         this.eggController = eggController;
 
@@ -47,8 +40,11 @@ public class HudController implements PheromoneSelectionListener {
         pheromoneController.setCurrentType(type);
     }
 
-    public void update(float dt) {
-        view.updateData(timeProvider, colonyDataProvider.getAnts().size(),
-                colonyDataProvider.getTotalResources(ResourceType.FOOD), colonyDataProvider.getConsumption());
+    public void update(WorldSnapshot snapshot) {
+        view.updateData(snapshot.getDayNumber(), snapshot.getHour(), snapshot.getMinute(),
+                snapshot.getColonyAnts(), snapshot.getFood(), snapshot.getConsumption());
+        eggPanelView.update(snapshot);
+        view.updateSimulationLoad(snapshot.getLoad());
+        view.updateTimings(snapshot.getTimings());
     }
 }
@@ -6,19 +6,41 @@ import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.SimulationProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneStroke;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
-
+import se.chalmers.tda367.team15.game.model.pheromones.RemovalMode;
+
+/**
+ * Draws and erases pheromone trails with the mouse.
+ *
+ * Edits are submitted as commands and applied on the simulation thread, so the
+ * trail being drawn is tracked in a {@link Stroke} whose pheromone stroke only
+ * that thread touches. A drag draws one {@link PheromoneStroke}, committed when
+ * the button is released. Erasing keeps the parts of a trail that still connect
+ * to the colony.
+ */
 public class PheromoneController extends InputAdapter {
     private final PheromoneUsageProvider pheromoneUsageProvider;
+    private final SimulationProvider simulationProvider;
     private final CoordinateConverter converter;
     private PheromoneType currentType = PheromoneType.GATHER; // null = delete mode
-    private GridPoint2 lastGridPos; // Track last drawn position for line interpolation
-    private boolean isDragging = false;
+    private Stroke stroke; // The trail being drawn, null when not dragging
+
+    private static class Stroke {
+        private final PheromoneType type; // null = delete mode
+        private PheromoneStroke pheromones; // Set on the simulation thread when drawing
 
-    public PheromoneController(PheromoneUsageProvider pheromoneUsageProvider, CoordinateConverter converter) {
+        Stroke(PheromoneType type) {
+            this.type = type;
+        }
+    }
+
+    public PheromoneController(PheromoneUsageProvider pheromoneUsageProvider, SimulationProvider simulationProvider,
+            CoordinateConverter converter) {
         this.pheromoneUsageProvider = pheromoneUsageProvider;
+        this.simulationProvider = simulationProvider;
         this.converter = converter;
-        this.lastGridPos = null;
     }
 
     public void setCurrentType(PheromoneType type) {
@@ -34,8 +56,11 @@ public class PheromoneController extends InputAdapter {
         if (button != Input.Buttons.LEFT) {
             return false;
         }
-        isDragging = true;
-        lastGridPos = null;
+        Stroke target = new Stroke(currentType);
+        stroke = target;
+        if (target.type != null) {
+            simulationProvider.submit(() -> target.pheromones = pheromoneUsageProvider.beginStroke(target.type));
+        }
 
         handleInput(screenX, screenY);
         return false;
@@ -43,7 +68,7 @@ public class PheromoneController extends InputAdapter {
 
     @Override
     public boolean touchDragged(int screenX, int screenY, int pointer) {
-        if (!isDragging) {
+        if (stroke == null) {
             return false;
         }
 
@@ -53,8 +78,11 @@ public class PheromoneController extends InputAdapter {
 
     @Override
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
-        lastGridPos = null;
-        isDragging = false;
+        Stroke target = stroke;
+        if (target != null && target.type != null) {
+            simulationProvider.submit(() -> target.pheromones.commit());
+        }
+        stroke = null;
         return false;
     }
 
@@ -63,13 +91,14 @@ public class PheromoneController extends InputAdapter {
         Vector2 worldPos = converter.screenToWorld(screenPos);
 
         GridPoint2 gridPos = worldToGrid(worldPos);
+        Stroke target = stroke;
 
-        if (currentType == null) {
-            pheromoneUsageProvider.removeAllPheromones(gridPos);
+        if (target.type == null) {
+            simulationProvider.submit(() -> pheromoneUsageProvider.removeAllPheromones(gridPos, RemovalMode.REROOT));
             return;
         }
 
-        lastGridPos = pheromoneUsageProvider.drawPheromonesBetween(lastGridPos, gridPos, currentType);
+        simulationProvider.submit(() -> target.pheromones.lineTo(gridPos));
     }
 
     /**
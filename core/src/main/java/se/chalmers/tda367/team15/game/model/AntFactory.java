@@ -1,6 +1,7 @@
 package se.chalmers.tda367.team15.game.model;
 
 import java.util.HashMap;
+import java.util.Random;
 
 import com.badlogic.gdx.math.Vector2;
 
@@ -17,20 +18,25 @@ public class AntFactory {
     private final EntityQuery entityQuery;
     private final DestructionListener destructionListener;
     private final HashMap<AttackCategory, Integer> targetPriority;
+    private final Random random;
 
+    /**
+     * @param random hands out the seed of every ant created
+     */
     public AntFactory(PheromoneManager pheromoneManager, MapProvider map, EntityQuery entityQuery,
             DestructionListener destructionListener,
-            HashMap<AttackCategory, Integer> targetPriority) {
+            HashMap<AttackCategory, Integer> targetPriority, Random random) {
         this.pheromoneManager = pheromoneManager;
         this.map = map;
         this.entityQuery = entityQuery;
         this.destructionListener = destructionListener;
         this.targetPriority = targetPriority;
+        this.random = random;
     }
 
     public Ant createAnt(Home home, AntType type) {
         Vector2 position = home.getPosition();
         return new Ant(position, pheromoneManager, type, map, home, entityQuery, targetPriority,
-                destructionListener);
+                destructionListener, random.nextLong());
     }
 }
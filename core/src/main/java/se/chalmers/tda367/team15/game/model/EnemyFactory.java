@@ -1,6 +1,7 @@
 package se.chalmers.tda367.team15.game.model;
 
 import java.util.HashMap;
+import java.util.Random;
 
 import com.badlogic.gdx.math.Vector2;
 
@@ -11,16 +12,21 @@ public class EnemyFactory {
     private final DestructionListener destructionListener;
     private final EntityQuery entityQuery;
     private final HashMap<AttackCategory, Integer> targetPriority;
+    private final Random random;
 
+    /**
+     * @param random hands out the seed of every enemy created
+     */
     public EnemyFactory(EntityQuery entityQuery, DestructionListener destructionListener,
-            HashMap<AttackCategory, Integer> targetPriority) {
+            HashMap<AttackCategory, Integer> targetPriority, Random random) {
         this.entityQuery = entityQuery;
         this.destructionListener = destructionListener;
         this.targetPriority = targetPriority;
+        this.random = random;
     }
 
     public Termite createTermite(Vector2 pos) {
-        return new Termite(pos, entityQuery, targetPriority, destructionListener);
+        return new Termite(pos, entityQuery, targetPriority, destructionListener, random.nextLong());
 
     }
 }
@@ -17,6 +17,8 @@ import se.chalmers.tda367.team15.game.model.interfaces.providers.StructureModifi
 import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
 import se.chalmers.tda367.team15.game.model.managers.egg.EggManager;
 import se.chalmers.tda367.team15.game.model.managers.fog.FogProvider;
+import se.chalmers.tda367.team15.game.model.snapshot.SnapshotPublisher;
+import se.chalmers.tda367.team15.game.model.snapshot.WorldSnapshot;
 import se.chalmers.tda367.team15.game.model.world.MapProvider;
 
 public class GameModel {
@@ -31,6 +33,8 @@ public class GameModel {
     private final StructureModificationProvider structureModificationProvider;
     private final EntityQuery entityQuery;
     private final EggManager eggManager;
+    private final SnapshotPublisher snapshotPublisher;
+    private final StateChecksum stateChecksum;
 
     public GameModel(SimulationProvider simulationProvider, TimeCycleDataProvider timeProvider,
             FogProvider fogProvider, ColonyDataProvider colonyDataProvider,
@@ -48,6 +52,10 @@ public class GameModel {
         this.structureModificationProvider = structureModificationProvider;
         this.entityQuery = entityQuery;
         this.eggManager = eggManager;
+        this.snapshotPublisher = new SnapshotPublisher(simulationProvider, structureModificationProvider,
+                entityQuery, pheromoneUsageProvider, fogProvider, colonyDataProvider, timeProvider, eggManager);
+        this.stateChecksum = new StateChecksum(entityQuery, structureModificationProvider, pheromoneUsageProvider,
+                colonyDataProvider, timeProvider);
     }
 
     public Collection<GameObject> getDrawables() {
@@ -70,20 +78,64 @@ public class GameModel {
 
     // --- FACADE METHODS (Actions) ---
 
+    // Speed changes go through the command queue, since the simulation may be
+    // running on another thread
+
     public void setTimeFast() {
-        simulationProvider.setTimeFast();
+        simulationProvider.submit(simulationProvider::setTimeFast);
     }
 
     public void setTimeNormal() {
-        simulationProvider.setTimeNormal();
+        simulationProvider.submit(simulationProvider::setTimeNormal);
     }
 
     public void setTimePaused() {
-        simulationProvider.setTimePaused();
+        simulationProvider.submit(simulationProvider::setTimePaused);
+    }
+
+    /**
+     * Runs queued commands and any ticks that are due. Must always be called
+     * from the same thread.
+     *
+     * @return whether anything was run
+     */
+    public boolean update() {
+        return simulationProvider.handleSimulation();
+    }
+
+    /**
+     * Queues a command to run on the simulation thread before the next tick.
+     */
+    public void submit(Runnable command) {
+        simulationProvider.submit(command);
+    }
+
+    public SimulationProvider getSimulationProvider() {
+        return simulationProvider;
+    }
+
+    /**
+     * Publishes the current state for {@link #getSnapshot()}. Must be called from
+     * the thread that calls {@link #update()}.
+     */
+    public void publishSnapshot() {
+        snapshotPublisher.publish();
+    }
+
+    /**
+     * @return the latest published snapshot, see {@link SnapshotPublisher}
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshotPublisher.latest();
     }
 
-    public void update() {
-        simulationProvider.handleSimulation();
+    /**
+     * @return a checksum of the simulation state, equal between two games with
+     *         the same seed and input after the same number of ticks. Must be
+     *         called from the thread that calls {@link #update()}.
+     */
+    public long computeChecksum() {
+        return stateChecksum.compute();
     }
 
     public FogProvider getFogProvider() {
@@ -0,0 +1,215 @@
+package se.chalmers.tda367.team15.game.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Random;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntTypeRegistry;
+import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
+import se.chalmers.tda367.team15.game.model.interfaces.Home;
+import se.chalmers.tda367.team15.game.model.managers.EntityManager;
+import se.chalmers.tda367.team15.game.model.managers.PheromoneManager;
+import se.chalmers.tda367.team15.game.model.managers.ResourceManager;
+import se.chalmers.tda367.team15.game.model.managers.SimulationManager;
+import se.chalmers.tda367.team15.game.model.managers.StructureManager;
+import se.chalmers.tda367.team15.game.model.managers.WaveManager;
+import se.chalmers.tda367.team15.game.model.managers.egg.EggManager;
+import se.chalmers.tda367.team15.game.model.managers.fog.FogManager;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.profiling.TickProfiler;
+import se.chalmers.tda367.team15.game.model.structure.Colony;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceNodeFactory;
+import se.chalmers.tda367.team15.game.model.world.MapProvider;
+import se.chalmers.tda367.team15.game.model.world.TerrainFactory;
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerator;
+import se.chalmers.tda367.team15.game.model.world.WorldMap;
+import se.chalmers.tda367.team15.game.model.world.terrain.StructureSpawn;
+
+/**
+ * Factory for creating and wiring the GameModel.
+ *
+ * Only touches model classes, so it can be used both by the GameScreen and by
+ * launchers that run the simulation without a window.
+ */
+public class GameModelFactory {
+    // Added to the seed for the simulation's random stream, so that it does not
+    // repeat the streams used for terrain generation
+    private static final long SIMULATION_SEED_OFFSET = 3000;
+
+    private final GameConfiguration gameConfiguration;
+    private final long seed;
+
+    public GameModelFactory(GameConfiguration gameConfiguration) {
+        this.gameConfiguration = gameConfiguration;
+        this.seed = gameConfiguration.seed() != null ? gameConfiguration.seed() : new Random().nextLong();
+    }
+
+    /**
+     * @return the seed the terrain and all randomness in the simulation are
+     *         derived from. Picked at random unless the configuration sets one,
+     *         two models created with the same seed and fed the same input
+     *         play out identically.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Creates the game model and registers all simulation observers on the given
+     * simulation manager.
+     *
+     * @param simulationManager the simulation manager that will drive the model
+     * @return the wired game model
+     */
+    public GameModel createGameModel(SimulationManager simulationManager) {
+        return createGameModel(simulationManager, new TickProfiler());
+    }
+
+    /**
+     * Creates the game model like {@link #createGameModel(SimulationManager)},
+     * timing the observers and time callbacks with the given profiler.
+     *
+     * @param simulationManager the simulation manager that will drive the model
+     * @param profiler          records how long each observer and callback takes
+     * @return the wired game model
+     */
+    public GameModel createGameModel(SimulationManager simulationManager, TickProfiler profiler) {
+        simulationManager.setAdaptiveSpeed(gameConfiguration.adaptiveSpeed());
+        simulationManager.setProfiler(profiler);
+        // Everything random in the simulation is drawn from here, on the simulation
+        // thread, so the order of draws is the same in every run
+        Random random = new Random(seed + SIMULATION_SEED_OFFSET);
+        AntTypeRegistry antTypeRegistry = createAntTypeRegistry();
+        TimeCycle timeCycle = new TimeCycle(1f / GameConfiguration.TICKS_PER_MINUTE);
+        timeCycle.setProfiler(profiler);
+        simulationManager.addUpdateObserver(timeCycle);
+
+        DestructionListener destructionListener = new DestructionListener();
+        EntityManager entityManager = new EntityManager(gameConfiguration.parallelEntities());
+        simulationManager.addUpdateObserver(entityManager);
+        destructionListener.addEntityDeathObserver(entityManager);
+
+        StructureManager structureManager = new StructureManager();
+        simulationManager.addUpdateObserver(structureManager);
+
+        ResourceManager resourceManager = new ResourceManager(entityManager, structureManager);
+        simulationManager.addUpdateObserver(resourceManager);
+
+        WorldMap worldMap = createWorldMap(gameConfiguration.mapSize());
+
+        FogManager fogManager = new FogManager(entityManager, worldMap);
+        simulationManager.addUpdateObserver(fogManager);
+
+        PheromoneManager pheromoneManager = createPheromoneManager();
+        simulationManager.addUpdateObserver(pheromoneManager);
+        AntFactory antFactory = createAntFactory(pheromoneManager, worldMap, entityManager, destructionListener,
+                random);
+
+        Colony colony = createColony(timeCycle, entityManager, structureManager,
+                gameConfiguration.startResources());
+
+        EggManager eggManager = new EggManager(antTypeRegistry, antFactory, colony, entityManager);
+        timeCycle.addTimeObserver(eggManager);
+
+        spawnInitialAnts(entityManager, colony, antFactory, antTypeRegistry);
+        spawnTerrainStructures(new ResourceNodeFactory(), worldMap, structureManager);
+
+        createWaveManager(entityManager, destructionListener, timeCycle, random);
+
+        return new GameModel(simulationManager, timeCycle, fogManager, colony,
+                pheromoneManager, worldMap, antTypeRegistry, structureManager, entityManager, eggManager);
+    }
+
+    private WorldMap createWorldMap(GridPoint2 mapSize) {
+        TerrainGenerator terrainGenerator = TerrainFactory.createStandardPerlinGenerator(
+                seed, GameConfiguration.GRASS_VARIANT_TYPES);
+        return new WorldMap(mapSize.x, mapSize.y, terrainGenerator);
+    }
+
+    private PheromoneManager createPheromoneManager() {
+        PheromoneGridConverter pheromoneGridConverter = new PheromoneGridConverter(4);
+        PheromoneManager pheromoneManager = new PheromoneManager(new GridPoint2(0, 0), pheromoneGridConverter, 4,
+                gameConfiguration.pheromoneLifetime());
+        if (gameConfiguration.pheromoneNetwork() != null) {
+            Path path = Path.of(gameConfiguration.pheromoneNetwork());
+            try (InputStream in = Files.newInputStream(path)) {
+                pheromoneManager.loadNetwork(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load pheromone network " + path, e);
+            }
+        }
+        return pheromoneManager;
+    }
+
+    private AntFactory createAntFactory(PheromoneManager pheromoneManager, WorldMap worldMap,
+            EntityManager entityManager, DestructionListener destructionListener, Random random) {
+        HashMap<AttackCategory, Integer> antTargetPriority = new HashMap<>();
+        antTargetPriority.put(AttackCategory.TERMITE, 2);
+        return new AntFactory(pheromoneManager, worldMap, entityManager, destructionListener, antTargetPriority,
+                random);
+    }
+
+    private void createWaveManager(EntityManager entityManager, DestructionListener destructionListener,
+            TimeCycle timeCycle, Random random) {
+        HashMap<AttackCategory, Integer> termiteTargetPriority = new HashMap<>();
+        termiteTargetPriority.put(AttackCategory.WORKER_ANT, 2);
+
+        EnemyFactory enemyFactory = new EnemyFactory(entityManager, destructionListener, termiteTargetPriority,
+                random);
+        WaveManager waveManager = new WaveManager(enemyFactory, entityManager, random);
+        timeCycle.addTimeObserver(waveManager);
+    }
+
+    public void spawnInitialAnts(EntityManager entityManager, Home home, AntFactory antFactory,
+            AntTypeRegistry antTypeRegistry) {
+        AntType type = antTypeRegistry.get(gameConfiguration.antType()).orElseThrow();
+
+        for (int i = 0; i < gameConfiguration.startAnts(); i++) {
+            Ant ant = antFactory.createAnt(home, type);
+            entityManager.addEntity(ant);
+        }
+    }
+
+    private void spawnTerrainStructures(ResourceNodeFactory resourceNodeFactory, MapProvider map,
+            StructureManager structureManager) {
+        for (StructureSpawn spawn : map.getStructureSpawns()) {
+            if ("resource_node".equals(spawn.getType())) {
+                Vector2 structurePos = map.tileToWorld(spawn.getPosition());
+                structureManager.addStructure(resourceNodeFactory.createResourceNode(structurePos, spawn));
+            }
+            // Add other structure types here
+        }
+    }
+
+    private Colony createColony(TimeCycle timeCycle,
+            EntityQuery entityQuery, StructureManager structureManager,
+            int initialFood) {
+        Colony colony = new Colony(new GridPoint2(0, 0), entityQuery,
+                initialFood);
+        structureManager.addStructure(colony);
+        timeCycle.addTimeObserver(colony);
+        return colony;
+    }
+
+    /**
+     * Initializes and registers all ant types in the registry.
+     * This must be called before creating GameModel to ensure ant types are
+     * available.
+     */
+    private AntTypeRegistry createAntTypeRegistry() {
+        AntTypeRegistry registry = new AntTypeRegistry();
+
+        GameConfiguration.registerAntTypes(registry);
+        return registry;
+    }
+}
@@ -0,0 +1,26 @@
+package se.chalmers.tda367.team15.game.model;
+
+/**
+ * How much of its time budget the simulation is using.
+ *
+ * @param tickMs         average wall-clock time one tick takes
+ * @param budgetMs       wall-clock time available per tick at the current speed
+ * @param speedFactor    share of the requested speed actually run, below 1 when
+ *                       adaptive speed has slowed the simulation down
+ * @param fallingBehind  whether ticks were still due after the last update ran
+ *                       as many as it may
+ * @param droppedTicks   ticks skipped so far because the simulation could not
+ *                       catch up
+ */
+public record SimulationLoad(double tickMs, double budgetMs, double speedFactor, boolean fallingBehind,
+        long droppedTicks) {
+    public static final SimulationLoad IDLE = new SimulationLoad(0, 0, 1, false, 0);
+
+    /**
+     * @return tick time as a share of the budget, above 1 means the simulation
+     *         cannot keep up
+     */
+    public double load() {
+        return budgetMs > 0 ? tickMs / budgetMs : 0;
+    }
+}
@@ -0,0 +1,83 @@
+package se.chalmers.tda367.team15.game.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link GameModel} on a thread of its own, so that slow ticks do not
+ * lower the frame rate.
+ *
+ * The thread keeps calling {@link GameModel#update()} and publishes a snapshot
+ * whenever something has run. The render thread only reads snapshots and
+ * hands its input over as commands, see {@link GameModel#submit(Runnable)}.
+ */
+public class SimulationThread {
+    // How long to wait between checks when no tick is due yet
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final GameModel gameModel;
+    private volatile boolean running = false;
+    private volatile Throwable failure;
+    private Thread thread;
+
+    public SimulationThread(GameModel gameModel) {
+        this.gameModel = gameModel;
+    }
+
+    /**
+     * Publishes a first snapshot and starts the thread. Does nothing if it is
+     * already running.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        gameModel.publishSnapshot();
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the thread and waits for the current tick to finish.
+     */
+    public void stop() {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Rethrows on the calling thread if the simulation thread died, so errors do
+     * not go unnoticed while the last snapshot keeps being rendered.
+     */
+    public void checkFailure() {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("simulation thread failed", cause);
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                if (gameModel.update()) {
+                    gameModel.publishSnapshot();
+                } else {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            running = false;
+        }
+    }
+}
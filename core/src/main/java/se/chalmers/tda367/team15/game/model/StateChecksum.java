@@ -0,0 +1,133 @@
+package se.chalmers.tda367.team15.game.model;
+
+import java.util.List;
+
+import se.chalmers.tda367.team15.game.model.entity.Entity;
+import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
+import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.ColonyDataProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.StructureProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneJournal;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.structure.Structure;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceNode;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
+
+/**
+ * Hashes the simulation state into one number, so that two runs can be checked
+ * for being bit-identical by comparing checksums tick by tick.
+ *
+ * Covers the in-game time, every entity's kinematics and carried resources,
+ * the resources left in structures and the colony, and all pheromones. Floats
+ * are hashed by their bits, so even the smallest divergence shows.
+ *
+ * The pheromone part is a sum over all pheromones, kept up to date from the
+ * pheromone journal instead of being recomputed every time.
+ */
+public class StateChecksum {
+    private final EntityQuery entityQuery;
+    private final StructureProvider structureProvider;
+    private final PheromoneUsageProvider pheromoneUsageProvider;
+    private final ColonyDataProvider colonyDataProvider;
+    private final TimeCycleDataProvider timeProvider;
+    // Sum of the hashes of all pheromones, as of the journal version
+    private long pheromoneSum = 0;
+    private long pheromoneVersion = 0;
+    private final PheromoneJournal.ChangeListener pheromoneSumUpdater = this::updatePheromoneSum;
+
+    public StateChecksum(EntityQuery entityQuery, StructureProvider structureProvider,
+            PheromoneUsageProvider pheromoneUsageProvider, ColonyDataProvider colonyDataProvider,
+            TimeCycleDataProvider timeProvider) {
+        this.entityQuery = entityQuery;
+        this.structureProvider = structureProvider;
+        this.pheromoneUsageProvider = pheromoneUsageProvider;
+        this.colonyDataProvider = colonyDataProvider;
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * @return the checksum of the current state. Must be called from the thread
+     *         that drives the simulation, while no tick is running.
+     */
+    public long compute() {
+        long hash = combine(0, timeProvider.getGameTime().ticks());
+
+        List<Entity> entities = entityQuery.getEntitiesOfType(Entity.class);
+        hash = combine(hash, entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            hash = combine(hash, entity.getTypeId().hashCode());
+            hash = combine(hash, Float.floatToRawIntBits(entity.getX()));
+            hash = combine(hash, Float.floatToRawIntBits(entity.getY()));
+            hash = combine(hash, Float.floatToRawIntBits(entity.getVelocityX()));
+            hash = combine(hash, Float.floatToRawIntBits(entity.getVelocityY()));
+            hash = combine(hash, Float.floatToRawIntBits(entity.getRotation()));
+            if (entity instanceof Ant ant) {
+                hash = combine(hash, ant.getInventory().getTotalAmount());
+            }
+        }
+
+        List<Structure> structures = structureProvider.getStructures();
+        hash = combine(hash, structures.size());
+        for (int i = 0; i < structures.size(); i++) {
+            if (structures.get(i) instanceof ResourceNode node) {
+                hash = combine(hash, node.getCurrentAmount());
+            }
+        }
+
+        for (ResourceType type : ResourceType.values()) {
+            hash = combine(hash, colonyDataProvider.getTotalResources(type));
+        }
+        hash = combine(hash, colonyDataProvider.getIsDead() ? 1 : 0);
+
+        return combine(hash, pheromoneSum());
+    }
+
+    /**
+     * @return the sum of the hashes of all pheromones, summed so the order they
+     *         are stored in does not matter
+     */
+    private long pheromoneSum() {
+        PheromoneJournal journal = pheromoneUsageProvider.getJournal();
+        if (!journal.changesSince(pheromoneVersion, pheromoneSumUpdater)) {
+            pheromoneSum = 0;
+            for (Pheromone pheromone : pheromoneUsageProvider.getPheromones()) {
+                pheromoneSum += hashPheromone(pheromone.getPosition().x, pheromone.getPosition().y,
+                        pheromone.getType(), pheromone.getDistance());
+            }
+        }
+        pheromoneVersion = journal.getVersion();
+        return pheromoneSum;
+    }
+
+    private void updatePheromoneSum(int x, int y, PheromoneType type, int oldDistance, int newDistance) {
+        if (oldDistance != 0) {
+            pheromoneSum -= hashPheromone(x, y, type, oldDistance);
+        }
+        if (newDistance != 0) {
+            pheromoneSum += hashPheromone(x, y, type, newDistance);
+        }
+    }
+
+    private static long hashPheromone(int x, int y, PheromoneType type, int distance) {
+        long hash = combine(0, x);
+        hash = combine(hash, y);
+        hash = combine(hash, type.ordinal());
+        return combine(hash, distance);
+    }
+
+    private static long combine(long hash, long value) {
+        return mix(hash ^ mix(value));
+    }
+
+    // Finalizer of the SplitMix64 generator, spreads every input bit over the
+    // whole result
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -6,11 +6,21 @@ import java.util.List;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.TimeObserver;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
+import se.chalmers.tda367.team15.game.model.profiling.TickProfiler;
+import se.chalmers.tda367.team15.game.model.profiling.TimingHistogram;
 
 public class TimeCycle implements SimulationObserver, TimeCycleDataProvider {
     private int minutes;
     private final float timePerMinute;
     private final List<TimeObserver> timeObservers = new ArrayList<>();
+    // Histograms for each observer's callbacks, indexed like timeObservers and
+    // holding null while there is no profiler
+    private final List<TimingHistogram[]> callbackHistograms = new ArrayList<>();
+    private TickProfiler profiler;
+
+    private static final int ON_MINUTE = 0;
+    private static final int ON_NIGHT_START = 1;
+    private static final int ON_DAY_START = 2;
 
     private float timeSinceLastMinute = 0;
 
@@ -31,27 +41,73 @@ public class TimeCycle implements SimulationObserver, TimeCycleDataProvider {
             minutes++;
             boolean newIsDay = getIsDay();
 
-            for (TimeObserver observer : timeObservers) {
+            for (int i = 0; i < timeObservers.size(); i++) {
+                TimeObserver observer = timeObservers.get(i);
+                TimingHistogram[] histograms = callbackHistograms.get(i);
+                long start = System.nanoTime();
                 observer.onMinute();
+                start = record(histograms, ON_MINUTE, start);
 
                 if (oldIsDay && !newIsDay) {
                     observer.onNightStart();
-
+                    start = record(histograms, ON_NIGHT_START, start);
                 }
                 if (!oldIsDay && newIsDay) {
                     observer.onDayStart();
+                    record(histograms, ON_DAY_START, start);
                 }
             }
 
         }
     }
 
+    /**
+     * Records the time passed since start for the given callback.
+     *
+     * @return the current time, to start timing the next callback from
+     */
+    private static long record(TimingHistogram[] histograms, int callback, long start) {
+        long end = System.nanoTime();
+        if (histograms != null) {
+            histograms[callback].record(end - start);
+        }
+        return end;
+    }
+
+    /**
+     * @param profiler records how long each observer's callbacks take, or null
+     *                 to stop timing them
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+        for (int i = 0; i < timeObservers.size(); i++) {
+            callbackHistograms.set(i, createHistograms(timeObservers.get(i)));
+        }
+    }
+
     public void addTimeObserver(TimeObserver observer) {
         timeObservers.add(observer);
+        callbackHistograms.add(createHistograms(observer));
     }
 
     public void removeTimeObserver(TimeObserver observer) {
-        timeObservers.remove(observer);
+        int index = timeObservers.indexOf(observer);
+        if (index >= 0) {
+            timeObservers.remove(index);
+            callbackHistograms.remove(index);
+        }
+    }
+
+    private TimingHistogram[] createHistograms(TimeObserver observer) {
+        if (profiler == null) {
+            return null;
+        }
+        String name = TickProfiler.nameOf(observer);
+        TimingHistogram[] histograms = new TimingHistogram[3];
+        histograms[ON_MINUTE] = profiler.histogram(name + ".onMinute");
+        histograms[ON_NIGHT_START] = profiler.histogram(name + ".onNightStart");
+        histograms[ON_DAY_START] = profiler.histogram(name + ".onDayStart");
+        return histograms;
     }
 
     public int getHour() {
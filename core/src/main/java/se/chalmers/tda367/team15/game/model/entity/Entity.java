@@ -1,6 +1,7 @@
 package se.chalmers.tda367.team15.game.model.entity;
 
-import com.badlogic.gdx.math.MathUtils;
+import java.util.Random;
+
 import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.interfaces.GameObject;
@@ -9,69 +10,127 @@ import se.chalmers.tda367.team15.game.model.interfaces.MovementStrategy;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
 
 public abstract class Entity implements GameObject, SimulationObserver, HasPosition {
-    protected Vector2 position;
-    protected float rotation;
-    protected Vector2 velocity;
-    private MovementStrategy movementStrategy;
-
-    public Entity(Vector2 position) {
-        this.position = position;
-        this.rotation = 0f;
-        this.velocity = new Vector2(0f, 0f);
+    // Position, velocity and rotation live in the store, the entity only knows
+    // its slot. Both are updated by KinematicsStore when the entity is moved
+    // between stores.
+    KinematicsStore kinematics;
+    int slot;
+    // Per-entity stream so behaviours give the same result regardless of the
+    // order entities are updated in
+    private final Random random;
+
+    /**
+     * @param seed seed for the entity's random stream, see {@link #getRandom()}
+     */
+    public Entity(Vector2 position, long seed) {
+        this.kinematics = new KinematicsStore(1);
+        this.slot = kinematics.allocate(this, position.x, position.y, 0f, 0f, 0f);
+        this.random = new Random(seed);
     }
 
     public void setMovementStrategy(MovementStrategy movementStrategy) {
-        this.movementStrategy = movementStrategy;
+        kinematics.setMovementStrategy(slot, movementStrategy);
     }
 
+    /**
+     * Called when the movement strategy stopped the entity from moving.
+     */
     protected void handleCollision() {
-        velocity = new Vector2(0, 0);
+        kinematics.vx[slot] = 0f;
+        kinematics.vy[slot] = 0f;
     }
 
+    /**
+     * Updates the entity in one go, see {@link #updateBehavior()},
+     * {@link #applyUpdate()} and {@link #move(float)}.
+     */
     @Override
     public void update(float deltaTime) {
-        updateRotation();
-        Vector2 velocityStep = velocity.cpy().scl(deltaTime);
-        Vector2 nextPosition = position.cpy().add(velocityStep);
+        updateBehavior();
+        applyUpdate();
+        move(deltaTime);
+    }
+
+    /**
+     * First half of a tick, decides what the entity wants to do.
+     *
+     * May run in parallel with other entities. Implementations may only change
+     * the entity's own state and must leave anything other entities can observe
+     * (positions, health, shared counters) to {@link #applyUpdate()}.
+     */
+    public void updateBehavior() {
+    }
 
-        // If no strategy is set, we assume free movement
-        if (movementStrategy != null && !movementStrategy.canMoveTo(nextPosition)) {
+    /**
+     * Second half of a tick, commits what was decided in
+     * {@link #updateBehavior()}. Always run serially, in entity order.
+     */
+    public void applyUpdate() {
+    }
+
+    /**
+     * Moves this entity alone by its velocity. Entities managed by an
+     * {@link se.chalmers.tda367.team15.game.model.managers.EntityManager} are
+     * moved all at once by {@link KinematicsStore#integrate(float)} instead.
+     */
+    public void move(float deltaTime) {
+        if (kinematics.integrate(slot, slot + 1, deltaTime) > 0) {
             handleCollision();
-            return;
         }
-        position.set(nextPosition);
-
     }
 
     @Override
     public Vector2 getPosition() {
-        return position.cpy();
+        return new Vector2(kinematics.x[slot], kinematics.y[slot]);
+    }
+
+    @Override
+    public float getX() {
+        return kinematics.x[slot];
+    }
+
+    @Override
+    public float getY() {
+        return kinematics.y[slot];
     }
 
     @Override
     public float getRotation() {
-        return rotation;
+        return kinematics.rotation[slot];
     }
 
-    private void updateRotation() {
-        if (getVelocity().len2() > 0.1f) {
-            rotation = getVelocity().angleRad() - MathUtils.PI / 2f;
-        }
+    /**
+     * @return the entity's own random stream, the only source of randomness its
+     *         behaviours may use so that a seeded game always plays out the same
+     */
+    public Random getRandom() {
+        return random;
     }
 
     public Vector2 getVelocity() {
-        return velocity.cpy();
+        return new Vector2(kinematics.vx[slot], kinematics.vy[slot]);
+    }
+
+    public float getVelocityX() {
+        return kinematics.vx[slot];
+    }
+
+    public float getVelocityY() {
+        return kinematics.vy[slot];
     }
 
     public void setVelocity(Vector2 vel) {
-        velocity.set(vel);
+        kinematics.vx[slot] = vel.x;
+        kinematics.vy[slot] = vel.y;
     }
 
     public void moveBy(Vector2 delta) {
-        position.add(delta);
+        kinematics.x[slot] += delta.x;
+        kinematics.y[slot] += delta.y;
     }
 
     public void moveTo(Vector2 pos) {
-        position.set(pos);
+        kinematics.x[slot] = pos.x;
+        kinematics.y[slot] = pos.y;
     }
 }
@@ -0,0 +1,176 @@
+package se.chalmers.tda367.team15.game.model.entity;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.model.interfaces.MovementStrategy;
+
+/**
+ * Position, velocity and rotation of many entities, stored as one array per
+ * component and indexed by slot.
+ *
+ * Every {@link Entity} reads and writes its kinematics through the store it
+ * currently lives in. An entity starts out in a store of its own and is moved
+ * into a shared one with {@link #add(Entity)}, so that all of them can be moved
+ * by a single loop in {@link #integrate(float)}.
+ *
+ * Slots are kept dense, removing an entity moves the last one into its slot.
+ */
+public class KinematicsStore {
+    float[] x;
+    float[] y;
+    float[] vx;
+    float[] vy;
+    float[] rotation;
+    private Entity[] owners;
+    private MovementStrategy[] movementStrategies;
+    private int size = 0;
+
+    // Slots blocked during the last integrate, reused between ticks
+    private int[] blocked;
+    // Only used to call MovementStrategy, which takes a vector
+    private final Vector2 probe = new Vector2();
+
+    public KinematicsStore() {
+        this(16);
+    }
+
+    public KinematicsStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        rotation = new float[capacity];
+        owners = new Entity[capacity];
+        movementStrategies = new MovementStrategy[capacity];
+        blocked = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves the entity's kinematics from the store it is in into this one.
+     */
+    public void add(Entity entity) {
+        KinematicsStore from = entity.kinematics;
+        if (from == this) {
+            return;
+        }
+        int oldSlot = entity.slot;
+        int slot = allocate(entity, from.x[oldSlot], from.y[oldSlot], from.vx[oldSlot], from.vy[oldSlot],
+                from.rotation[oldSlot]);
+        movementStrategies[slot] = from.movementStrategies[oldSlot];
+        from.release(oldSlot);
+        entity.kinematics = this;
+        entity.slot = slot;
+    }
+
+    /**
+     * Moves the entity out into a store of its own, so it keeps its kinematics
+     * after it has left the simulation. Entities in other stores are ignored.
+     */
+    public void remove(Entity entity) {
+        if (entity.kinematics != this) {
+            return;
+        }
+        new KinematicsStore(1).add(entity);
+    }
+
+    /**
+     * Moves every entity in the store by its velocity, turning it to face the
+     * direction it moves in. Entities whose {@link MovementStrategy} rejects the
+     * new position stay put and get {@link Entity#handleCollision()} called once
+     * all entities have moved.
+     */
+    public void integrate(float deltaTime) {
+        int blockedCount = integrate(0, size, deltaTime);
+        for (int i = 0; i < blockedCount; i++) {
+            owners[blocked[i]].handleCollision();
+        }
+    }
+
+    /**
+     * Integrates the slots in {@code [from, to)}.
+     *
+     * @return the number of slots written to {@link #blocked}
+     */
+    int integrate(int from, int to, float deltaTime) {
+        final float[] x = this.x;
+        final float[] y = this.y;
+        final float[] vx = this.vx;
+        final float[] vy = this.vy;
+        final float[] rotation = this.rotation;
+        final MovementStrategy[] movementStrategies = this.movementStrategies;
+
+        int blockedCount = 0;
+        for (int i = from; i < to; i++) {
+            float velocityX = vx[i];
+            float velocityY = vy[i];
+            if (velocityX * velocityX + velocityY * velocityY > 0.1f) {
+                rotation[i] = (float) Math.atan2(velocityY, velocityX) - MathUtils.PI / 2f;
+            }
+            float nextX = x[i] + velocityX * deltaTime;
+            float nextY = y[i] + velocityY * deltaTime;
+
+            // If no strategy is set, we assume free movement
+            MovementStrategy movementStrategy = movementStrategies[i];
+            if (movementStrategy != null && !movementStrategy.canMoveTo(probe.set(nextX, nextY))) {
+                blocked[blockedCount++] = i;
+                continue;
+            }
+            x[i] = nextX;
+            y[i] = nextY;
+        }
+        return blockedCount;
+    }
+
+    int allocate(Entity owner, float posX, float posY, float velX, float velY, float rot) {
+        if (size == owners.length) {
+            grow(size * 2);
+        }
+        int slot = size++;
+        x[slot] = posX;
+        y[slot] = posY;
+        vx[slot] = velX;
+        vy[slot] = velY;
+        rotation[slot] = rot;
+        owners[slot] = owner;
+        return slot;
+    }
+
+    void setMovementStrategy(int slot, MovementStrategy movementStrategy) {
+        movementStrategies[slot] = movementStrategy;
+    }
+
+    private void release(int slot) {
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            vx[slot] = vx[last];
+            vy[slot] = vy[last];
+            rotation[slot] = rotation[last];
+            owners[slot] = owners[last];
+            movementStrategies[slot] = movementStrategies[last];
+            owners[slot].slot = slot;
+        }
+        owners[last] = null;
+        movementStrategies[last] = null;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        movementStrategies = Arrays.copyOf(movementStrategies, capacity);
+        blocked = Arrays.copyOf(blocked, capacity);
+    }
+}
@@ -3,6 +3,8 @@ package se.chalmers.tda367.team15.game.model.entity;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Predicate;
 
 import com.badlogic.gdx.math.Vector2;
 
@@ -10,6 +12,7 @@ import se.chalmers.tda367.team15.game.model.AttackCategory;
 import se.chalmers.tda367.team15.game.model.interfaces.CanAttack;
 import se.chalmers.tda367.team15.game.model.interfaces.CanBeAttacked;
 import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
+import se.chalmers.tda367.team15.game.model.managers.SimulationManager;
 
 /**
  * This class is used as the attack logic for all things with melee attack
@@ -20,68 +23,80 @@ public abstract class MeleeAttackBehaviour {
 
     private final EntityQuery entityQuery;
     private final HashMap<AttackCategory, Integer> targetPriority;
-    private long lastAttackTimeMS = 0;
+    // One filter per priority, highest first. Built once so that picking a
+    // target does not allocate a lambda per tick.
+    private final List<Predicate<CanBeAttacked>> priorityFilters = new ArrayList<>();
+    private final Vector2 direction = new Vector2();
+    // Ticks until the next attack is allowed. Counted in ticks rather than
+    // wall-clock time so that cooldowns follow game speed and seeded games replay
+    // exactly.
+    private int cooldownTicks = 0;
+    private CanBeAttacked pendingTarget = null;
 
     protected MeleeAttackBehaviour(CanAttack canAttack, EntityQuery entityQuery,
             HashMap<AttackCategory, Integer> targetPriority) {
         this.host = canAttack;
         this.entityQuery = entityQuery;
         this.targetPriority = targetPriority;
+        for (int priority : new TreeSet<>(targetPriority.values()).descendingSet()) {
+            priorityFilters.add(target -> hasPriority(target, priority));
+        }
     }
 
     public void update() {
+        if (cooldownTicks > 0) {
+            cooldownTicks--;
+        }
         CanBeAttacked target = findTarget();
         if (target == null) {
             noTargets();
         } else {
-            Vector2 targetV = target.getPosition().sub(this.host.getPosition());
-            host.setVelocity(targetV.nor().scl(this.host.getSpeed()));
+            direction.set(target.getX() - host.getX(), target.getY() - host.getY());
+            host.setVelocity(direction.nor().scl(this.host.getSpeed()));
             attack(target); // Remember, we attack before actually moving
         }
     }
 
+    /**
+     * Decides whether to hit the target this tick. The damage itself is dealt in
+     * {@link #commit()}, so deciding never changes other entities.
+     */
     protected void attack(CanBeAttacked target) {
-        long now = System.currentTimeMillis();
-        if (now - lastAttackTimeMS > host.getAttackCoolDownMs()) {
-            if (target.getPosition().dst(host.getPosition()) <= host.getAttackRange()) {
-                lastAttackTimeMS = System.currentTimeMillis();
-                target.takeDamage(host.getAttackDamage());
+        if (cooldownTicks == 0) {
+            if (Vector2.dst(target.getX(), target.getY(), host.getX(), host.getY()) <= host.getAttackRange()) {
+                cooldownTicks = SimulationManager.ticksFor(host.getAttackCoolDownMs());
+                pendingTarget = target;
             }
         }
     }
 
-    private CanBeAttacked findTarget() {
-
-        CanBeAttacked target = null;
-
-        List<CanBeAttacked> potentialTargets = potentialTargets();
-
-        // determine target, TargetPriority gives us: ants first, then structures, then
-        // stand still.
-        if (!potentialTargets.isEmpty()) {
-            target = potentialTargets.getFirst();
-            for (CanBeAttacked t : potentialTargets) {
-                if (isCloserTarget(t, target) && isHigherPriority(t, target)) {
-                    target = t;
-                }
-            }
+    /**
+     * Deals the damage decided on in the last {@link #update()}, if any.
+     */
+    public void commit() {
+        if (pendingTarget != null) {
+            CanBeAttacked target = pendingTarget;
+            pendingTarget = null;
+            target.takeDamage(host.getAttackDamage());
         }
-        return target;
-    }
-
-    private boolean isCloserTarget(CanBeAttacked target, CanBeAttacked currentTarget) {
-        return target.getPosition().dst(host.getPosition()) < currentTarget.getPosition().dst(host.getPosition());
     }
 
-    private boolean isHigherPriority(CanBeAttacked target, CanBeAttacked currentTarget) {
-        return targetPriority.get(target.getAttackCategory()) >= targetPriority.get(currentTarget.getAttackCategory());
+    private CanBeAttacked findTarget() {
+        // TargetPriority gives us: ants first, then structures, then stand still.
+        // Within the highest priority that has anything in sight, pick the closest.
+        for (int i = 0; i < priorityFilters.size(); i++) {
+            CanBeAttacked target = entityQuery.findClosestEnemy(host.getFaction(), host.getX(), host.getY(),
+                    host.getVisionRadius(), priorityFilters.get(i));
+            if (target != null) {
+                return target;
+            }
+        }
+        return null;
     }
 
-    private List<CanBeAttacked> potentialTargets() {
-        List<CanBeAttacked> targets = new ArrayList<>(entityQuery.getEntitiesOfType(CanBeAttacked.class));
-        targets.removeIf(t -> t.getFaction() == host.getFaction());
-        targets.removeIf(t -> t.getPosition().dst(host.getPosition()) > host.getVisionRadius());
-        return targets;
+    private boolean hasPriority(CanBeAttacked target, int priority) {
+        Integer targetPrio = targetPriority.get(target.getAttackCategory());
+        return targetPrio != null && targetPrio == priority;
     }
 
     protected abstract void noTargets();
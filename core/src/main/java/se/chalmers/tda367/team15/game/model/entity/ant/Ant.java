@@ -1,6 +1,8 @@
 package se.chalmers.tda367.team15.game.model.entity.ant;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.MathUtils;
@@ -19,7 +21,6 @@ import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
 import se.chalmers.tda367.team15.game.model.interfaces.Home;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.VisionProvider;
-import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
 import se.chalmers.tda367.team15.game.model.world.MapProvider;
 
 public class Ant extends Entity implements VisionProvider, CanAttack {
@@ -36,12 +37,14 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
     private final PheromoneUsageProvider pheromoneUsageProvider;
 
     private GeneralizedBehaviour behavior;
+    // Behaviours replaced since the last applyUpdate, they still need to commit
+    private final List<GeneralizedBehaviour> replacedBehaviors = new ArrayList<>();
 
     public Ant(Vector2 position, PheromoneUsageProvider pheromoneUsageProvider, AntType type, MapProvider map,
             Home home,
             EntityQuery entityQuery,
-            HashMap<AttackCategory, Integer> targetPriority, DestructionListener destructionListener) {
-        super(position);
+            HashMap<AttackCategory, Integer> targetPriority, DestructionListener destructionListener, long seed) {
+        super(position, seed);
         this.type = type;
         this.behavior = new WanderBehavior(this, home, entityQuery);
         this.pheromoneUsageProvider = pheromoneUsageProvider;
@@ -58,8 +61,8 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
     }
 
     public void pickRandomDirection() {
-        float angle = MathUtils.random.nextFloat() * 2 * MathUtils.PI;
-        velocity = new Vector2(MathUtils.cos(angle), MathUtils.sin(angle)).nor().scl(type.moveSpeed());
+        float angle = getRandom().nextFloat() * 2 * MathUtils.PI;
+        setVelocity(new Vector2(MathUtils.cos(angle), MathUtils.sin(angle)).nor().scl(type.moveSpeed()));
     }
 
     @Override
@@ -68,18 +71,38 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
     }
 
     @Override
-    public void update(float deltaTime) {
-        updateBehavior();
-        super.update(deltaTime);
-    }
-
     public void updateBehavior() {
         behavior.update(pheromoneUsageProvider);
     }
 
+    @Override
+    public void applyUpdate() {
+        // Indexed so that the common case of nothing replaced allocates no iterator
+        for (int i = 0; i < replacedBehaviors.size(); i++) {
+            replacedBehaviors.get(i).commit();
+        }
+        replacedBehaviors.clear();
+        behavior.commit();
+    }
+
+    private void replaceBehavior(GeneralizedBehaviour newBehavior) {
+        behavior.leave();
+        replacedBehaviors.add(behavior);
+        behavior = newBehavior;
+    }
+
     public GridPoint2 getGridPosition() {
-        PheromoneGridConverter converter = pheromoneUsageProvider.getConverter();
-        return converter.worldToPheromoneGrid(position);
+        return new GridPoint2(getGridX(), getGridY());
+    }
+
+    /** The pheromone grid column the ant is in */
+    public int getGridX() {
+        return pheromoneUsageProvider.getConverter().worldToPheromoneGridX(getX());
+    }
+
+    /** The pheromone grid row the ant is in */
+    public int getGridY() {
+        return pheromoneUsageProvider.getConverter().worldToPheromoneGridY(getY());
     }
 
     public Inventory getInventory() {
@@ -116,8 +139,13 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
     }
 
     @Override
-    public Vector2 getSize() {
-        return new Vector2(1f, 1.5f); // 1 tile wide, 1.5 tiles tall
+    public float getWidth() {
+        return 1f; // 1 tile wide, 1.5 tiles tall
+    }
+
+    @Override
+    public float getHeight() {
+        return 1.5f;
     }
 
     @Override
@@ -159,15 +187,15 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
      * @param leftTrail If true, applies a cooldown before re-entering any trail
      */
     public void setWanderBehaviour(boolean leftTrail) {
-        behavior = new WanderBehavior(this, home, entityQuery, leftTrail);
+        replaceBehavior(new WanderBehavior(this, home, entityQuery, leftTrail));
     }
 
     public void setFollowTrailBehaviour() {
-        behavior = new FollowTrailBehavior(entityQuery, this, pheromoneUsageProvider.getConverter());
+        replaceBehavior(new FollowTrailBehavior(entityQuery, this, pheromoneUsageProvider.getConverter()));
     }
 
     public void setAttackBehaviour() {
-        behavior = new AntAttackBehavior(this, entityQuery, targetPriority);
+        replaceBehavior(new AntAttackBehavior(this, entityQuery, targetPriority));
     }
 
     @Override
@@ -177,6 +205,9 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
 
     @Override
     public void takeDamage(float amount) {
+        if (health == 0f) {
+            return; // Already dead, several attackers can hit the same tick
+        }
         health = Math.max(0f, health - amount);
         if (health == 0f) {
             die();
@@ -185,6 +216,10 @@ public class Ant extends Entity implements VisionProvider, CanAttack {
 
     @Override
     public void die() {
+        // Dead ants are removed without another update, so let go of the trail
+        // and anything else the behaviours hold now
+        behavior.leave();
+        applyUpdate();
         destructionListener.notifyEntityDeathObservers(this);
     }
 
@@ -4,6 +4,7 @@ import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.interfaces.MovementStrategy;
 import se.chalmers.tda367.team15.game.model.world.MapProvider;
+import se.chalmers.tda367.team15.game.model.world.Tile;
 
 public class AntMovementStrategy implements MovementStrategy {
     private final MapProvider map;
@@ -14,10 +15,9 @@ public class AntMovementStrategy implements MovementStrategy {
 
     @Override
     public boolean canMoveTo(Vector2 position) {
-        if (!map.isInBounds(position)) {
-            return false;
-        }
-        return map.getTile(position).getType().isWalkable();
+        // Out of bounds gives no tile
+        Tile tile = map.getTile(map.worldToTileX(position.x), map.worldToTileY(position.y));
+        return tile != null && tile.getType().isWalkable();
     }
 
 }
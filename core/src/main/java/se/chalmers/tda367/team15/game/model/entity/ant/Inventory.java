@@ -8,6 +8,8 @@ import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
 public class Inventory {
     private final Map<ResourceType, Integer> resources;
     private final int capacity;
+    // Kept up to date on every change, isFull() is checked for every ant each tick
+    private int totalAmount = 0;
 
     /**
      * @param capacity The capacity of the inventory. If null, the inventory is
@@ -33,6 +35,7 @@ public class Inventory {
             return false;
         }
         resources.put(type, newAmount);
+        totalAmount += amount;
         return true;
     }
 
@@ -41,7 +44,7 @@ public class Inventory {
     }
 
     public int getTotalAmount() {
-        return resources.values().stream().mapToInt(Integer::intValue).sum();
+        return totalAmount;
     }
 
     public boolean isFull() {
@@ -58,5 +61,6 @@ public class Inventory {
 
     public void clear() {
         resources.clear();
+        totalAmount = 0;
     }
 }
\ No newline at end of file
@@ -1,13 +1,12 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior;
 
-import java.util.List;
-
-import com.badlogic.gdx.math.Vector2;
+import java.util.function.Predicate;
 
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.enemy.Termite;
 import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
 
 /**
  * Used to update the ants, the ants have a specific behaviour programmed. The
@@ -19,29 +18,31 @@ import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageP
 public abstract class AntBehavior implements GeneralizedBehaviour {
     protected final Ant ant;
     protected final EntityQuery entityQuery;
+    private final Predicate<Termite> isEnemy;
+    // The pheromone types the ant follows as a type mask, -1 until first used
+    private int pheromoneMask = -1;
 
     public AntBehavior(Ant ant, EntityQuery entityQuery) {
         this.ant = ant;
         this.entityQuery = entityQuery;
+        this.isEnemy = termite -> !termite.getFaction().equals(ant.getFaction());
     }
 
     public boolean enemiesInSight() {
-        List<? extends Termite> entities = entityQuery.getEntitiesOfType(Termite.class);
-
-        Vector2 antPosition = ant.getPosition();
-        float visionRadiusSq = ant.getVisionRadius() * ant.getVisionRadius();
-
-        for (Termite entity : entities) {
-            if (entity.getFaction().equals(ant.getFaction())) {
-                continue;
-            }
+        Termite enemy = entityQuery.findClosest(Termite.class, ant.getX(), ant.getY(), ant.getVisionRadius(),
+                isEnemy);
+        return enemy != null;
+    }
 
-            if (entity.getPosition().dst2(antPosition) <= visionRadiusSq) {
-                return true;
-            }
+    /**
+     * @return the pheromone types the ant's type follows, as a mask of
+     *         {@link PheromoneType#bit()} values
+     */
+    protected int pheromoneMask() {
+        if (pheromoneMask == -1) {
+            pheromoneMask = PheromoneType.maskOf(ant.getType().allowedPheromones());
         }
-
-        return false;
+        return pheromoneMask;
     }
 
     public abstract void update(PheromoneUsageProvider system);
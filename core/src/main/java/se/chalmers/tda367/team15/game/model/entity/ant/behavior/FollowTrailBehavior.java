@@ -1,5 +1,6 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.badlogic.gdx.math.GridPoint2;
@@ -17,10 +18,18 @@ import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
  * Each frame: move toward target pheromone, pick new target when reached.
  */
 public class FollowTrailBehavior extends AntBehavior {
+    private static final PheromoneType[] TYPES = PheromoneType.values();
+
     private final PheromoneGridConverter converter;
     private Pheromone currentPheromone = null;
     private Pheromone targetPheromone = null; // The pheromone we're moving towards
+    // The pheromone whose ant count includes this ant. Trails in currentPheromone
+    // until commit() so that counts only change serially.
+    private Pheromone countedPheromone = null;
     private boolean outwards = true; // Per-ant direction state
+    // Reused every tick so finding a trail does not allocate
+    private final List<Pheromone> neighbors = new ArrayList<>();
+    private final Vector2 direction = new Vector2();
 
     public FollowTrailBehavior(EntityQuery entityQuery, Ant ant, PheromoneGridConverter converter) {
         super(ant, entityQuery);
@@ -37,14 +46,13 @@ public class FollowTrailBehavior extends AntBehavior {
 
         // If we have a target, check if we've reached it
         if (targetPheromone != null) {
-            Vector2 targetPos = converter.pheromoneGridToWorld(targetPheromone.getPosition());
-            float distToTarget = ant.getPosition().dst2(targetPos);
+            setDirectionTowards(targetPheromone);
+            float distToTarget = direction.len2();
 
             // If we haven't reached the target yet, keep moving towards it
             if (distToTarget > 0.01f) { // Small threshold
-                Vector2 diff = new Vector2(targetPos).sub(ant.getPosition());
                 float speed = ant.getSpeed() * ant.getType().trailStrategy().getSpeedMultiplier();
-                ant.setVelocity(diff.nor().scl(speed));
+                ant.setVelocity(direction.nor().scl(speed));
                 return;
             }
 
@@ -57,18 +65,26 @@ public class FollowTrailBehavior extends AntBehavior {
         // Need to pick a new target
         Pheromone current = currentPheromone;
 
+        // The pheromone may have been erased since we reached it
+        if (current != null && !isPlaced(system, current)) {
+            exitTrail();
+            current = null;
+        }
+
         // If we don't have a current pheromone, find one at ant's position
         if (current == null) {
-            GridPoint2 gridPos = ant.getGridPosition();
-            current = findCurrentPheromone(system, gridPos);
+            int gridX = ant.getGridX();
+            int gridY = ant.getGridY();
+            current = findCurrentPheromone(system, gridX, gridY);
             if (current == null) {
-                // Try to find any nearby pheromone
-                List<Pheromone> nearby = system.getPheromonesIn3x3(gridPos, ant.getType().allowedPheromones())
-                        .stream().toList();
-                if (!nearby.isEmpty()) {
-                    current = nearby.stream()
-                            .min((a, b) -> Integer.compare(a.getDistance(), b.getDistance()))
-                            .orElse(null);
+                // Try to find any nearby pheromone, picking the one closest to the colony
+                neighbors.clear();
+                system.getPheromonesIn3x3(gridX, gridY, pheromoneMask(), neighbors);
+                for (int i = 0; i < neighbors.size(); i++) {
+                    Pheromone nearby = neighbors.get(i);
+                    if (current == null || nearby.getDistance() < current.getDistance()) {
+                        current = nearby;
+                    }
                 }
             }
             if (current == null) {
@@ -79,18 +95,8 @@ public class FollowTrailBehavior extends AntBehavior {
             currentPheromone = current;
         }
 
-        // Get neighbors around the current pheromone's position
-        List<Pheromone> neighbors = system.getPheromonesIn3x3(current.getPosition(), ant.getType().allowedPheromones())
-                .stream().toList();
-
-        if (neighbors.isEmpty()) {
-            exitTrail();
-            ant.getType().trailStrategy().onTrailEnd(ant, null, this);
-            return;
-        }
-
         // Select next target using strategy
-        Pheromone next = ant.getType().trailStrategy().selectNextPheromone(ant, neighbors, current, this);
+        Pheromone next = ant.getType().trailStrategy().selectNextPheromone(ant, system, current, this);
 
         if (next == null) {
             ant.getType().trailStrategy().onTrailEnd(ant, current, this);
@@ -101,51 +107,87 @@ public class FollowTrailBehavior extends AntBehavior {
         targetPheromone = next;
 
         // Start moving toward target
-        Vector2 targetPos = converter.pheromoneGridToWorld(next.getPosition());
-        Vector2 diff = new Vector2(targetPos).sub(ant.getPosition());
+        setDirectionTowards(next);
 
-        if (diff.len2() > 0.001f) {
+        if (direction.len2() > 0.001f) {
             float speed = ant.getSpeed() * ant.getType().trailStrategy().getSpeedMultiplier();
-            ant.setVelocity(diff.nor().scl(speed));
+            ant.setVelocity(direction.nor().scl(speed));
         }
     }
 
+    /**
+     * Sets {@link #direction} to the vector from the ant to the center of the
+     * pheromone's cell.
+     */
+    private void setDirectionTowards(Pheromone pheromone) {
+        direction.set(
+                converter.pheromoneGridToWorldX(pheromone.getPosition().x) - ant.getX(),
+                converter.pheromoneGridToWorldY(pheromone.getPosition().y) - ant.getY());
+    }
+
+    private static boolean isPlaced(PheromoneUsageProvider system, Pheromone pheromone) {
+        GridPoint2 position = pheromone.getPosition();
+        return system.getPheromoneAt(position.x, position.y, pheromone.getType()) == pheromone;
+    }
+
     /**
      * Finds the pheromone at the ant's current grid position.
      */
-    private Pheromone findCurrentPheromone(PheromoneUsageProvider system, GridPoint2 gridPos) {
-        for (PheromoneType type : ant.getType().allowedPheromones()) {
-            Pheromone p = system.getPheromoneAt(gridPos, type);
-            if (p != null) {
-                return p;
+    private Pheromone findCurrentPheromone(PheromoneUsageProvider system, int gridX, int gridY) {
+        int mask = pheromoneMask();
+        for (PheromoneType type : TYPES) {
+            if (type.isIn(mask)) {
+                Pheromone p = system.getPheromoneAt(gridX, gridY, type);
+                if (p != null) {
+                    return p;
+                }
             }
         }
         return null;
     }
 
     /**
-     * Updates ant count when moving between pheromone cells.
+     * Records that the ant moved to another pheromone cell. The ant counts are
+     * updated in {@link #commit()}.
      */
     private void updateAntCount(Pheromone current) {
-        if (current != currentPheromone) {
-            if (currentPheromone != null) {
-                currentPheromone.decrementAnts();
+        currentPheromone = current;
+    }
+
+    @Override
+    public void commit() {
+        if (countedPheromone != currentPheromone) {
+            if (countedPheromone != null) {
+                countedPheromone.decrementAnts();
             }
-            if (current != null) {
-                current.incrementAnts();
+            if (currentPheromone != null) {
+                currentPheromone.incrementAnts();
             }
-            currentPheromone = current;
+            countedPheromone = currentPheromone;
         }
     }
 
+    /**
+     * Takes the ant off the trail, so that the commit after it was replaced no
+     * longer counts it on its pheromone.
+     */
+    @Override
+    public void leave() {
+        exitTrail();
+    }
+
+    /**
+     * @return whether this ant is already included in the pheromone's ant count
+     */
+    public boolean isCountedOn(Pheromone pheromone) {
+        return pheromone != null && countedPheromone == pheromone;
+    }
+
     /**
      * Called when ant leaves the trail.
      */
     private void exitTrail() {
-        if (currentPheromone != null) {
-            currentPheromone.decrementAnts();
-            currentPheromone = null;
-        }
+        currentPheromone = null;
         targetPheromone = null;
     }
 
@@ -12,4 +12,20 @@ import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageP
  */
 public interface GeneralizedBehaviour extends BehaviourWithCollision {
     void update(PheromoneUsageProvider system);
+
+    /**
+     * Applies effects of {@link #update} that other entities can observe. Called
+     * from {@link Ant#applyUpdate()}, also for behaviours that were replaced
+     * during the update.
+     */
+    default void commit() {
+    }
+
+    /**
+     * Called when the ant stops using this behaviour, because it was replaced or
+     * the ant died. Whatever the behaviour still holds in the world is let go of
+     * by the next {@link #commit()}.
+     */
+    default void leave() {
+    }
 }
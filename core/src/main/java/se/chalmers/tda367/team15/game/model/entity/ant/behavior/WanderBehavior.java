@@ -1,8 +1,8 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 
@@ -22,6 +22,9 @@ public class WanderBehavior extends AntBehavior {
     private final Home home;
     private int accumulator = 0;
     private int trailCooldown = 0;
+    // Reused every tick so looking for trails does not allocate
+    private final List<Pheromone> neighbors = new ArrayList<>();
+    private final Vector2 newVelocity = new Vector2();
 
     public WanderBehavior(Ant ant, Home home, EntityQuery entityQuery) {
         this(ant, home, entityQuery, false);
@@ -44,31 +47,28 @@ public class WanderBehavior extends AntBehavior {
 
     private void changeTrajectory() {
         // Use velocity angle directly (radians) - this is the actual movement direction
-        float angle = ant.getVelocity().angleRad();
+        float angle = (float) Math.atan2(ant.getVelocityY(), ant.getVelocityX());
 
         double sigma = Math.toRadians(10); // deviation in degrees
         double maxTurn = Math.toRadians(20); // maximum allowed turn in degrees
 
-        double randomTurn = MathUtils.random.nextGaussian() * sigma;
+        double randomTurn = ant.getRandom().nextGaussian() * sigma;
         randomTurn = MathUtils.clamp((float) randomTurn, (float) -maxTurn, (float) maxTurn);
 
         float homeTurn = getHomeTurn(angle);
 
         angle += (float) randomTurn + homeTurn;
 
-        Vector2 newVelocity = new Vector2(MathUtils.cos(angle), MathUtils.sin(angle)).nor().scl(ant.getSpeed());
+        newVelocity.set(MathUtils.cos(angle), MathUtils.sin(angle)).nor().scl(ant.getSpeed());
 
         ant.setVelocity(newVelocity);
     }
 
     private float getHomeTurn(float angle) {
-        Vector2 colonyPos = home.getPosition();
-        Vector2 antPos = ant.getPosition();
-
         // Direction from ant toward colony
         float desiredAngle = MathUtils.atan2(
-                colonyPos.y - antPos.y,
-                colonyPos.x - antPos.x);
+                home.getY() - ant.getY(),
+                home.getX() - ant.getX());
 
         float angleDiff = MathUtils.atan2(
                 MathUtils.sin(desiredAngle - angle),
@@ -101,9 +101,8 @@ public class WanderBehavior extends AntBehavior {
             return; // Don't check for pheromones while cooling down
         }
 
-        GridPoint2 gridPos = ant.getGridPosition();
-        List<Pheromone> neighbors = system.getPheromonesIn3x3(gridPos, ant.getType().allowedPheromones()).stream()
-                .toList();
+        neighbors.clear();
+        system.getPheromonesIn3x3(ant.getGridX(), ant.getGridY(), pheromoneMask(), neighbors);
 
         if (!neighbors.isEmpty()) {
             ant.setFollowTrailBehaviour();
@@ -0,0 +1,24 @@
+package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
+
+import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+
+/**
+ * Trail strategy for worker ants following GATHER pheromones that spreads them
+ * over the branches of a trail network.
+ * - Like {@link GatherTrailStrategy}, but at forks prefer the cells fewer ants
+ * are on instead of picking uniformly
+ * - Only return home when inventory is full, by the shortest way
+ *
+ * Workers that all take the same branches drain the food at their ends while
+ * the food on other branches waits, spreading them keeps more of the network
+ * delivering.
+ */
+public class CongestionAwareGatherTrailStrategy extends GatherTrailStrategy {
+
+    @Override
+    protected Pheromone pickAhead(Ant ant, PheromoneUsageProvider pheromones, Pheromone current, boolean higher) {
+        return pickLeastCrowdedAhead(ant, pheromones, current, higher);
+    }
+}
@@ -1,9 +1,8 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 
-import java.util.List;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 
 /**
@@ -16,30 +15,11 @@ public class ExploreTrailStrategy extends TrailStrategy {
     private static final float SPEED_MULTIPLIER = 1.3f;
 
     @Override
-    public Pheromone selectNextPheromone(Ant ant, List<Pheromone> neighbors,
+    public Pheromone selectNextPheromone(Ant ant, PheromoneUsageProvider pheromones,
             Pheromone current, FollowTrailBehavior behavior) {
-        if (neighbors.isEmpty()) {
-            return null;
-        }
-
-        // Always try to move outward (higher distance)
-        List<Pheromone> outward = filterByDistance(neighbors, current, true);
-
-        if (outward.isEmpty()) {
-            // Reached trail end - leave trail to start wandering
-            return null;
-        }
-
-        // Filter out current position from the outward list
-        List<Pheromone> options = current != null
-                ? outward.stream().filter(p -> !p.getPosition().equals(current.getPosition())).toList()
-                : outward;
-
-        if (options.isEmpty()) {
-            return null;
-        }
-
-        return options.get(random.nextInt(options.size()));
+        // Always try to move outward (higher distance), leaving the trail to start
+        // wandering once its end is reached
+        return pickRandomAhead(ant, pheromones, current, true);
     }
 
     @Override
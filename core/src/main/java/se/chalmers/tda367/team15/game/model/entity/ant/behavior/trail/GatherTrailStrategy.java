@@ -1,9 +1,8 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 
-import java.util.List;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 
 /**
@@ -17,22 +16,14 @@ public class GatherTrailStrategy extends TrailStrategy {
     private static final float SPEED_MULTIPLIER = 1.2f;
 
     @Override
-    public Pheromone selectNextPheromone(Ant ant, List<Pheromone> neighbors,
+    public Pheromone selectNextPheromone(Ant ant, PheromoneUsageProvider pheromones,
             Pheromone current, FollowTrailBehavior behavior) {
-        if (neighbors.isEmpty()) {
-            return null;
-        }
-
         if (ant.getInventory().isFull()) {
             behavior.setOutwards(false);
-            List<Pheromone> homeward = filterByDistance(neighbors, current, false);
-            if (homeward.isEmpty()) {
-                return null;
-            }
-            return getBestByDistance(homeward, false);
+            return getBestByDistance(pheromones, current, false);
         }
 
-        return moveRandomlyOnTrail(neighbors, current, behavior);
+        return moveRandomlyOnTrail(ant, pheromones, current, behavior);
     }
 
     @Override
@@ -1,9 +1,8 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 
-import java.util.List;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 
 /**
@@ -20,25 +19,22 @@ public class PatrolTrailStrategy extends TrailStrategy {
     private static final float MAX_TURN_CHANCE = 0.20f; // Cap at 20%
 
     @Override
-    public Pheromone selectNextPheromone(Ant ant, List<Pheromone> neighbors,
+    public Pheromone selectNextPheromone(Ant ant, PheromoneUsageProvider pheromones,
             Pheromone current, FollowTrailBehavior behavior) {
-        if (neighbors.isEmpty()) {
-            return null;
-        }
-
         // Get soldier count from current pheromone (O(1) instead of O(n))
-        // Subtract 1 because the count includes this ant
-        int otherSoldiers = current != null ? Math.max(0, current.getAntCount() - 1) : 0;
+        // Subtract 1 if the count already includes this ant
+        int self = behavior.isCountedOn(current) ? 1 : 0;
+        int otherSoldiers = Math.max(0, current.getAntCount() - self);
 
         // Turn chance scales with count, capped to prevent chaos
         if (otherSoldiers > 0) {
             float turnChance = Math.min(MAX_TURN_CHANCE, TURN_CHANCE_PER_SOLDIER * otherSoldiers);
-            if (random.nextInt(1000) < turnChance * 1000) {
+            if (ant.getRandom().nextInt(1000) < turnChance * 1000) {
                 behavior.flipDirection();
             }
         }
 
-        return moveRandomlyOnTrail(neighbors, current, behavior);
+        return moveRandomlyOnTrail(ant, pheromones, current, behavior);
     }
 
     @Override
@@ -1,34 +1,40 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.Random;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.TrailFlow;
 
 /**
  * Abstract base class for how ants follow pheromone trails.
  * Different ant types use different strategies based on their role.
  * 
  * NOTE: TrailStrategy instances are shared between all ants of the same type.
- * Per-ant state (like direction) must be stored in FollowTrailBehavior.
+ * Per-ant state (like direction) must be stored in FollowTrailBehavior, and
+ * randomness must come from {@link Ant#getRandom()}.
+ *
+ * Strategies choose among the neighbours in the {@link TrailFlow} of the
+ * current cell, so a decision is a mask lookup and a random bit pick instead of
+ * a scan of the surrounding cells.
  */
 public abstract class TrailStrategy {
-
-    protected final Random random = new Random();
+    // Divisible by every count from 1 to MAX_WEIGHED_ANTS + 1, so the weights
+    // of occupancy picks are exact
+    private static final int OCCUPANCY_WEIGHT_SCALE = 2520;
+    private static final int MAX_WEIGHED_ANTS = 9;
 
     /**
-     * Selects the next pheromone to move toward from available neighbors.
+     * Selects the next pheromone to move toward from the current one's
+     * neighbours.
      *
-     * @param ant       The ant making the decision
-     * @param neighbors Available pheromones in adjacent cells
-     * @param current   The current pheromone the ant is on (may be null)
-     * @param behavior  The ant's behavior context (holds per-ant state)
+     * @param ant        The ant making the decision
+     * @param pheromones The pheromones the ant is following
+     * @param current    The pheromone the ant is on, placed in {@code pheromones}
+     * @param behavior   The ant's behavior context (holds per-ant state)
      * @return The selected pheromone to move toward, or null to leave the trail
      */
-    public abstract Pheromone selectNextPheromone(Ant ant, List<Pheromone> neighbors,
+    public abstract Pheromone selectNextPheromone(Ant ant, PheromoneUsageProvider pheromones,
             Pheromone current, FollowTrailBehavior behavior);
 
     /**
@@ -46,36 +52,108 @@ public abstract class TrailStrategy {
     public abstract float getSpeedMultiplier();
 
     /**
-     * Helper to get pheromones that are further away or closer to the colony.
-     * Uses STRICT inequality - does not include same-distance pheromones.
+     * Helper to get the neighbours that are further away or closer to the colony.
+     * Uses STRICT inequality - same-distance neighbours are not included.
      *
-     * @param neighbors Available neighbors
-     * @param current   Current pheromone (may be null)
-     * @param higher    true for further away, false for closer
-     * @return List of matching pheromones
+     * @param higher true for further away, false for closer
+     * @return a {@link TrailFlow} neighbour mask
+     */
+    protected int getAhead(PheromoneUsageProvider pheromones, Pheromone current, boolean higher) {
+        int flow = pheromones.getTrailFlow(current.getPosition().x, current.getPosition().y, current.getType());
+        return higher ? TrailFlow.outward(flow) : TrailFlow.inward(flow);
+    }
+
+    /**
+     * @return the pheromone of the current one's type in the neighbouring cell
      */
-    protected List<Pheromone> filterByDistance(List<Pheromone> neighbors, Pheromone current, boolean higher) {
-        int currentDist = current != null ? current.getDistance() : (higher ? -1 : Integer.MAX_VALUE);
-        return neighbors.stream()
-                .filter(p -> higher ? p.getDistance() > currentDist : p.getDistance() < currentDist)
-                .toList();
+    protected Pheromone getNeighbor(PheromoneUsageProvider pheromones, Pheromone current, int bit) {
+        return pheromones.getPheromoneAt(current.getPosition().x + TrailFlow.dx(bit),
+                current.getPosition().y + TrailFlow.dy(bit), current.getType());
+    }
+
+    /**
+     * Helper to select the neighbour with the best distance among those that are
+     * further away or closer to the colony.
+     *
+     * @param higher true to pick the furthest away, false for the closest
+     * @return The best pheromone or null if none is ahead
+     */
+    protected Pheromone getBestByDistance(PheromoneUsageProvider pheromones, Pheromone current, boolean higher) {
+        Pheromone best = null;
+        for (int mask = getAhead(pheromones, current, higher); mask != 0; mask &= mask - 1) {
+            Pheromone pheromone = getNeighbor(pheromones, current, Integer.numberOfTrailingZeros(mask));
+            if (best == null || (higher
+                    ? pheromone.getDistance() > best.getDistance()
+                    : pheromone.getDistance() < best.getDistance())) {
+                best = pheromone;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Helper to pick a random neighbour that is further away or closer to the
+     * colony.
+     *
+     * @param higher true for further away, false for closer
+     * @return The picked pheromone or null if none is ahead
+     */
+    protected Pheromone pickRandomAhead(Ant ant, PheromoneUsageProvider pheromones, Pheromone current,
+            boolean higher) {
+        int mask = getAhead(pheromones, current, higher);
+        if (mask == 0) {
+            return null;
+        }
+        return getNeighbor(pheromones, current, TrailFlow.pickBit(mask, ant.getRandom()));
     }
 
     /**
-     * Helper to select the pheromone with the best distance.
+     * Helper to pick a random neighbour that is further away or closer to the
+     * colony, favouring the ones fewer ants are on. Each neighbour is picked
+     * with a chance in proportion to 1 / (1 + its ant count), so an empty cell
+     * is twice as likely as one with an ant on it and three times as likely as
+     * one with two.
      *
-     * @param options Candidates
-     * @param max     True for highest distance, false for lowest
-     * @return The best pheromone or null if empty
+     * @param higher true for further away, false for closer
+     * @return The picked pheromone or null if none is ahead
      */
-    protected Pheromone getBestByDistance(List<Pheromone> options, boolean max) {
-        if (options.isEmpty()) {
+    protected Pheromone pickLeastCrowdedAhead(Ant ant, PheromoneUsageProvider pheromones, Pheromone current,
+            boolean higher) {
+        int mask = getAhead(pheromones, current, higher);
+        if (mask == 0) {
             return null;
         }
-        Comparator<Pheromone> comp = Comparator.comparingInt(Pheromone::getDistance);
-        return options.stream()
-                .max(max ? comp : comp.reversed())
-                .orElse(options.get(0));
+        int totalWeight = 0;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            totalWeight += occupancyWeight(getNeighbor(pheromones, current, Integer.numberOfTrailingZeros(bits)));
+        }
+        int pick = ant.getRandom().nextInt(totalWeight);
+        for (int bits = mask;; bits &= bits - 1) {
+            Pheromone neighbor = getNeighbor(pheromones, current, Integer.numberOfTrailingZeros(bits));
+            pick -= occupancyWeight(neighbor);
+            if (pick < 0) {
+                return neighbor;
+            }
+        }
+    }
+
+    /**
+     * @return the weight of a neighbour when picking by occupancy. Integer
+     *         weights keep the pick exactly reproducible.
+     */
+    private static int occupancyWeight(Pheromone pheromone) {
+        return OCCUPANCY_WEIGHT_SCALE / (1 + Math.min(pheromone.getAntCount(), MAX_WEIGHED_ANTS));
+    }
+
+    /**
+     * Picks the neighbour to move on to in the given direction. By default any
+     * of them with equal chance, strategies can override this to prefer some.
+     *
+     * @param higher true for further away, false for closer
+     * @return The picked pheromone or null if none is ahead
+     */
+    protected Pheromone pickAhead(Ant ant, PheromoneUsageProvider pheromones, Pheromone current, boolean higher) {
+        return pickRandomAhead(ant, pheromones, current, higher);
     }
 
     /**
@@ -83,59 +161,29 @@ public abstract class TrailStrategy {
      * ends.
      * 
      * SIMPLE ALGORITHM:
-     * 1. Pick the BEST pheromone in desired direction (highest if outwards, lowest
-     * if inwards)
-     * 2. If that's the cell we're on -> dead end, turn around
-     * 3. Otherwise, move there
+     * 1. Pick a pheromone in the desired direction (further away if
+     * outwards, closer if inwards) with {@link #pickAhead}
+     * 2. If there is none -> dead end, turn around and pick in the new direction
+     * 3. If there still is none, stay on the current pheromone
      *
-     * @param neighbors Available neighbor pheromones (including current)
-     * @param current   Current pheromone the ant is on (may be null)
-     * @param behavior  The ant's behavior context (holds outwards state)
-     * @return Selected pheromone to move toward, or null if stuck
+     * @param ant        The ant making the decision
+     * @param pheromones The pheromones the ant is following
+     * @param current    Current pheromone the ant is on
+     * @param behavior   The ant's behavior context (holds outwards state)
+     * @return Selected pheromone to move toward
      */
-    protected Pheromone moveRandomlyOnTrail(List<Pheromone> neighbors, Pheromone current,
+    protected Pheromone moveRandomlyOnTrail(Ant ant, PheromoneUsageProvider pheromones, Pheromone current,
             FollowTrailBehavior behavior) {
-        if (neighbors.isEmpty()) {
-            return null;
-        }
-
-        // Filter to pheromones in the forward direction (excluding current position)
-        List<Pheromone> forward = neighbors.stream()
-                .filter(p -> current == null || !p.getPosition().equals(current.getPosition()))
-                .filter(p -> {
-                    if (current == null)
-                        return true;
-                    int currentDist = current.getDistance();
-                    return behavior.isOutwards()
-                            ? p.getDistance() > currentDist
-                            : p.getDistance() < currentDist;
-                })
-                .toList();
+        // Pick RANDOMLY from forward options (for intersection variety)
+        Pheromone next = pickAhead(ant, pheromones, current, behavior.isOutwards());
 
         // If no forward options, we're at a dead end - turn around
-        if (forward.isEmpty()) {
+        if (next == null) {
             behavior.flipDirection();
-
-            // Find options in the new direction
-            forward = neighbors.stream()
-                    .filter(p -> current == null || !p.getPosition().equals(current.getPosition()))
-                    .filter(p -> {
-                        if (current == null)
-                            return true;
-                        int currentDist = current.getDistance();
-                        return behavior.isOutwards()
-                                ? p.getDistance() > currentDist
-                                : p.getDistance() < currentDist;
-                    })
-                    .toList();
-        }
-
-        if (forward.isEmpty()) {
-            // No options in either direction - just stay put or pick any neighbor
-            return current;
+            next = pickAhead(ant, pheromones, current, behavior.isOutwards());
         }
 
-        // Pick RANDOMLY from forward options (for intersection variety)
-        return forward.get(random.nextInt(forward.size()));
+        // No options in either direction - just stay put
+        return next != null ? next : current;
     }
 }
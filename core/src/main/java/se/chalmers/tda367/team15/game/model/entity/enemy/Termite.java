@@ -28,21 +28,23 @@ public class Termite extends Entity implements CanAttack {
     private final TermiteAttackBehaviour termiteAttackBehaviour;
 
     public Termite(Vector2 position, EntityQuery entityQuery,
-            HashMap<AttackCategory, Integer> targetPriority, DestructionListener destructionListener) {
-        super(position);
+            HashMap<AttackCategory, Integer> targetPriority, DestructionListener destructionListener, long seed) {
+        super(position, seed);
         this.destructionListener = destructionListener;
         this.termiteAttackBehaviour = new TermiteAttackBehaviour(this, entityQuery, targetPriority);
     }
 
     /**
-     * Updates the termite
-     *
+     * Picks a target and decides whether to attack it
      */
     @Override
-    public void update(float deltaTime) {
+    public void updateBehavior() {
         termiteAttackBehaviour.update();
-        super.update(deltaTime);
+    }
 
+    @Override
+    public void applyUpdate() {
+        termiteAttackBehaviour.commit();
     }
 
     /**
@@ -65,6 +67,9 @@ public class Termite extends Entity implements CanAttack {
 
     @Override
     public void takeDamage(float amount) {
+        if (health == 0f) {
+            return; // Already dead, several attackers can hit the same tick
+        }
         health = Math.max(0f, health - amount);
         if (health == 0f) {
             die();
@@ -83,8 +88,13 @@ public class Termite extends Entity implements CanAttack {
     }
 
     @Override
-    public Vector2 getSize() {
-        return new Vector2(1f, 1.5f);
+    public float getWidth() {
+        return 1f;
+    }
+
+    @Override
+    public float getHeight() {
+        return 1.5f;
     }
 
     @Override
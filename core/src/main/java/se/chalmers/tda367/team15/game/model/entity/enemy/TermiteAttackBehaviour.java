@@ -18,7 +18,7 @@ public class TermiteAttackBehaviour extends MeleeAttackBehaviour {
 
     @Override
     public void noTargets() {
-        host.setVelocity(new Vector2(0, 0));
+        host.setVelocity(Vector2.Zero);
     }
 
 }
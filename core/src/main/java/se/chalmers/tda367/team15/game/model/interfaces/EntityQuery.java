@@ -1,6 +1,12 @@
 package se.chalmers.tda367.team15.game.model.interfaces;
 
 import java.util.List;
+import java.util.function.Predicate;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.model.faction.Faction;
 
 /**
  * Generic interface for querying entities by type.
@@ -16,4 +22,47 @@ public interface EntityQuery {
      * implemented by one or more entities (e.g. {@code VisionProvider.class}).
      */
     <T> List<T> getEntitiesOfType(Class<T> type);
+
+    /**
+     * Returns all entities of the given type within {@code radius} world units
+     * of {@code center}.
+     */
+    <T> List<T> getEntitiesInRadius(Class<T> type, Vector2 center, float radius);
+
+    /**
+     * Returns all entities of the given type whose position lies inside
+     * {@code area}.
+     */
+    <T> List<T> getEntitiesInRectangle(Class<T> type, Rectangle area);
+
+    /**
+     * Returns the entity of the given type closest to {@code center} that
+     * matches the filter, or {@code null} if none is within {@code maxRadius}.
+     */
+    default <T> T findClosest(Class<T> type, Vector2 center, float maxRadius, Predicate<? super T> filter) {
+        return findClosest(type, center.x, center.y, maxRadius, filter);
+    }
+
+    /**
+     * Same as {@link #findClosest(Class, Vector2, float, Predicate)}, but takes
+     * the center as coordinates so per-tick callers don't need a vector.
+     */
+    <T> T findClosest(Class<T> type, float x, float y, float maxRadius, Predicate<? super T> filter);
+
+    /**
+     * Returns the closest {@link CanBeAttacked} entity that does not belong to
+     * {@code faction} and matches the filter, or {@code null} if none is within
+     * {@code maxRadius}.
+     */
+    default CanBeAttacked findClosestEnemy(Faction faction, Vector2 center, float maxRadius,
+            Predicate<? super CanBeAttacked> filter) {
+        return findClosestEnemy(faction, center.x, center.y, maxRadius, filter);
+    }
+
+    /**
+     * Same as {@link #findClosestEnemy(Faction, Vector2, float, Predicate)}, but
+     * takes the center as coordinates.
+     */
+    CanBeAttacked findClosestEnemy(Faction faction, float x, float y, float maxRadius,
+            Predicate<? super CanBeAttacked> filter);
 }
@@ -16,6 +16,16 @@ public interface GameObject {
 
     /** The size of the object in tiles (1 = 1 tile). Defaults to 1x1 tile. */
     default Vector2 getSize() {
-        return new Vector2(1f, 1f);
+        return new Vector2(getWidth(), getHeight());
+    }
+
+    /** The width of {@link #getSize()}, without creating a vector */
+    default float getWidth() {
+        return 1f;
+    }
+
+    /** The height of {@link #getSize()}, without creating a vector */
+    default float getHeight() {
+        return 1f;
     }
 }
@@ -7,4 +7,14 @@ import com.badlogic.gdx.math.Vector2;
  */
 public interface HasPosition {
     Vector2 getPosition();
+
+    /** The x coordinate of {@link #getPosition()}, without creating a vector */
+    default float getX() {
+        return getPosition().x;
+    }
+
+    /** The y coordinate of {@link #getPosition()}, without creating a vector */
+    default float getY() {
+        return getPosition().y;
+    }
 }
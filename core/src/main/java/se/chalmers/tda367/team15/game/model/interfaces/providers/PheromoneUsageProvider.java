@@ -1,13 +1,18 @@
 package se.chalmers.tda367.team15.game.model.interfaces.providers;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import com.badlogic.gdx.math.GridPoint2;
 
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneJournal;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneStroke;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.pheromones.RemovalMode;
+import se.chalmers.tda367.team15.game.model.pheromones.TrailFlow;
 
 public interface PheromoneUsageProvider {
     PheromoneGridConverter getConverter();
@@ -16,15 +21,57 @@ public interface PheromoneUsageProvider {
 
     GridPoint2 drawPheromonesBetween(GridPoint2 start, GridPoint2 end, PheromoneType type);
 
+    /**
+     * Starts drawing a trail of the given type, see {@link PheromoneStroke}.
+     */
+    PheromoneStroke beginStroke(PheromoneType type);
+
     void removePheromone(GridPoint2 pos, PheromoneType type);
 
     void removeAllPheromones(GridPoint2 pos);
 
+    /**
+     * Same as {@link #removePheromone(GridPoint2, PheromoneType)}, choosing what
+     * happens to the trail behind the removed pheromone.
+     */
+    void removePheromone(GridPoint2 pos, PheromoneType type, RemovalMode mode);
+
+    /**
+     * Same as {@link #removeAllPheromones(GridPoint2)}, choosing what happens to
+     * the trails behind the removed pheromones.
+     */
+    void removeAllPheromones(GridPoint2 pos, RemovalMode mode);
+
     Pheromone getPheromoneAt(GridPoint2 pos, PheromoneType type);
 
+    /** Same as {@link #getPheromoneAt(GridPoint2, PheromoneType)}, by grid coordinates */
+    Pheromone getPheromoneAt(int x, int y, PheromoneType type);
+
+    /**
+     * @return the packed {@link TrailFlow} of the pheromone of the given type at
+     *         the grid coordinates, 0 if there is none
+     */
+    int getTrailFlow(int x, int y, PheromoneType type);
+
     Collection<Pheromone> getPheromonesAt(GridPoint2 pos);
 
     Collection<Pheromone> getPheromonesIn3x3(GridPoint2 centerGridPos, Set<PheromoneType> types);
 
+    /**
+     * Adds the pheromones of the given types around the grid coordinates to
+     * {@code result} instead of returning a new collection, so it can be called
+     * every tick without allocating.
+     *
+     * @param typeMask the types to include, as a mask of
+     *                 {@link PheromoneType#bit()} values
+     */
+    void getPheromonesIn3x3(int x, int y, int typeMask, List<Pheromone> result);
+
     Collection<Pheromone> getPheromones();
+
+    /**
+     * @return the journal of changed cells, for following the pheromones
+     *         without copying all of them
+     */
+    PheromoneJournal getJournal();
 }
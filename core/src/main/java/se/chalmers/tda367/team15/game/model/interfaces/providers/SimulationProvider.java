@@ -1,5 +1,10 @@
 package se.chalmers.tda367.team15.game.model.interfaces.providers;
 
+import java.util.List;
+
+import se.chalmers.tda367.team15.game.model.SimulationLoad;
+import se.chalmers.tda367.team15.game.model.profiling.TimingSummary;
+
 public interface SimulationProvider {
     void setTimeFast();
 
@@ -7,5 +12,33 @@ public interface SimulationProvider {
 
     void setTimePaused();
 
-    void handleSimulation();
+    /**
+     * Runs queued commands and any ticks that are due.
+     *
+     * @return whether any command or tick was run
+     */
+    boolean handleSimulation();
+
+    /**
+     * Queues a command to run on the thread that drives the simulation, before
+     * the next tick. Safe to call from any thread.
+     */
+    void submit(Runnable command);
+
+    /**
+     * @return the number of ticks run so far
+     */
+    long getTickCount();
+
+    /**
+     * @return the measured load as of the last update, safe to read from any
+     *         thread
+     */
+    SimulationLoad getLoad();
+
+    /**
+     * @return per-observer timings of the last profiling window, empty when
+     *         profiling is off. Safe to read from any thread.
+     */
+    List<TimingSummary> getTimings();
 }
@@ -2,12 +2,22 @@ package se.chalmers.tda367.team15.game.model.managers;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.entity.Entity;
+import se.chalmers.tda367.team15.game.model.entity.KinematicsStore;
+import se.chalmers.tda367.team15.game.model.faction.Faction;
+import se.chalmers.tda367.team15.game.model.interfaces.CanBeAttacked;
 import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.EntityDeathObserver;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
@@ -18,19 +28,61 @@ import se.chalmers.tda367.team15.game.model.interfaces.providers.EntityModificat
  * Owns all entities, handles updates, and cleans up on death.
  *
  * Has a cache of entities by type to avoid lagging when querying entities by
- * type.
+ * type. Proximity queries are answered by a {@link SpatialHashGrid} per queried
+ * type, which is kept up to date as entities move. Attackable entities are also
+ * indexed per faction, so looking for enemies never has to walk past friendly
+ * entities.
+ *
+ * Each tick runs in two phases. First every entity decides what to do
+ * ({@link Entity#updateBehavior()}) against the world as it was at the start of
+ * the tick, then the decisions are applied serially in entity order
+ * ({@link Entity#applyUpdate()}). Since the first phase only reads shared
+ * state it can run on a {@link ForkJoinPool}, and gives the same result either
+ * way. Finally all entities are moved at once by the {@link KinematicsStore}
+ * holding their positions and velocities.
  */
 public class EntityManager implements SimulationObserver, EntityDeathObserver, EntityQuery, EntityModificationProvider {
     private final List<Entity> entities = new CopyOnWriteArrayList<>();
-    private final Map<Class<?>, List<Entity>> cachedEntities = new HashMap<>();
+    // Concurrent since queries may create these lazily during the parallel phase
+    private final Map<Class<?>, List<Entity>> cachedEntities = new ConcurrentHashMap<>();
+    private final Map<Class<?>, SpatialHashGrid<Entity>> spatialIndexes = new ConcurrentHashMap<>();
+    private final Map<Faction, SpatialHashGrid<Entity>> factionIndexes = new EnumMap<>(Faction.class);
+    private final KinematicsStore kinematics = new KinematicsStore();
+    private final boolean parallelUpdate;
+
+    // Roughly an ant's vision radius, so most radius queries touch a 3x3 block
+    private static final float SPATIAL_CELL_SIZE = 8f;
+    // Below this many entities forking costs more than it saves
+    private static final int PARALLEL_BATCH_SIZE = 256;
+
+    public EntityManager() {
+        this(false);
+    }
+
+    /**
+     * @param parallelUpdate whether to decide entity behaviours in parallel
+     */
+    public EntityManager(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+    }
 
     public void addEntity(Entity entity) {
         entities.add(entity);
+        kinematics.add(entity);
         for (Class<?> type : cachedEntities.keySet()) {
             if (type.isInstance(entity)) {
                 cachedEntities.get(type).add(entity);
             }
         }
+        for (Map.Entry<Class<?>, SpatialHashGrid<Entity>> index : spatialIndexes.entrySet()) {
+            if (index.getKey().isInstance(entity)) {
+                index.getValue().add(entity);
+            }
+        }
+        if (entity instanceof CanBeAttacked attackable) {
+            factionIndexes.computeIfAbsent(attackable.getFaction(), f -> new SpatialHashGrid<>(SPATIAL_CELL_SIZE))
+                    .add(entity);
+        }
     }
 
     public List<Entity> getEntities() {
@@ -38,12 +90,13 @@ public class EntityManager implements SimulationObserver, EntityDeathObserver, E
     }
 
     private void cacheEntities(Class<?> type) {
-        cachedEntities.putIfAbsent(type, new ArrayList<>());
+        List<Entity> cached = new ArrayList<>();
         for (Entity entity : entities) {
             if (type.isInstance(entity)) {
-                cachedEntities.get(type).add(entity);
+                cached.add(entity);
             }
         }
+        cachedEntities.putIfAbsent(type, cached);
     }
 
     @Override
@@ -57,21 +110,144 @@ public class EntityManager implements SimulationObserver, EntityDeathObserver, E
         return Collections.unmodifiableList(result);
     }
 
+    private SpatialHashGrid<Entity> spatialIndex(Class<?> type) {
+        // Plain get first, the capturing lambda below would be allocated per call
+        SpatialHashGrid<Entity> existing = spatialIndexes.get(type);
+        if (existing != null) {
+            return existing;
+        }
+        return spatialIndexes.computeIfAbsent(type, t -> {
+            SpatialHashGrid<Entity> index = new SpatialHashGrid<>(SPATIAL_CELL_SIZE);
+            for (Entity entity : entities) {
+                if (t.isInstance(entity)) {
+                    index.add(entity);
+                }
+            }
+            return index;
+        });
+    }
+
+    @Override
+    public <T> List<T> getEntitiesInRadius(Class<T> type, Vector2 center, float radius) {
+        List<Entity> result = new ArrayList<>();
+        spatialIndex(type).queryRadius(center, radius, entity -> true, result);
+        @SuppressWarnings("unchecked") // The index only holds instances of type
+        List<T> typed = (List<T>) result;
+        return typed;
+    }
+
+    @Override
+    public <T> List<T> getEntitiesInRectangle(Class<T> type, Rectangle area) {
+        List<Entity> result = new ArrayList<>();
+        spatialIndex(type).queryRectangle(area.x, area.y, area.x + area.width, area.y + area.height,
+                entity -> true, result);
+        @SuppressWarnings("unchecked") // The index only holds instances of type
+        List<T> typed = (List<T>) result;
+        return typed;
+    }
+
+    @Override
+    public <T> T findClosest(Class<T> type, float x, float y, float maxRadius, Predicate<? super T> filter) {
+        @SuppressWarnings("unchecked") // The index only holds instances of type
+        Predicate<Entity> entityFilter = (Predicate<Entity>) filter;
+        @SuppressWarnings("unchecked")
+        T closest = (T) spatialIndex(type).findClosest(x, y, maxRadius, entityFilter);
+        return closest;
+    }
+
+    @Override
+    public CanBeAttacked findClosestEnemy(Faction faction, float x, float y, float maxRadius,
+            Predicate<? super CanBeAttacked> filter) {
+        @SuppressWarnings("unchecked") // Faction indexes only hold CanBeAttacked entities
+        Predicate<Entity> entityFilter = (Predicate<Entity>) (Predicate<?>) filter;
+
+        Entity closest = null;
+        float closestDistance = maxRadius;
+        for (Map.Entry<Faction, SpatialHashGrid<Entity>> index : factionIndexes.entrySet()) {
+            if (index.getKey() == faction) {
+                continue;
+            }
+            Entity candidate = index.getValue().findClosest(x, y, closestDistance, entityFilter);
+            if (candidate != null) {
+                closest = candidate;
+                closestDistance = Vector2.dst(candidate.getX(), candidate.getY(), x, y);
+            }
+        }
+        return (CanBeAttacked) closest;
+    }
+
     @Override
     public void update(float deltaTime) {
+        if (parallelUpdate && entities.size() > PARALLEL_BATCH_SIZE) {
+            ForkJoinPool.commonPool().invoke(new BehaviorTask(entities, 0, entities.size()));
+        } else {
+            for (Entity entity : entities) {
+                entity.updateBehavior();
+            }
+        }
+
         for (Entity entity : entities) {
-            entity.update(deltaTime);
+            entity.applyUpdate();
+        }
+
+        kinematics.integrate(deltaTime);
+        // Index by index rather than entity by entity, so the map iterators are
+        // only created once per tick
+        for (SpatialHashGrid<Entity> index : spatialIndexes.values()) {
+            for (Entity entity : entities) {
+                index.update(entity);
+            }
+        }
+        for (SpatialHashGrid<Entity> index : factionIndexes.values()) {
+            for (Entity entity : entities) {
+                index.update(entity);
+            }
+        }
+    }
+
+    /**
+     * Runs {@link Entity#updateBehavior()} for a range of entities, splitting it
+     * in halves until the ranges are small enough.
+     */
+    private static class BehaviorTask extends RecursiveAction {
+        private final List<Entity> entities;
+        private final int from;
+        private final int to;
+
+        BehaviorTask(List<Entity> entities, int from, int to) {
+            this.entities = entities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    entities.get(i).updateBehavior();
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BehaviorTask(entities, from, middle), new BehaviorTask(entities, middle, to));
         }
     }
 
     @Override
     public void removeEntity(Entity entity) {
         entities.remove(entity);
+        kinematics.remove(entity);
         for (Class<?> type : cachedEntities.keySet()) {
             if (type.isInstance(entity)) {
                 cachedEntities.get(type).remove(entity);
             }
         }
+        for (SpatialHashGrid<Entity> index : spatialIndexes.values()) {
+            index.remove(entity);
+        }
+        for (SpatialHashGrid<Entity> index : factionIndexes.values()) {
+            index.remove(entity);
+        }
     }
 
     @Override
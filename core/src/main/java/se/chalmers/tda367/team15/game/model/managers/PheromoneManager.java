@@ -1,31 +1,62 @@
 package se.chalmers.tda367.team15.game.model.managers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.Vector2;
 
+import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneEvaporation;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGrid;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneJournal;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneNetworkCodec;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneStroke;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.pheromones.RemovalMode;
 
-public class PheromoneManager implements PheromoneUsageProvider {
+public class PheromoneManager implements PheromoneUsageProvider, SimulationObserver {
+    private static final PheromoneType[] TYPES = PheromoneType.values();
     private static final int[][] NEIGHBOR_OFFSETS = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
 
     private final PheromoneGrid pheromoneGrid;
     private final GridPoint2 colonyPheromoneGridPosition;
     private final PheromoneGridConverter converter;
     private final int colonyGridSize;
+    private final PheromoneEvaporation.ExpiryListener expiryListener = this::evaporate;
 
+    /**
+     * Creates a manager whose pheromones last until they are removed.
+     */
     public PheromoneManager(GridPoint2 colonyWorldPosition, PheromoneGridConverter converter, int colonySizeInTiles) {
-        this.pheromoneGrid = new PheromoneGrid();
+        this(colonyWorldPosition, converter, colonySizeInTiles, 0);
+    }
+
+    /**
+     * @param lifetime the number of ticks a pheromone lasts without an ant
+     *                 stepping onto it, or 0 to keep pheromones until they are
+     *                 removed
+     */
+    public PheromoneManager(GridPoint2 colonyWorldPosition, PheromoneGridConverter converter, int colonySizeInTiles,
+            int lifetime) {
+        if (lifetime < 0) {
+            throw new IllegalArgumentException("lifetime can't be negative");
+        }
+        this.pheromoneGrid = lifetime > 0 ? new PheromoneGrid(lifetime) : new PheromoneGrid();
         this.converter = converter;
         // Convert colony world position to pheromone grid coordinates
         Vector2 colonyWorldVec = new Vector2(colonyWorldPosition.x, colonyWorldPosition.y);
@@ -37,6 +68,27 @@ public class PheromoneManager implements PheromoneUsageProvider {
         return converter;
     }
 
+    /**
+     * Lets the pheromones whose lifetime ran out on this tick evaporate.
+     */
+    @Override
+    public void update(float deltaTime) {
+        PheromoneEvaporation evaporation = pheromoneGrid.getEvaporation();
+        if (evaporation != null) {
+            evaporation.advance(expiryListener);
+        }
+    }
+
+    /**
+     * Removes an evaporated pheromone alone, rerooting the trail behind it. A
+     * cascade would also take the pheromones beside it that are further from
+     * the colony, such as a walked lane next to a dead-end spur, while those
+     * left behind evaporate on their own.
+     */
+    private void evaporate(int x, int y, PheromoneType type) {
+        removePheromone(new GridPoint2(x, y), type, RemovalMode.REROOT);
+    }
+
     /**
      * Adds a pheromone at the specified position if it's valid.
      * A position is valid if it's adjacent to the colony or an existing pheromone
@@ -60,32 +112,45 @@ public class PheromoneManager implements PheromoneUsageProvider {
         // return false;
         // }
 
-        int minDistance = findLowestNeighbor(pos, type);
-        if (minDistance == -1) {
-            // No valid parent found (not adjacent to colony or any pheromone of same type)
+        if (!placePheromone(pos, type)) {
             return false;
         }
 
-        Pheromone pheromone = new Pheromone(pos, type, minDistance + 1);
-        pheromoneGrid.addPheromone(pheromone);
-
         // Update connected pheromones of same type that now have a shorter path
-        propagateShorterDistances(pos, pheromone.getDistance(), type);
+        propagateShorterDistances(List.of(pos), type);
 
         return true;
     }
 
+    /**
+     * Places a pheromone one further from the colony than its closest valid
+     * parent, without updating the distances of the pheromones around it.
+     *
+     * @return false if there is no valid parent
+     */
+    private boolean placePheromone(GridPoint2 pos, PheromoneType type) {
+        int minDistance = findLowestNeighbor(pos, type);
+        if (minDistance == -1) {
+            // No valid parent found (not adjacent to colony or any pheromone of same type)
+            return false;
+        }
+        pheromoneGrid.addPheromone(pos, type, minDistance + 1);
+        return true;
+    }
+
     /**
      * Propagates shorter distances to all reachable pheromones of the same type
-     * using BFS.
+     * using BFS, starting from several positions at once.
      * 
-     * @param startPos      The position from which to start propagation
-     * @param startDistance The distance at the starting position
-     * @param type          The pheromone type to propagate within
+     * @param startPositions The positions from which to start propagation
+     * @param type           The pheromone type to propagate within
      */
-    private void propagateShorterDistances(GridPoint2 startPos, int startDistance, PheromoneType type) {
-        Deque<GridPoint2> queue = new ArrayDeque<>();
-        queue.add(startPos);
+    private void propagateShorterDistances(List<GridPoint2> startPositions, PheromoneType type) {
+        // Starting from the closest positions lets their shorter paths win before
+        // the further ones are expanded
+        List<GridPoint2> sorted = new ArrayList<>(startPositions);
+        sorted.sort(Comparator.comparingInt(pos -> pheromoneGrid.getDistance(pos.x, pos.y, type)));
+        Deque<GridPoint2> queue = new ArrayDeque<>(sorted);
 
         while (!queue.isEmpty()) {
             GridPoint2 pos = queue.poll();
@@ -100,7 +165,7 @@ public class PheromoneManager implements PheromoneUsageProvider {
                 Pheromone neighbor = pheromoneGrid.getPheromoneAt(neighborPos, type);
 
                 if (neighbor != null && neighbor.getDistance() > currentDistance + 1) {
-                    neighbor.setDistance(currentDistance + 1);
+                    pheromoneGrid.setDistance(neighborPos.x, neighborPos.y, type, currentDistance + 1);
                     queue.add(neighborPos);
                 }
             }
@@ -142,6 +207,14 @@ public class PheromoneManager implements PheromoneUsageProvider {
      * @return The lowest distance found, or -1 if no valid parent exists
      */
     private int findLowestNeighbor(GridPoint2 pos, PheromoneType type) {
+        return findLowestNeighbor(pos, type, Set.of());
+    }
+
+    /**
+     * Same as {@link #findLowestNeighbor(GridPoint2, PheromoneType)}, ignoring
+     * the pheromones at the excluded positions.
+     */
+    private int findLowestNeighbor(GridPoint2 pos, PheromoneType type, Set<GridPoint2> excluded) {
         int minDistance = Integer.MAX_VALUE;
         boolean foundValidParent = false;
 
@@ -156,7 +229,7 @@ public class PheromoneManager implements PheromoneUsageProvider {
                     minDistance = distanceFromCenter;
                     foundValidParent = true;
                 }
-            } else {
+            } else if (!excluded.contains(neighborPos)) {
                 // Only consider pheromones of the same type
                 Pheromone pheromone = pheromoneGrid.getPheromoneAt(neighborPos, type);
 
@@ -183,13 +256,30 @@ public class PheromoneManager implements PheromoneUsageProvider {
      * @param type The pheromone type to remove
      */
     public void removePheromone(GridPoint2 pos, PheromoneType type) {
+        removePheromone(pos, type, RemovalMode.CASCADE);
+    }
+
+    /**
+     * Removes the pheromone of the specified type at the position, handling the
+     * trail behind it as the mode says.
+     * 
+     * @param pos  The position where deletion starts
+     * @param type The pheromone type to remove
+     * @param mode What happens to the pheromones further down the trail
+     */
+    @Override
+    public void removePheromone(GridPoint2 pos, PheromoneType type, RemovalMode mode) {
         Pheromone pheromone = pheromoneGrid.getPheromoneAt(pos, type);
         if (pheromone == null) {
             return;
         }
         int targetDistance = pheromone.getDistance();
         pheromoneGrid.removePheromone(pos, type);
-        propagateRemoval(pos, targetDistance, type);
+        if (mode == RemovalMode.REROOT) {
+            reroot(pos, targetDistance, type);
+        } else {
+            propagateRemoval(pos, targetDistance, type);
+        }
     }
 
     /**
@@ -199,19 +289,137 @@ public class PheromoneManager implements PheromoneUsageProvider {
      * @param pos The position where deletion starts
      */
     public void removeAllPheromones(GridPoint2 pos) {
-        Collection<Pheromone> pheromones = pheromoneGrid.getPheromonesAt(pos);
-        for (Pheromone pheromone : pheromones) {
-            int targetDistance = pheromone.getDistance();
-            PheromoneType type = pheromone.getType();
-            pheromoneGrid.removePheromone(pos, type);
-            propagateRemoval(pos, targetDistance, type);
+        removeAllPheromones(pos, RemovalMode.CASCADE);
+    }
+
+    @Override
+    public void removeAllPheromones(GridPoint2 pos, RemovalMode mode) {
+        for (PheromoneType type : TYPES) {
+            removePheromone(pos, type, mode);
         }
     }
 
+    /**
+     * Reconnects the trail behind a removed pheromone to the colony.
+     *
+     * First finds the pheromones whose distance depended on the removed one:
+     * those left without a parent one closer to the colony. Only they can
+     * change, so the distances are then recomputed for them alone, starting
+     * from the ones bordering the rest of the trail. Those that cannot be
+     * reached that way are removed.
+     * 
+     * @param removedPos      The position of the removed pheromone
+     * @param removedDistance The distance the removed pheromone had
+     * @param type            The pheromone type
+     */
+    private void reroot(GridPoint2 removedPos, int removedDistance, PheromoneType type) {
+        Set<GridPoint2> affected = findOrphans(removedPos, removedDistance, type);
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        // Start from the orphans that border the rest of the trail, closest first.
+        // A cell's distance is final once it is polled for the first time.
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingInt(Candidate::distance));
+        for (GridPoint2 pos : affected) {
+            int lowest = findLowestNeighbor(pos, type, affected);
+            if (lowest != -1) {
+                queue.add(new Candidate(pos, lowest + 1));
+            }
+        }
+
+        Set<GridPoint2> settled = new HashSet<>();
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            GridPoint2 pos = candidate.pos();
+            if (!settled.add(pos)) {
+                continue;
+            }
+            pheromoneGrid.setDistance(pos.x, pos.y, type, candidate.distance());
+
+            for (int[] offset : NEIGHBOR_OFFSETS) {
+                GridPoint2 neighborPos = new GridPoint2(pos.x + offset[0], pos.y + offset[1]);
+                if (affected.contains(neighborPos) && !settled.contains(neighborPos)) {
+                    queue.add(new Candidate(neighborPos, candidate.distance() + 1));
+                }
+            }
+        }
+
+        for (GridPoint2 pos : affected) {
+            if (!settled.contains(pos)) {
+                pheromoneGrid.removePheromone(pos, type);
+            }
+        }
+    }
+
+    /**
+     * Finds the pheromones whose every parent, the neighbours one closer to the
+     * colony, is the removed pheromone or another one found this way. Visits
+     * them in order of distance, so all parents of a pheromone are decided
+     * before it is.
+     */
+    private Set<GridPoint2> findOrphans(GridPoint2 removedPos, int removedDistance, PheromoneType type) {
+        Set<GridPoint2> orphans = new LinkedHashSet<>();
+        Set<GridPoint2> queued = new HashSet<>();
+        Deque<GridPoint2> queue = new ArrayDeque<>();
+        enqueueChildren(removedPos, removedDistance, type, queue, queued);
+
+        while (!queue.isEmpty()) {
+            GridPoint2 pos = queue.poll();
+            int distance = pheromoneGrid.getDistance(pos.x, pos.y, type);
+            int lowest = findLowestNeighbor(pos, type, orphans);
+            if (lowest != -1 && lowest < distance) {
+                continue; // Still has a parent
+            }
+            orphans.add(pos);
+            enqueueChildren(pos, distance, type, queue, queued);
+        }
+        return orphans;
+    }
+
+    private record Candidate(GridPoint2 pos, int distance) {
+    }
+
+    private void enqueueChildren(GridPoint2 pos, int distance, PheromoneType type, Deque<GridPoint2> queue,
+            Set<GridPoint2> queued) {
+        for (int[] offset : NEIGHBOR_OFFSETS) {
+            GridPoint2 neighborPos = new GridPoint2(pos.x + offset[0], pos.y + offset[1]);
+            if (pheromoneGrid.getDistance(neighborPos.x, neighborPos.y, type) == distance + 1
+                    && queued.add(neighborPos)) {
+                queue.add(neighborPos);
+            }
+        }
+    }
+
+    /**
+     * Writes all pheromones in the format of {@link PheromoneNetworkCodec}.
+     */
+    public void saveNetwork(OutputStream out) throws IOException {
+        PheromoneNetworkCodec.write(pheromoneGrid, out);
+    }
+
+    /**
+     * Replaces all pheromones with a network written by
+     * {@link #saveNetwork(OutputStream)}. The network is placed as it was
+     * saved, all at once, without checking each cell like
+     * {@link #addPheromone} does.
+     *
+     * @throws IOException if the data is not a pheromone network
+     */
+    public void loadNetwork(InputStream in) throws IOException {
+        pheromoneGrid.clear();
+        PheromoneNetworkCodec.read(in, pheromoneGrid);
+    }
+
     public Collection<Pheromone> getPheromones() {
         return pheromoneGrid.getAllPheromones();
     }
 
+    @Override
+    public PheromoneJournal getJournal() {
+        return pheromoneGrid.getJournal();
+    }
+
     /**
      * Gets a pheromone of a specific type at the position.
      */
@@ -219,6 +427,16 @@ public class PheromoneManager implements PheromoneUsageProvider {
         return pheromoneGrid.getPheromoneAt(gridPos, type);
     }
 
+    @Override
+    public Pheromone getPheromoneAt(int x, int y, PheromoneType type) {
+        return pheromoneGrid.getPheromoneAt(x, y, type);
+    }
+
+    @Override
+    public int getTrailFlow(int x, int y, PheromoneType type) {
+        return pheromoneGrid.getFlow(x, y, type);
+    }
+
     /**
      * Gets all pheromones at the position (all types).
      */
@@ -228,42 +446,95 @@ public class PheromoneManager implements PheromoneUsageProvider {
 
     /** Fills all lines using strictly adjacent (non-diagonal) steps. */
     public GridPoint2 drawPheromonesBetween(GridPoint2 start, GridPoint2 end, PheromoneType type) {
-        if (start == null) {
-            processPheromoneAction(end, type);
-            return end;
+        Stroke stroke = new Stroke(type, start);
+        GridPoint2 reached = stroke.lineTo(end);
+        stroke.commit();
+        return reached;
+    }
+
+    @Override
+    public PheromoneStroke beginStroke(PheromoneType type) {
+        return new Stroke(type, null);
+    }
+
+    private class Stroke implements PheromoneStroke {
+        private final PheromoneType type;
+        // The cells this stroke placed, where propagation starts on commit
+        private final List<GridPoint2> placed = new ArrayList<>();
+        private GridPoint2 last;
+        private boolean committed = false;
+
+        Stroke(PheromoneType type, GridPoint2 start) {
+            this.type = type;
+            this.last = start;
         }
 
-        GridPoint2 current = start;
-        while (!current.equals(end)) {
-            int dx = end.x - current.x;
-            int dy = end.y - current.y;
+        @Override
+        public GridPoint2 lineTo(GridPoint2 end) {
+            if (committed) {
+                throw new IllegalStateException("stroke is already committed");
+            }
+            if (last == null) {
+                add(end);
+                last = end;
+                return end;
+            }
+
+            GridPoint2 current = last;
+            while (!current.equals(end)) {
+                int dx = end.x - current.x;
+                int dy = end.y - current.y;
+
+                GridPoint2 next;
+                if (Math.abs(dx) > Math.abs(dy)) {
+                    next = new GridPoint2(current.x + Integer.signum(dx), current.y);
+                } else {
+                    next = new GridPoint2(current.x, current.y + Integer.signum(dy));
+                }
 
-            GridPoint2 next;
-            if (Math.abs(dx) > Math.abs(dy)) {
-                next = new GridPoint2(current.x + Integer.signum(dx), current.y);
-            } else {
-                next = new GridPoint2(current.x, current.y + Integer.signum(dy));
+                if (!add(next)) {
+                    break;
+                }
+                current = next;
             }
+            last = current;
+            return current;
+        }
 
-            if (!processPheromoneAction(next, type)) {
-                return current;
+        private boolean add(GridPoint2 pos) {
+            if (pheromoneGrid.hasPheromoneAt(pos, type)) {
+                return true;
             }
-            current = next;
+            if (!placePheromone(pos, type)) {
+                return false;
+            }
+            placed.add(new GridPoint2(pos));
+            return true;
         }
-        return current;
-    }
 
-    private boolean processPheromoneAction(GridPoint2 pos, PheromoneType type) {
-        return addPheromone(pos, type) ||
-                getPheromoneAt(pos, type) != null;
+        @Override
+        public void commit() {
+            if (committed) {
+                return;
+            }
+            committed = true;
+            propagateShorterDistances(placed, type);
+        }
     }
 
     @Override
     public Collection<Pheromone> getPheromonesIn3x3(GridPoint2 centerGridPos, Set<PheromoneType> types) {
         List<Pheromone> pheromones = new ArrayList<>();
-        for (PheromoneType type : types) {
-            pheromones.addAll(pheromoneGrid.getPheromonesIn3x3(centerGridPos, type));
-        }
+        getPheromonesIn3x3(centerGridPos.x, centerGridPos.y, PheromoneType.maskOf(types), pheromones);
         return pheromones;
     }
+
+    @Override
+    public void getPheromonesIn3x3(int x, int y, int typeMask, List<Pheromone> result) {
+        for (PheromoneType type : TYPES) {
+            if (type.isIn(typeMask)) {
+                pheromoneGrid.getPheromonesIn3x3(x, y, type, result);
+            }
+        }
+    }
 }
@@ -3,7 +3,6 @@ package se.chalmers.tda367.team15.game.model.managers;
 import java.util.List;
 
 import com.badlogic.gdx.math.GridPoint2;
-import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
@@ -47,13 +46,15 @@ public class ResourceManager implements SimulationObserver {
             return;
         }
 
-        GridPoint2 antGrid = getAntGridPosition(ant);
+        int antX = Math.round(ant.getX());
+        int antY = Math.round(ant.getY());
         List<Structure> structures = structureModificationProvider.getStructures();
 
-        for (Structure structure : structures) {
+        for (int i = 0; i < structures.size(); i++) {
+            Structure structure = structures.get(i);
             GridPoint2 structureGrid = structure.getGridPosition();
-            int distance = Math.abs(antGrid.x - structureGrid.x) +
-                    Math.abs(antGrid.y - structureGrid.y);
+            int distance = Math.abs(antX - structureGrid.x) +
+                    Math.abs(antY - structureGrid.y);
 
             if (distance > PICKUP_RADIUS) {
                 continue;
@@ -71,22 +72,17 @@ public class ResourceManager implements SimulationObserver {
         }
 
         Home home = ant.getHome();
-        GridPoint2 homeGrid = new GridPoint2((int) home.getPosition().x, (int) home.getPosition().y);
+        int homeX = (int) home.getX();
+        int homeY = (int) home.getY();
 
-        GridPoint2 antGrid = getAntGridPosition(ant);
-        int distance = Math.abs(antGrid.x - homeGrid.x) +
-                Math.abs(antGrid.y - homeGrid.y);
+        int distance = Math.abs(Math.round(ant.getX()) - homeX) +
+                Math.abs(Math.round(ant.getY()) - homeY);
 
         if (distance <= DEPOSIT_RADIUS) {
             ant.leaveResources(home);
         }
     }
 
-    private GridPoint2 getAntGridPosition(Ant ant) {
-        Vector2 pos = ant.getPosition();
-        return new GridPoint2(Math.round(pos.x), Math.round(pos.y));
-    }
-
     private boolean tryHarvestNode(Ant ant, ResourceNode node) {
         int amountToPickup = Math.min(
                 node.getCurrentAmount(),
@@ -1,29 +1,124 @@
 package se.chalmers.tda367.team15.game.model.managers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
 
+import se.chalmers.tda367.team15.game.model.SimulationLoad;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
 import se.chalmers.tda367.team15.game.model.interfaces.providers.SimulationProvider;
+import se.chalmers.tda367.team15.game.model.profiling.TickProfiler;
+import se.chalmers.tda367.team15.game.model.profiling.TimingHistogram;
+import se.chalmers.tda367.team15.game.model.profiling.TimingSummary;
 
+/**
+ * Advances the simulation in fixed ticks, as many as wall-clock time allows.
+ *
+ * Everything here is meant to be called from the one thread that drives the
+ * simulation. Other threads, such as input handling on the render thread, hand
+ * work over with {@link #submit(Runnable)} instead; queued commands run in order
+ * between ticks.
+ *
+ * One call to {@link #handleSimulation()} runs at most
+ * {@link #MAX_TICKS_PER_UPDATE} ticks, and time the simulation could not catch
+ * up on is dropped rather than piling up, so a run of slow ticks cannot freeze
+ * the game. With adaptive speed the tick rate is instead lowered until the
+ * ticks fit in their time slices again.
+ *
+ * With a {@link TickProfiler} set, every observer's update is timed.
+ */
 public class SimulationManager implements SimulationProvider {
     private static final int baseTickPerSecond = 100; // Do not set lower than 50
     private static final double inGameTimePerTickMs = 1000.0 / baseTickPerSecond;
+    // Ticks run by one handleSimulation call before handing back control
+    static final int MAX_TICKS_PER_UPDATE = 5;
+    // The most wall-clock time, in ticks, that is kept to catch up on
+    static final int MAX_BACKLOG_TICKS = 25;
+    // Adaptive speed aims for ticks to use this share of their time slice
+    private static final double TARGET_LOAD = 0.9;
+    // Adaptive speed never goes below this share of the requested speed
+    private static final double MIN_SPEED_FACTOR = 0.25;
+    // Weight of the newest tick in the average tick time
+    private static final double TICK_TIME_SMOOTHING = 0.1;
+
     private int speedFactor = 3;
     private int iRLTicksPerSecond = baseTickPerSecond;
     private double accumulator = 0;
-    private long previous = System.currentTimeMillis();
+    private final LongSupplier nanoClock;
+    private long previous;
 
-    private long now = System.currentTimeMillis();
+    private long now;
     private boolean paused = false;
+    private long tickCount = 0;
+
+    private boolean adaptiveSpeed = false;
+    private double adaptiveSpeedFactor = 1;
+    private double averageTickMs = 0;
+    private long droppedTicks = 0;
+    private volatile SimulationLoad load = SimulationLoad.IDLE;
+
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
 
     private final List<SimulationObserver> simulationObservers = new ArrayList<>();
+    private final List<SimulationObserver> simulationObserversView = Collections.unmodifiableList(simulationObservers);
+    // Copy iterated by tick, rebuilt when observers change instead of every tick
+    private SimulationObserver[] observerSnapshot = new SimulationObserver[0];
+    // Where each observer in the snapshot records its time, empty without a profiler
+    private TimingHistogram[] observerHistograms = new TimingHistogram[0];
+    private TickProfiler profiler;
 
     public SimulationManager() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of wall-clock time in nanoseconds, replaceable for
+     *                  tests
+     */
+    SimulationManager(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.previous = nanoClock.getAsLong();
+        this.now = previous;
+    }
+
+    /**
+     * @param adaptiveSpeed whether to lower the tick rate when ticks take longer
+     *                      than their time slice, instead of dropping time
+     */
+    public void setAdaptiveSpeed(boolean adaptiveSpeed) {
+        this.adaptiveSpeed = adaptiveSpeed;
+        if (!adaptiveSpeed) {
+            adaptiveSpeedFactor = 1;
+        }
+    }
+
+    /**
+     * @param profiler records how long each observer takes, or null to stop
+     *                 timing them
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+        rebuildObserverSnapshot();
     }
 
     public void addUpdateObserver(SimulationObserver u) {
         simulationObservers.add(u);
+        rebuildObserverSnapshot();
+    }
+
+    private void rebuildObserverSnapshot() {
+        observerSnapshot = simulationObservers.toArray(new SimulationObserver[0]);
+        if (profiler == null) {
+            observerHistograms = new TimingHistogram[0];
+            return;
+        }
+        observerHistograms = new TimingHistogram[observerSnapshot.length];
+        for (int i = 0; i < observerSnapshot.length; i++) {
+            observerHistograms[i] = profiler.histogram(TickProfiler.nameOf(observerSnapshot[i]));
+        }
     }
 
     public void setTimeFast() {
@@ -49,39 +144,157 @@ public class SimulationManager implements SimulationProvider {
         paused = iRLTicksPerSecond == 0;
         if (oldPause && !paused) {
             accumulator = 0;
-            previous = System.currentTimeMillis();
+            previous = nanoClock.getAsLong();
         }
 
     }
 
-    public void handleSimulation() {
+    public boolean handleSimulation() {
+        // Commands first, they may change the speed or unpause
+        boolean changed = processCommands() > 0;
         if (iRLTicksPerSecond != 0) {
-            long mSPerTick = mSPerTick();
-            now = System.currentTimeMillis();
-            long difference = now - previous;
+            double mSPerTick = mSPerTick() / adaptiveSpeedFactor;
+            now = nanoClock.getAsLong();
+            double difference = (now - previous) / 1e6;
             previous = now;
 
             accumulator += difference;
-            while (accumulator >= mSPerTick) {
-                float inGameTimeDifference = (float) inGameTimePerTickMs / 1000f;
-                List<SimulationObserver> updateThese = new ArrayList<>(simulationObservers);
-                for (SimulationObserver u : updateThese) {
-                    u.update(inGameTimeDifference);
-                }
+            double maxBacklog = mSPerTick * MAX_BACKLOG_TICKS;
+            if (accumulator > maxBacklog) {
+                droppedTicks += (long) ((accumulator - maxBacklog) / mSPerTick);
+                accumulator = maxBacklog;
+            }
 
+            int ticks = 0;
+            while (accumulator >= mSPerTick && ticks < MAX_TICKS_PER_UPDATE) {
+                long tickStart = nanoClock.getAsLong();
+                tick();
+                recordTickTime((nanoClock.getAsLong() - tickStart) / 1e6);
                 accumulator -= mSPerTick;
+                ticks++;
+            }
+
+            if (ticks > 0) {
+                changed = true;
+                if (adaptiveSpeed) {
+                    adaptSpeed();
+                }
+                load = new SimulationLoad(averageTickMs, mSPerTick(), adaptiveSpeedFactor,
+                        accumulator >= mSPerTick, droppedTicks);
             }
         }
+        return changed;
+    }
+
+    private void recordTickTime(double tickMs) {
+        if (averageTickMs == 0) {
+            averageTickMs = tickMs;
+        } else {
+            averageTickMs += TICK_TIME_SMOOTHING * (tickMs - averageTickMs);
+        }
+    }
+
+    /**
+     * Picks the share of the requested speed at which the average tick uses
+     * {@link #TARGET_LOAD} of its time slice.
+     */
+    private void adaptSpeed() {
+        double currentLoad = averageTickMs / mSPerTick();
+        if (currentLoad <= 0) {
+            adaptiveSpeedFactor = 1;
+            return;
+        }
+        adaptiveSpeedFactor = Math.max(MIN_SPEED_FACTOR, Math.min(1, TARGET_LOAD / currentLoad));
+    }
+
+    @Override
+    public SimulationLoad getLoad() {
+        return load;
+    }
+
+    @Override
+    public void submit(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Runs all queued commands in the order they were submitted.
+     *
+     * @return the number of commands run
+     */
+    public int processCommands() {
+        int count = 0;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Advances the simulation by exactly one tick, independent of wall-clock
+     * time. Used by {@link #handleSimulation()} and by launchers that want to run
+     * the simulation as fast as possible.
+     */
+    public void tick() {
+        float inGameTimeDifference = getTickDeltaTime();
+        if (profiler == null) {
+            for (SimulationObserver u : observerSnapshot) {
+                u.update(inGameTimeDifference);
+            }
+        } else {
+            for (int i = 0; i < observerSnapshot.length; i++) {
+                long start = nanoClock.getAsLong();
+                observerSnapshot[i].update(inGameTimeDifference);
+                observerHistograms[i].record(nanoClock.getAsLong() - start);
+            }
+            profiler.endTick();
+        }
+        tickCount++;
+    }
+
+    @Override
+    public List<TimingSummary> getTimings() {
+        return profiler == null ? List.of() : profiler.getLatest();
+    }
+
+    @Override
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @param inGameMs a span of in-game time in milliseconds
+     * @return the number of ticks it takes for that time to pass, at least one
+     */
+    public static int ticksFor(double inGameMs) {
+        return Math.max(1, (int) Math.ceil(inGameMs / inGameTimePerTickMs));
+    }
+
+    /**
+     * @return the in-game time in seconds that passes during one tick
+     */
+    public float getTickDeltaTime() {
+        return (float) inGameTimePerTickMs / 1000f;
+    }
+
+    public List<SimulationObserver> getUpdateObservers() {
+        return simulationObserversView;
     }
 
-    private long mSPerTick() {
+    /**
+     * @return the wall-clock time slice of one tick at the requested speed
+     */
+    private double mSPerTick() {
         if (iRLTicksPerSecond == 0) {
             throw new IllegalStateException("infinite time for each frame is undefined so the game shouldn't run");
         }
-        return 1000 / iRLTicksPerSecond;
+        return 1000.0 / iRLTicksPerSecond;
     }
 
     public void removeUpdateObserver(SimulationObserver u) {
         simulationObservers.remove(u);
+        rebuildObserverSnapshot();
     }
 }
@@ -0,0 +1,243 @@
+package se.chalmers.tda367.team15.game.model.managers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.model.interfaces.HasPosition;
+
+/**
+ * Uniform grid that buckets objects by the cell their position falls in, so
+ * proximity queries only have to look at nearby cells instead of every object.
+ *
+ * The grid does not notice when objects move by itself, {@link #update} has to
+ * be called after an object's position has changed.
+ */
+public class SpatialHashGrid<T extends HasPosition> {
+    private final float cellSize;
+    private final Map<Long, List<T>> cells = new HashMap<>();
+    private final Map<T, Long> cellOf = new IdentityHashMap<>();
+
+    // Bounds of every cell that has ever been occupied, used to stop searches
+    // from walking empty space forever.
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    public void add(T item) {
+        if (cellOf.containsKey(item)) {
+            return;
+        }
+        insert(item, cellX(item.getX()), cellY(item.getY()));
+    }
+
+    public void remove(T item) {
+        Long key = cellOf.remove(item);
+        if (key != null) {
+            removeFromCell(item, key);
+        }
+    }
+
+    /**
+     * Moves the item to the cell matching its current position. Items that are
+     * not in the grid are ignored.
+     */
+    public void update(T item) {
+        Long oldKey = cellOf.get(item);
+        if (oldKey == null) {
+            return;
+        }
+        int cx = cellX(item.getX());
+        int cy = cellY(item.getY());
+        if (key(cx, cy) == oldKey) {
+            return;
+        }
+        removeFromCell(item, oldKey);
+        insert(item, cx, cy);
+    }
+
+    public int size() {
+        return cellOf.size();
+    }
+
+    /**
+     * Adds all items within {@code radius} of {@code center} that match the
+     * filter to {@code result}.
+     */
+    public void queryRadius(Vector2 center, float radius, Predicate<? super T> filter, List<? super T> result) {
+        float radiusSq = radius * radius;
+        forEachCandidate(center.x - radius, center.y - radius, center.x + radius, center.y + radius, item -> {
+            if (Vector2.dst2(item.getX(), item.getY(), center.x, center.y) <= radiusSq && filter.test(item)) {
+                result.add(item);
+            }
+        });
+    }
+
+    /**
+     * Adds all items inside the axis aligned rectangle that match the filter to
+     * {@code result}. The rectangle edges are inclusive.
+     */
+    public void queryRectangle(float minX, float minY, float maxX, float maxY, Predicate<? super T> filter,
+            List<? super T> result) {
+        forEachCandidate(minX, minY, maxX, maxY, item -> {
+            float x = item.getX();
+            float y = item.getY();
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && filter.test(item)) {
+                result.add(item);
+            }
+        });
+    }
+
+    /**
+     * Finds the item closest to {@code center} that matches the filter, searching
+     * outwards ring by ring from the center cell.
+     *
+     * @return the closest match within {@code maxRadius}, or {@code null} if
+     *         there is none
+     */
+    public T findClosest(Vector2 center, float maxRadius, Predicate<? super T> filter) {
+        return findClosest(center.x, center.y, maxRadius, filter);
+    }
+
+    /**
+     * Same as {@link #findClosest(Vector2, float, Predicate)}, for callers that
+     * have the center as plain coordinates.
+     */
+    public T findClosest(float x, float y, float maxRadius, Predicate<? super T> filter) {
+        if (cellOf.isEmpty()) {
+            return null;
+        }
+        // Clamp the center to the occupied bounds, rings outside them are empty
+        int centerX = Math.clamp(cellX(x), minCellX, maxCellX);
+        int centerY = Math.clamp(cellY(y), minCellY, maxCellY);
+        int maxRing = Math.max(
+                Math.max(centerX - minCellX, maxCellX - centerX),
+                Math.max(centerY - minCellY, maxCellY - centerY));
+
+        T closest = null;
+        float closestDistSq = maxRadius * maxRadius;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Nothing in this ring or further out can be closer than this
+            float ringDistance = (ring - 1) * cellSize;
+            if (ringDistance > 0 && ringDistance * ringDistance > closestDistSq) {
+                break;
+            }
+            int fromX = Math.max(centerX - ring, minCellX);
+            int toX = Math.min(centerX + ring, maxCellX);
+            for (int cx = fromX; cx <= toX; cx++) {
+                // Edge columns are walked fully, inner columns only touch the top and bottom row
+                boolean edgeColumn = cx == centerX - ring || cx == centerX + ring;
+                int fromY = edgeColumn ? Math.max(centerY - ring, minCellY) : centerY - ring;
+                int toY = edgeColumn ? Math.min(centerY + ring, maxCellY) : centerY + ring;
+                int step = edgeColumn ? 1 : 2 * ring;
+                for (int cy = fromY; cy <= toY; cy += step) {
+                    if (cy < minCellY || cy > maxCellY) {
+                        continue;
+                    }
+                    List<T> bucket = cells.get(key(cx, cy));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bucket.size(); i++) {
+                        T item = bucket.get(i);
+                        if (!filter.test(item)) {
+                            continue;
+                        }
+                        float distSq = Vector2.dst2(item.getX(), item.getY(), x, y);
+                        if (distSq < closestDistSq || (closest == null && distSq <= closestDistSq)) {
+                            closest = item;
+                            closestDistSq = distSq;
+                        }
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    private void forEachCandidate(float minX, float minY, float maxX, float maxY, Consumer<T> visitor) {
+        if (cellOf.isEmpty()) {
+            return;
+        }
+        int fromX = Math.max(cellX(minX), minCellX);
+        int fromY = Math.max(cellY(minY), minCellY);
+        int toX = Math.min(cellX(maxX), maxCellX);
+        int toY = Math.min(cellY(maxY), maxCellY);
+        if (fromX > toX || fromY > toY) {
+            return;
+        }
+
+        long cellCount = ((long) toX - fromX + 1) * ((long) toY - fromY + 1);
+        if (cellCount > cells.size()) {
+            // Huge query area, cheaper to go through the occupied cells directly
+            for (List<T> bucket : cells.values()) {
+                for (T item : bucket) {
+                    visitor.accept(item);
+                }
+            }
+            return;
+        }
+
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cy = fromY; cy <= toY; cy++) {
+                List<T> bucket = cells.get(key(cx, cy));
+                if (bucket != null) {
+                    for (T item : bucket) {
+                        visitor.accept(item);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insert(T item, int cx, int cy) {
+        long key = key(cx, cy);
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+        cellOf.put(item, key);
+
+        minCellX = Math.min(minCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellX = Math.max(maxCellX, cx);
+        maxCellY = Math.max(maxCellY, cy);
+    }
+
+    private void removeFromCell(T item, long key) {
+        List<T> bucket = cells.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(item);
+        if (bucket.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private int cellX(float x) {
+        return (int) Math.floor(x / cellSize);
+    }
+
+    private int cellY(float y) {
+        return (int) Math.floor(y / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        // Long.hashCode of the plain packed value is cx ^ cy, which makes every
+        // diagonal collide. Multiplying by an odd constant keeps keys unique but
+        // spreads them over the hash table.
+        return (((long) cx << 32) | (cy & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -14,23 +14,27 @@ import se.chalmers.tda367.team15.game.model.structure.Structure;
  */
 public class StructureManager implements SimulationObserver, StructureModificationProvider {
     private final List<Structure> structures = new ArrayList<>();
+    private final List<Structure> structuresView = Collections.unmodifiableList(structures);
+    // Copy iterated by update, so structures can be added or removed while updating
+    private Structure[] updateSnapshot = new Structure[0];
 
     public void addStructure(Structure structure) {
         structures.add(structure);
+        updateSnapshot = structures.toArray(new Structure[0]);
     }
 
     public List<Structure> getStructures() {
-        return Collections.unmodifiableList(structures);
+        return structuresView;
     }
 
     public void removeStructure(Structure structure) {
         structures.remove(structure);
+        updateSnapshot = structures.toArray(new Structure[0]);
     }
 
     @Override
     public void update(float deltaTime) {
-        List<Structure> toUpdate = new ArrayList<>(structures);
-        for (Structure structure : toUpdate) {
+        for (Structure structure : updateSnapshot) {
             structure.update(deltaTime);
         }
     }
@@ -18,10 +18,16 @@ public class WaveManager implements TimeObserver {
     private int nightNumber = 0;
     private final EnemyFactory enemyFactory;
     private final EntityModificationProvider entityModificationProvider;
+    private final Random random;
 
-    public WaveManager(EnemyFactory enemyFactory, EntityModificationProvider entityModificationProvider) {
+    /**
+     * @param random decides where waves spawn
+     */
+    public WaveManager(EnemyFactory enemyFactory, EntityModificationProvider entityModificationProvider,
+            Random random) {
         this.enemyFactory = enemyFactory;
         this.entityModificationProvider = entityModificationProvider;
+        this.random = random;
     }
 
     public int getNightNumber() {
@@ -53,8 +59,7 @@ public class WaveManager implements TimeObserver {
      * @return a randomly scattered vector.
      */
     private Vector2 scatter(Vector2 origin, float distance) {
-        Random r = new Random();
-        float direction = r.nextFloat() * ((float) Math.PI * 2);
+        float direction = random.nextFloat() * ((float) Math.PI * 2);
         float x = MathUtils.cos(direction);
         float y = MathUtils.sin(direction);
         Vector2 directionV = new Vector2(x, y);
@@ -1,11 +1,12 @@
 package se.chalmers.tda367.team15.game.model.managers.fog;
 
-import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.badlogic.gdx.math.GridPoint2;
-import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
 import se.chalmers.tda367.team15.game.model.interfaces.observers.FogObserver;
@@ -18,6 +19,22 @@ public class FogManager implements FogProvider, SimulationObserver {
     private final MapProvider mapProvider;
     private final EntityQuery entityQuery;
     private final List<FogObserver> observers = new CopyOnWriteArrayList<>();
+    private volatile long version = 0;
+    // Where each provider last revealed and watches, so one that stays on its
+    // tile does not reveal the same disc again
+    private final Map<VisionProvider, Sight> sights = new IdentityHashMap<>();
+    private long tick = 0;
+
+    /**
+     * The tile and radius a provider last revealed, which its vision disc covers,
+     * and the tick it was last seen, to forget providers that are gone.
+     */
+    private static final class Sight {
+        int tileX;
+        int tileY;
+        int radius = -1;
+        long seenTick;
+    }
 
     public FogManager(EntityQuery entityQuery, MapProvider mapProvider) {
         this.mapProvider = mapProvider;
@@ -27,18 +44,52 @@ public class FogManager implements FogProvider, SimulationObserver {
 
     @Override
     public void update(float deltaTime) {
-        List<VisionProvider> visionProviders = new ArrayList<>(entityQuery.getEntitiesOfType(VisionProvider.class));
-        for (VisionProvider visionProvider : visionProviders) {
-            Vector2 position = visionProvider.getPosition();
-            fogOfWar.reveal(mapProvider.worldToTile(position), visionProvider.getVisionRadius());
+        tick++;
+        int providers = 0;
+        // Every provider reveals around itself, so there is no proximity query to
+        // narrow this down. Iterate the cached list directly instead of copying it.
+        for (VisionProvider visionProvider : entityQuery.getEntitiesOfType(VisionProvider.class)) {
+            providers++;
+            int tileX = mapProvider.worldToTileX(visionProvider.getX());
+            int tileY = mapProvider.worldToTileY(visionProvider.getY());
+            int radius = visionProvider.getVisionRadius();
+            Sight sight = sights.get(visionProvider);
+            if (sight == null) {
+                sight = new Sight();
+                sights.put(visionProvider, sight);
+            }
+            sight.seenTick = tick;
+            if (sight.tileX == tileX && sight.tileY == tileY && sight.radius == radius) {
+                continue;
+            }
+            fogOfWar.moveVision(sight.tileX, sight.tileY, sight.radius, tileX, tileY, radius);
+            sight.tileX = tileX;
+            sight.tileY = tileY;
+            sight.radius = radius;
+            fogOfWar.reveal(tileX, tileY, radius);
+        }
+        if (sights.size() > providers) {
+            forgetGoneProviders();
         }
 
         if (fogOfWar.isDirty()) {
             fogOfWar.clearDirty();
+            version++;
             notifyDirty();
         }
     }
 
+    private void forgetGoneProviders() {
+        Iterator<Sight> iterator = sights.values().iterator();
+        while (iterator.hasNext()) {
+            Sight sight = iterator.next();
+            if (sight.seenTick != tick) {
+                fogOfWar.moveVision(sight.tileX, sight.tileY, sight.radius, 0, 0, -1);
+                iterator.remove();
+            }
+        }
+    }
+
     @Override
     public GridPoint2 getSize() {
         return fogOfWar.getSize();
@@ -49,11 +100,31 @@ public class FogManager implements FogProvider, SimulationObserver {
         return fogOfWar.isDiscovered(pos);
     }
 
+    @Override
+    public boolean isDiscovered(int x, int y) {
+        return fogOfWar.isDiscovered(x, y);
+    }
+
+    @Override
+    public boolean isVisible(int x, int y) {
+        return fogOfWar.isVisible(x, y);
+    }
+
     @Override
     public boolean[][] getDiscoveredArray() {
         return fogOfWar.getDiscoveredArray();
     }
 
+    @Override
+    public long forEachChangedArea(long sinceRevision, AreaVisitor visitor) {
+        return fogOfWar.forEachChangedArea(sinceRevision, visitor);
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
     private void notifyDirty() {
         for (FogObserver observer : observers) {
             observer.onFogDirty();
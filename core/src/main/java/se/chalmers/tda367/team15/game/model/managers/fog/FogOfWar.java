@@ -1,19 +1,91 @@
 package se.chalmers.tda367.team15.game.model.managers.fog;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.math.GridPoint2;
 
 import se.chalmers.tda367.team15.game.model.world.MapProvider;
 
-// Data store for fog of war, only used by FogManager
+/**
+ * Data store for fog of war, only used by FogManager.
+ *
+ * Which tiles are discovered is kept as a bitset, row by row, each row taking
+ * whole {@code long} words. The disc revealed around a vision provider is
+ * precomputed per radius as the half width of each of its rows, so a reveal
+ * sets every row with a few word-wide ORs instead of testing each tile, and
+ * notices from the words whether anything new was discovered.
+ *
+ * The map is also divided into blocks of {@value #BLOCK_SIZE} by
+ * {@value #BLOCK_SIZE} tiles, counting the tiles of each that are still
+ * undiscovered. A reveal whose disc only covers finished blocks, as most
+ * reveals in explored land do, returns without touching the bits.
+ *
+ * Every block also records the revision, the count of reveals that discovered
+ * something, in which it last changed, so the renderer can refresh just the
+ * blocks discovered since it last looked.
+ *
+ * Tiles are only ever discovered, never hidden again. The revision is
+ * volatile and written after the bits and block revisions of a reveal, and
+ * readers on other threads read it before them. A reader that sees a revision
+ * therefore also sees everything discovered up to it, and at worst misses
+ * later reveals, which it finds the next time it asks for what changed since.
+ *
+ * Separately, every tile counts the vision discs currently covering it, which
+ * makes the tiles that are watched right now. When a provider moves only the
+ * tiles it leaves and enters have their counts changed, row by row from the
+ * same stencils.
+ */
 public class FogOfWar {
-    private final boolean[][] discovered;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_BITS = 1 << WORD_SHIFT;
+    private static final int BLOCK_SHIFT = 4;
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCKS_PER_WORD = WORD_BITS / BLOCK_SIZE;
+    private static final long BLOCK_ROW_MASK = (1L << BLOCK_SIZE) - 1;
+
     private final MapProvider mapProvider;
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] discovered;
+    private final int blocksX;
+    // Tiles of each block not discovered yet, row by row
+    private final int[] undiscoveredInBlock;
+    // Revision in which each block last had tiles discovered, row by row
+    private final long[] blockRevisions;
+    // Number of vision discs covering each tile, row by row
+    private final int[] visionCounts;
     private boolean dirty = true;
+    // Half width of each row of the disc of each radius, indexed by radius and
+    // then by row from the top of the disc. Filled in as radii are first used.
+    private int[][] stencils = new int[0][];
+
+    // Copy of the bits as an array, only made for getDiscoveredArray
+    private boolean[][] discoveredArray;
+    // Written last by a reveal and read first by readers, see the class comment
+    private volatile long changes = 0;
+    private long arrayChanges = -1;
 
     public FogOfWar(MapProvider mapProvider) {
         this.mapProvider = mapProvider;
         GridPoint2 size = mapProvider.getSize();
-        discovered = new boolean[size.x][size.y];
+        width = size.x;
+        height = size.y;
+        wordsPerRow = (width + WORD_BITS - 1) >> WORD_SHIFT;
+        discovered = new long[wordsPerRow * height];
+        visionCounts = new int[width * height];
+
+        blocksX = (width + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        int blocksY = (height + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        undiscoveredInBlock = new int[blocksX * blocksY];
+        blockRevisions = new long[blocksX * blocksY];
+        for (int by = 0; by < blocksY; by++) {
+            int blockHeight = Math.min(BLOCK_SIZE, height - (by << BLOCK_SHIFT));
+            for (int bx = 0; bx < blocksX; bx++) {
+                int blockWidth = Math.min(BLOCK_SIZE, width - (bx << BLOCK_SHIFT));
+                undiscoveredInBlock[by * blocksX + bx] = blockWidth * blockHeight;
+            }
+        }
     }
 
     public GridPoint2 getSize() {
@@ -21,30 +93,270 @@ public class FogOfWar {
     }
 
     public boolean isDiscovered(GridPoint2 pos) {
-        if (!mapProvider.isInBounds(pos)) {
+        return isDiscovered(pos.x, pos.y);
+    }
+
+    public boolean isDiscovered(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
             return false;
         }
-        return discovered[pos.x][pos.y];
+        return (discovered[y * wordsPerRow + (x >> WORD_SHIFT)] & (1L << x)) != 0;
     }
 
+    /**
+     * @return whether a vision disc covers the tile now, false outside the map
+     */
+    public boolean isVisible(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return visionCounts[y * width + x] > 0;
+    }
+
+    /**
+     * Copies the discovered tiles into an array indexed {@code [x][y]}. The copy
+     * is kept and only refreshed once more is discovered, but that costs a pass
+     * over the whole map, so prefer {@link #isDiscovered(int, int)}.
+     */
     public boolean[][] getDiscoveredArray() {
-        return discovered;
+        if (discoveredArray == null) {
+            discoveredArray = new boolean[width][height];
+        }
+        long seen = changes;
+        if (arrayChanges != seen) {
+            arrayChanges = seen;
+            for (int x = 0; x < width; x++) {
+                boolean[] column = discoveredArray[x];
+                for (int y = 0; y < height; y++) {
+                    column[y] = isDiscovered(x, y);
+                }
+            }
+        }
+        return discoveredArray;
     }
 
     public void reveal(GridPoint2 center, int radius) {
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                GridPoint2 pos = new GridPoint2(center.x + dx, center.y + dy);
-                boolean insideCircle = dx * dx + dy * dy <= radius * radius;
-
-                if (mapProvider.isInBounds(pos) && insideCircle) {
-                    if (!discovered[pos.x][pos.y]) {
-                        discovered[pos.x][pos.y] = true;
-                        dirty = true;
+        reveal(center.x, center.y, radius);
+    }
+
+    /**
+     * Discovers the tiles within the radius of the center, the same disc as
+     * {@code dx * dx + dy * dy <= radius * radius}.
+     */
+    public void reveal(int centerX, int centerY, int radius) {
+        if (radius < 0) {
+            return;
+        }
+        int firstRow = Math.max(0, centerY - radius);
+        int lastRow = Math.min(height - 1, centerY + radius);
+        int firstColumn = Math.max(0, centerX - radius);
+        int lastColumn = Math.min(width - 1, centerX + radius);
+        if (firstRow > lastRow || firstColumn > lastColumn
+                || isDiscoveredBlocks(firstColumn, firstRow, lastColumn, lastRow)) {
+            return;
+        }
+
+        int[] halfWidths = stencil(radius);
+        long revision = changes + 1;
+        boolean changed = false;
+        for (int y = firstRow; y <= lastRow; y++) {
+            int halfWidth = halfWidths[y - centerY + radius];
+            int from = Math.max(0, centerX - halfWidth);
+            int to = Math.min(width - 1, centerX + halfWidth);
+            if (from <= to) {
+                changed |= setRange(y, from, to, revision);
+            }
+        }
+        if (changed) {
+            dirty = true;
+            changes = revision;
+        }
+    }
+
+    /**
+     * @return whether every block overlapping the rectangle of tiles, given by
+     *         its inclusive corners, is discovered
+     */
+    private boolean isDiscoveredBlocks(int fromX, int fromY, int toX, int toY) {
+        for (int by = fromY >> BLOCK_SHIFT; by <= toY >> BLOCK_SHIFT; by++) {
+            for (int bx = fromX >> BLOCK_SHIFT; bx <= toX >> BLOCK_SHIFT; bx++) {
+                if (undiscoveredInBlock[by * blocksX + bx] != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the bits {@code from} to {@code to}, inclusive, of the row.
+     *
+     * @return whether any of them was not set before
+     */
+    private boolean setRange(int y, int from, int to, long revision) {
+        int firstWord = from >> WORD_SHIFT;
+        int lastWord = to >> WORD_SHIFT;
+        // Shifts only use the low six bits, so these are the masks from and up to
+        // the bit within its word
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (WORD_BITS - 1 - (to & (WORD_BITS - 1)));
+        if (firstWord == lastWord) {
+            return set(y, firstWord, firstMask & lastMask, revision);
+        }
+        boolean changed = set(y, firstWord, firstMask, revision);
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            changed |= set(y, word, -1L, revision);
+        }
+        return set(y, lastWord, lastMask, revision) | changed;
+    }
+
+    /**
+     * Sets the masked bits of a word of the row, counting the newly discovered
+     * tiles off their blocks and stamping the blocks with the revision.
+     *
+     * @return whether any of them was not set before
+     */
+    private boolean set(int y, int wordInRow, long mask, long revision) {
+        int word = y * wordsPerRow + wordInRow;
+        long old = discovered[word];
+        long added = mask & ~old;
+        if (added == 0) {
+            return false;
+        }
+        discovered[word] = old | mask;
+        int block = (y >> BLOCK_SHIFT) * blocksX + wordInRow * BLOCKS_PER_WORD;
+        for (int i = 0; i < BLOCKS_PER_WORD; i++) {
+            int count = Long.bitCount((added >>> (i * BLOCK_SIZE)) & BLOCK_ROW_MASK);
+            if (count != 0) {
+                undiscoveredInBlock[block + i] -= count;
+                blockRevisions[block + i] = revision;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves a vision disc, counting it off the tiles only the old disc covers and
+     * onto the tiles only the new one covers. A radius of -1 stands for no disc,
+     * to add a disc or remove one.
+     */
+    public void moveVision(int oldX, int oldY, int oldRadius, int newX, int newY, int newRadius) {
+        if (oldX == newX && oldY == newY && oldRadius == newRadius) {
+            return;
+        }
+        int[] oldHalfWidths = oldRadius >= 0 ? stencil(oldRadius) : null;
+        int[] newHalfWidths = newRadius >= 0 ? stencil(newRadius) : null;
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = Integer.MIN_VALUE;
+        if (oldHalfWidths != null) {
+            firstRow = oldY - oldRadius;
+            lastRow = oldY + oldRadius;
+        }
+        if (newHalfWidths != null) {
+            firstRow = Math.min(firstRow, newY - newRadius);
+            lastRow = Math.max(lastRow, newY + newRadius);
+        }
+        firstRow = Math.max(0, firstRow);
+        lastRow = Math.min(height - 1, lastRow);
+
+        for (int y = firstRow; y <= lastRow; y++) {
+            // Spans of the discs in the row, empty when from is after to
+            int oldFrom = 1;
+            int oldTo = 0;
+            if (oldHalfWidths != null && Math.abs(y - oldY) <= oldRadius) {
+                int halfWidth = oldHalfWidths[y - oldY + oldRadius];
+                oldFrom = oldX - halfWidth;
+                oldTo = oldX + halfWidth;
+            }
+            int newFrom = 1;
+            int newTo = 0;
+            if (newHalfWidths != null && Math.abs(y - newY) <= newRadius) {
+                int halfWidth = newHalfWidths[y - newY + newRadius];
+                newFrom = newX - halfWidth;
+                newTo = newX + halfWidth;
+            }
+            addOutside(y, oldFrom, oldTo, newFrom, newTo, -1);
+            addOutside(y, newFrom, newTo, oldFrom, oldTo, 1);
+        }
+    }
+
+    /**
+     * Adds to the vision counts of the span of the row, except where it overlaps
+     * the other span.
+     */
+    private void addOutside(int y, int from, int to, int otherFrom, int otherTo, int delta) {
+        if (otherFrom > otherTo) {
+            addVision(y, from, to, delta);
+        } else {
+            addVision(y, from, Math.min(to, otherFrom - 1), delta);
+            addVision(y, Math.max(from, otherTo + 1), to, delta);
+        }
+    }
+
+    private void addVision(int y, int from, int to, int delta) {
+        int row = y * width;
+        for (int x = Math.max(0, from); x <= Math.min(width - 1, to); x++) {
+            visionCounts[row + x] += delta;
+        }
+    }
+
+    /**
+     * Visits the areas holding tiles discovered after the revision, one
+     * rectangle per row of blocks spanning its changed blocks.
+     *
+     * @param sinceRevision the revision returned by the previous call, or -1 to
+     *                      visit the whole map
+     * @return the revision the visited areas are up to
+     */
+    public long forEachChangedArea(long sinceRevision, FogProvider.AreaVisitor visitor) {
+        // Read first, so everything discovered up to it is seen, and blocks
+        // changing during the visit are visited again next time
+        long revision = changes;
+        for (int by = 0; by * BLOCK_SIZE < height; by++) {
+            int row = by * blocksX;
+            int first = -1;
+            int last = -1;
+            for (int bx = 0; bx < blocksX; bx++) {
+                if (blockRevisions[row + bx] > sinceRevision) {
+                    if (first < 0) {
+                        first = bx;
                     }
+                    last = bx;
+                }
+            }
+            if (first >= 0) {
+                int x = first << BLOCK_SHIFT;
+                int y = by << BLOCK_SHIFT;
+                visitor.visit(x, y, Math.min(width, (last + 1) << BLOCK_SHIFT) - x,
+                        Math.min(height, y + BLOCK_SIZE) - y);
+            }
+        }
+        return revision;
+    }
+
+    /**
+     * @return the half width of each row of the disc of the radius
+     */
+    private int[] stencil(int radius) {
+        if (radius >= stencils.length) {
+            stencils = Arrays.copyOf(stencils, radius + 1);
+        }
+        int[] halfWidths = stencils[radius];
+        if (halfWidths == null) {
+            halfWidths = new int[2 * radius + 1];
+            int halfWidth = 0;
+            // Rows widen towards the middle, so each half width starts from the
+            // one of the row before
+            for (int dy = -radius; dy <= 0; dy++) {
+                while ((halfWidth + 1) * (halfWidth + 1) + dy * dy <= radius * radius) {
+                    halfWidth++;
                 }
+                halfWidths[dy + radius] = halfWidth;
+                halfWidths[radius - dy] = halfWidth;
             }
+            stencils[radius] = halfWidths;
         }
+        return halfWidths;
     }
 
     public boolean isDirty() {
@@ -7,13 +7,49 @@ import se.chalmers.tda367.team15.game.model.interfaces.observers.FogObserver;
 public interface FogProvider {
     GridPoint2 getSize();
     boolean isDiscovered(GridPoint2 pos);
-    
+
+    /**
+     * @return whether the tile has been discovered, false outside the map
+     */
+    boolean isDiscovered(int x, int y);
+
     /**
-     * Returns the raw discovered array for efficient rendering.
-     * DO NOT MODIFY the returned array.
+     * @return whether a vision provider sees the tile now, false outside the
+     *         map. Discovered tiles that nobody watches are not visible.
+     */
+    boolean isVisible(int x, int y);
+
+    /**
+     * Returns the discovered tiles as an array indexed {@code [x][y]}.
+     * DO NOT MODIFY the returned array. It is rebuilt from the fog's bitset
+     * when more has been discovered, so prefer {@link #isDiscovered(int, int)}
+     * for single tiles.
      */
     boolean[][] getDiscoveredArray();
 
+    /**
+     * Visits the areas of the map with tiles discovered after the given
+     * revision, as rectangles of tiles that may also hold unchanged ones.
+     *
+     * @param sinceRevision the revision returned by the previous call, or -1 to
+     *                      visit the whole map
+     * @return the revision to pass to the next call
+     */
+    long forEachChangedArea(long sinceRevision, AreaVisitor visitor);
+
+    /**
+     * Receives a rectangle of tiles, from its bottom left tile.
+     */
+    interface AreaVisitor {
+        void visit(int x, int y, int width, int height);
+    }
+
+    /**
+     * Returns a number that changes every time more of the map is revealed, so
+     * readers on other threads can tell when to read the array again.
+     */
+    long getVersion();
+
     /**
      * Adds an observer to the fog provider.
      * The observer will be notified when the fog state changes.
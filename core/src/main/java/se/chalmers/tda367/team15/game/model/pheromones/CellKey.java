@@ -0,0 +1,35 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+/**
+ * Packs the grid coordinates and type of a pheromone cell into one long, for
+ * keeping cells in primitive arrays.
+ *
+ * Coordinates keep their lowest 30 bits, far more than a map needs.
+ */
+final class CellKey {
+    private static final PheromoneType[] TYPES = PheromoneType.values();
+    private static final int COORDINATE_BITS = 30;
+    private static final int TYPE_BITS = 4;
+
+    private CellKey() {
+    }
+
+    static long pack(int x, int y, PheromoneType type) {
+        long mask = (1L << COORDINATE_BITS) - 1;
+        return ((x & mask) << (COORDINATE_BITS + TYPE_BITS)) | ((y & mask) << TYPE_BITS) | type.ordinal();
+    }
+
+    static int x(long key) {
+        return (int) (key >> (COORDINATE_BITS + TYPE_BITS));
+    }
+
+    static int y(long key) {
+        // Shifting up and back down restores the sign
+        int shift = Long.SIZE - COORDINATE_BITS - TYPE_BITS;
+        return (int) ((key << shift) >> (shift + TYPE_BITS));
+    }
+
+    static PheromoneType type(long key) {
+        return TYPES[(int) (key & ((1 << TYPE_BITS) - 1))];
+    }
+}
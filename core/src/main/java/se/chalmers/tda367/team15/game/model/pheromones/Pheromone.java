@@ -2,17 +2,51 @@ package se.chalmers.tda367.team15.game.model.pheromones;
 
 import com.badlogic.gdx.math.GridPoint2;
 
+/**
+ * A pheromone in one cell of the pheromone grid.
+ *
+ * Pheromones placed in a {@link PheromoneGrid} are views, their distance and
+ * ant count live in the grid's chunk arrays. Once removed from the grid, a
+ * pheromone keeps the values it had so that ants still holding it see no
+ * change.
+ */
 public class Pheromone {
     private final GridPoint2 position;
     private final PheromoneType type;
+    // Where the distance and ant count are stored while placed in a grid, null
+    // when the pheromone is not part of one
+    private PheromoneChunk chunk;
+    private int index;
+    // Used instead of the chunk when there is none
     private int distance;
     private int antCount;
+    private float strength = 1f;
 
+    /**
+     * Creates a pheromone that is not part of any grid.
+     */
     public Pheromone(GridPoint2 position, PheromoneType type, int distance) {
         this.position = position;
         this.type = type;
         this.distance = distance;
-        this.antCount = 0;
+    }
+
+    Pheromone(GridPoint2 position, PheromoneType type, PheromoneChunk chunk, int index) {
+        this.position = position;
+        this.type = type;
+        this.chunk = chunk;
+        this.index = index;
+    }
+
+    /**
+     * Copies the values out of the grid, called when the pheromone is removed
+     * from it.
+     */
+    void detach() {
+        distance = getDistance();
+        antCount = getAntCount();
+        strength = getStrength();
+        chunk = null;
     }
 
     public GridPoint2 getPosition() {
@@ -24,24 +58,56 @@ public class Pheromone {
     }
 
     public int getDistance() {
-        return distance;
+        return chunk != null ? chunk.getDistance(type, index) : distance;
     }
 
-    public void setDistance(int distance) {
-        this.distance = distance;
+    /**
+     * Changes the distance without updating the grid's trail flow, pheromones
+     * in a grid should be changed through {@link PheromoneGrid#setDistance}.
+     */
+    void setDistance(int distance) {
+        if (chunk != null) {
+            chunk.setDistance(type, index, distance);
+        } else {
+            this.distance = distance;
+        }
     }
 
     public int getAntCount() {
-        return antCount;
+        return chunk != null ? chunk.getAntCount(type, index) : antCount;
     }
 
+    /**
+     * Counts an ant stepping onto the pheromone, which also restarts its
+     * lifetime if the grid evaporates.
+     */
     public void incrementAnts() {
-        antCount++;
+        setAntCount(getAntCount() + 1);
+        if (chunk != null) {
+            chunk.refresh(type, index);
+        }
     }
 
     public void decrementAnts() {
-        if (antCount > 0) {
-            antCount--;
+        int count = getAntCount();
+        if (count > 0) {
+            setAntCount(count - 1);
+        }
+    }
+
+    /**
+     * @return how much of its lifetime the pheromone has left, from 1 when
+     *         just placed or visited down to 0 when about to evaporate
+     */
+    public float getStrength() {
+        return chunk != null ? chunk.getStrength(type, index) : strength;
+    }
+
+    private void setAntCount(int count) {
+        if (chunk != null) {
+            chunk.setAntCount(type, index, count);
+        } else {
+            antCount = count;
         }
     }
 }
@@ -0,0 +1,169 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+/**
+ * A square block of pheromone grid cells, storing distances and ant counts in
+ * flat primitive arrays.
+ *
+ * The arrays of a pheromone type are only allocated while the chunk holds a
+ * pheromone of that type. A distance of 0 means there is no pheromone in the
+ * cell, placed pheromones are always at least 1 away from the colony.
+ */
+final class PheromoneChunk {
+    static final int SHIFT = 6;
+    static final int SIZE = 1 << SHIFT;
+    static final int MASK = SIZE - 1;
+
+    private static final PheromoneType[] TYPES = PheromoneType.values();
+
+    private final int cells;
+    private final int[][] distances = new int[TYPES.length][];
+    private final short[][] antCounts = new short[TYPES.length][];
+    // Packed TrailFlow masks, kept up to date by PheromoneGrid
+    private final short[][] flows = new short[TYPES.length][];
+    // The pheromone objects handed out for the cells, so callers always get the
+    // same instance for a placed pheromone
+    private final Pheromone[][] views = new Pheromone[TYPES.length][];
+    private final int[] counts = new int[TYPES.length];
+    // Ticks the cells expire on and the ticks their expiry is scheduled for,
+    // only kept when the grid evaporates
+    private final PheromoneEvaporation evaporation;
+    private final int[][] expiries = new int[TYPES.length][];
+    private final int[][] scheduledExpiries = new int[TYPES.length][];
+
+    /**
+     * @param cells       number of cells, {@code SIZE * SIZE} for chunks of the
+     *                    grid
+     * @param evaporation the grid's evaporation, or null if its pheromones last
+     *                    forever
+     */
+    PheromoneChunk(int cells, PheromoneEvaporation evaporation) {
+        this.cells = cells;
+        this.evaporation = evaporation;
+    }
+
+    /**
+     * @return the index of the cell within its chunk
+     */
+    static int index(int x, int y) {
+        return ((y & MASK) << SHIFT) | (x & MASK);
+    }
+
+    int getDistance(PheromoneType type, int index) {
+        int[] typeDistances = distances[type.ordinal()];
+        return typeDistances != null ? typeDistances[index] : 0;
+    }
+
+    void setDistance(PheromoneType type, int index, int distance) {
+        distances[type.ordinal()][index] = distance;
+    }
+
+    int getAntCount(PheromoneType type, int index) {
+        return antCounts[type.ordinal()][index];
+    }
+
+    void setAntCount(PheromoneType type, int index, int antCount) {
+        antCounts[type.ordinal()][index] = (short) Math.min(antCount, Short.MAX_VALUE);
+    }
+
+    int getFlow(PheromoneType type, int index) {
+        short[] typeFlows = flows[type.ordinal()];
+        return typeFlows != null ? typeFlows[index] & 0xffff : 0;
+    }
+
+    void setFlow(PheromoneType type, int index, int flow) {
+        flows[type.ordinal()][index] = (short) flow;
+    }
+
+    int getExpiry(PheromoneType type, int index) {
+        return expiries[type.ordinal()][index];
+    }
+
+    void setExpiry(PheromoneType type, int index, int tick) {
+        expiries[type.ordinal()][index] = tick;
+    }
+
+    int getScheduledExpiry(PheromoneType type, int index) {
+        return scheduledExpiries[type.ordinal()][index];
+    }
+
+    void setScheduledExpiry(PheromoneType type, int index, int tick) {
+        scheduledExpiries[type.ordinal()][index] = tick;
+    }
+
+    /**
+     * Restarts the lifetime of the cell's pheromone, if the grid evaporates.
+     */
+    void refresh(PheromoneType type, int index) {
+        if (evaporation != null) {
+            expiries[type.ordinal()][index] = evaporation.deadline();
+        }
+    }
+
+    /**
+     * @return how much of its lifetime the cell's pheromone has left, always 1
+     *         if the grid does not evaporate
+     */
+    float getStrength(PheromoneType type, int index) {
+        return evaporation != null ? evaporation.strength(expiries[type.ordinal()][index]) : 1f;
+    }
+
+    Pheromone getView(PheromoneType type, int index) {
+        Pheromone[] typeViews = views[type.ordinal()];
+        return typeViews != null ? typeViews[index] : null;
+    }
+
+    /**
+     * Places a pheromone in an empty cell.
+     */
+    void place(Pheromone view, int index, int distance) {
+        int t = view.getType().ordinal();
+        if (distances[t] == null) {
+            distances[t] = new int[cells];
+            antCounts[t] = new short[cells];
+            flows[t] = new short[cells];
+            views[t] = new Pheromone[cells];
+            if (evaporation != null) {
+                expiries[t] = new int[cells];
+                scheduledExpiries[t] = new int[cells];
+            }
+        }
+        distances[t][index] = distance;
+        antCounts[t][index] = 0;
+        flows[t][index] = 0;
+        views[t][index] = view;
+        counts[t]++;
+    }
+
+    /**
+     * Empties the cell, dropping the type's arrays once no pheromone of the type
+     * is left in the chunk.
+     */
+    void clear(PheromoneType type, int index) {
+        int t = type.ordinal();
+        distances[t][index] = 0;
+        antCounts[t][index] = 0;
+        flows[t][index] = 0;
+        views[t][index] = null;
+        counts[t]--;
+        if (counts[t] == 0) {
+            distances[t] = null;
+            antCounts[t] = null;
+            flows[t] = null;
+            views[t] = null;
+            expiries[t] = null;
+            scheduledExpiries[t] = null;
+        }
+    }
+
+    int getCount(PheromoneType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * @return the pheromone objects of the type, indexed by cell, or null if
+     *         there are none
+     */
+    Pheromone[] getViews(PheromoneType type) {
+        return views[type.ordinal()];
+    }
+}
@@ -0,0 +1,145 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+/**
+ * Lets the pheromones of a {@link PheromoneGrid} evaporate when no ant walks
+ * them for a while.
+ *
+ * Every placed pheromone expires a fixed number of ticks after it was placed
+ * or last had an ant step onto it. Instead of checking every cell each tick,
+ * the expiry of each cell is scheduled on a {@link TimingWheel}. A visit only
+ * moves the expiry stored in the grid; when the scheduled tick comes and the
+ * cell turns out to have been visited since, it is scheduled again for its new
+ * expiry. A tick therefore costs time in proportion to the cells that come due
+ * on it, not to the size of the grid.
+ *
+ * Ants may cut corners on a trail, so a pheromone is also kept while one
+ * further out on the trail, one of its adjacent pheromones one further from the
+ * colony, is still alive. Trails thereby evaporate from their ends inwards and
+ * a walked part never loses its connection to the colony.
+ *
+ * Ticks are counted in an int, which lasts for months of play even at the
+ * fastest speed.
+ */
+public final class PheromoneEvaporation {
+    private static final int[][] NEIGHBOR_OFFSETS = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
+
+    /**
+     * Told about the pheromones that evaporate.
+     */
+    @FunctionalInterface
+    public interface ExpiryListener {
+        /**
+         * Called for a pheromone whose time ran out. The pheromone is still in
+         * the grid, removing it is up to the listener.
+         */
+        void expired(int x, int y, PheromoneType type);
+    }
+
+    private final PheromoneGrid grid;
+    private final int lifetime;
+    private final TimingWheel wheel = new TimingWheel();
+
+    /**
+     * @param lifetime the number of ticks a pheromone lasts without ants
+     */
+    PheromoneEvaporation(PheromoneGrid grid, int lifetime) {
+        if (lifetime <= 0) {
+            throw new IllegalArgumentException("lifetime must be positive");
+        }
+        this.grid = grid;
+        this.lifetime = lifetime;
+    }
+
+    public int getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * @return the number of ticks advanced so far
+     */
+    public int getTick() {
+        return (int) wheel.now();
+    }
+
+    /**
+     * @return the tick a pheromone placed or visited now expires on
+     */
+    int deadline() {
+        return getTick() + lifetime;
+    }
+
+    /**
+     * @return how much of its lifetime a pheromone expiring on the tick has
+     *         left, from 1 when just placed or visited down to 0
+     */
+    float strength(int expiry) {
+        return Math.max(0, expiry - getTick()) / (float) lifetime;
+    }
+
+    /**
+     * Starts the clock of a newly placed pheromone.
+     */
+    void track(PheromoneChunk chunk, int x, int y, PheromoneType type, int index) {
+        int deadline = deadline();
+        chunk.setExpiry(type, index, deadline);
+        chunk.setScheduledExpiry(type, index, deadline);
+        wheel.schedule(deadline, CellKey.pack(x, y, type));
+    }
+
+    /**
+     * Advances the clock by one tick, telling the listener about every
+     * pheromone that expires on it.
+     */
+    public void advance(ExpiryListener listener) {
+        int count = wheel.advance();
+        int tick = getTick();
+        for (int i = 0; i < count; i++) {
+            long entry = wheel.due(i);
+            int x = CellKey.x(entry);
+            int y = CellKey.y(entry);
+            PheromoneType type = CellKey.type(entry);
+            PheromoneChunk chunk = grid.findChunk(x, y);
+            int index = PheromoneChunk.index(x, y);
+            // Entries left behind by a pheromone that was removed, or removed and
+            // placed again, no longer match what the cell has scheduled
+            if (chunk == null || chunk.getDistance(type, index) == 0
+                    || chunk.getScheduledExpiry(type, index) != tick) {
+                continue;
+            }
+            int expiry = chunk.getExpiry(type, index);
+            if (expiry <= tick) {
+                expiry = Math.max(expiry, heldUntil(x, y, type, chunk.getDistance(type, index), tick));
+            }
+            if (expiry > tick) {
+                chunk.setExpiry(type, index, expiry);
+                chunk.setScheduledExpiry(type, index, expiry);
+                wheel.schedule(expiry, entry);
+            } else {
+                listener.expired(x, y, type);
+            }
+        }
+    }
+
+    /**
+     * @return the latest expiry among the pheromones further out on the trail
+     *         that are still alive, or 0 if there are none. One that expires on
+     *         this tick as well holds the pheromone until the next tick, by
+     *         when it is decided whether it stays.
+     */
+    private int heldUntil(int x, int y, PheromoneType type, int distance, int tick) {
+        int latest = 0;
+        for (int[] offset : NEIGHBOR_OFFSETS) {
+            int neighborX = x + offset[0];
+            int neighborY = y + offset[1];
+            PheromoneChunk chunk = grid.findChunk(neighborX, neighborY);
+            int index = PheromoneChunk.index(neighborX, neighborY);
+            if (chunk != null && chunk.getDistance(type, index) == distance + 1) {
+                int expiry = chunk.getExpiry(type, index);
+                if (expiry >= tick) {
+                    latest = Math.max(latest, Math.max(expiry, tick + 1));
+                }
+            }
+        }
+        return latest;
+    }
+}
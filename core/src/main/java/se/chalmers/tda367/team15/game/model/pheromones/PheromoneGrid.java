@@ -2,90 +2,463 @@ package se.chalmers.tda367.team15.game.model.pheromones;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.badlogic.gdx.math.GridPoint2;
 
+/**
+ * Stores pheromones in chunks of {@value PheromoneChunk#SIZE} by
+ * {@value PheromoneChunk#SIZE} cells, allocated when the first pheromone is
+ * placed in them.
+ *
+ * Looking up a cell is one probe of a small chunk table keyed by primitive
+ * chunk coordinates followed by an array read, so neighbour queries neither
+ * hash objects nor allocate. Reads may run from several threads at once as
+ * long as nothing is placed or removed meanwhile.
+ *
+ * For every cell the grid also keeps its {@link TrailFlow}, updated whenever
+ * the cell or one of its neighbours is placed, removed or changes distance, so
+ * ants can choose where to go next without looking at the neighbours.
+ *
+ * Placements, removals and distance changes are recorded in a
+ * {@link PheromoneJournal}, so consumers can follow the grid without copying
+ * all of it.
+ *
+ * A grid created with a lifetime lets its pheromones evaporate, see
+ * {@link PheromoneEvaporation}.
+ */
 public class PheromoneGrid {
-    // Nested map: position -> (type -> pheromone)
-    private final Map<GridPoint2, Map<PheromoneType, Pheromone>> pheromones;
+    private static final PheromoneType[] TYPES = PheromoneType.values();
 
+    // Open addressing table from packed chunk coordinates to chunk. Chunks are
+    // never removed, only their arrays are dropped when they empty.
+    private long[] keys = new long[16];
+    private PheromoneChunk[] table = new PheromoneChunk[16];
+    // The same chunks in the order they were created, for iteration
+    private final List<PheromoneChunk> chunks = new ArrayList<>();
+    private final PheromoneEvaporation evaporation;
+    private final PheromoneJournal journal = new PheromoneJournal();
+
+    /**
+     * Creates a grid whose pheromones last until they are removed.
+     */
     public PheromoneGrid() {
-        this.pheromones = new HashMap<>();
+        this.evaporation = null;
+    }
+
+    /**
+     * Creates a grid whose pheromones evaporate when no ant has stepped onto
+     * them for the given number of ticks.
+     */
+    public PheromoneGrid(int lifetime) {
+        this.evaporation = new PheromoneEvaporation(this, lifetime);
+    }
+
+    public PheromoneJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return a number that grows with every placement, removal and distance
+     *         change, see {@link PheromoneJournal#getVersion()}
+     */
+    public long getVersion() {
+        return journal.getVersion();
+    }
+
+    /**
+     * @return the evaporation of the grid's pheromones, or null if they last
+     *         until removed
+     */
+    public PheromoneEvaporation getEvaporation() {
+        return evaporation;
     }
 
     /**
      * Checks if a pheromone of the given type exists at the position.
      */
     public boolean hasPheromoneAt(GridPoint2 pos, PheromoneType type) {
-        Map<PheromoneType, Pheromone> typeMap = pheromones.get(pos);
-        return typeMap != null && typeMap.containsKey(type);
+        return getDistance(pos.x, pos.y, type) != 0;
+    }
+
+    /**
+     * @return the distance of the pheromone of the given type at the grid
+     *         coordinates, or 0 if there is none
+     */
+    public int getDistance(int x, int y, PheromoneType type) {
+        PheromoneChunk chunk = findChunk(x, y);
+        return chunk != null ? chunk.getDistance(type, PheromoneChunk.index(x, y)) : 0;
+    }
+
+    /**
+     * @return the packed {@link TrailFlow} of the cell, 0 if there is no
+     *         pheromone of the type there
+     */
+    public int getFlow(int x, int y, PheromoneType type) {
+        PheromoneChunk chunk = findChunk(x, y);
+        return chunk != null ? chunk.getFlow(type, PheromoneChunk.index(x, y)) : 0;
     }
 
     /**
      * Gets a pheromone of a specific type at the given position.
      */
     public Pheromone getPheromoneAt(GridPoint2 pos, PheromoneType type) {
-        Map<PheromoneType, Pheromone> typeMap = pheromones.get(pos);
-        return typeMap != null ? typeMap.get(type) : null;
+        return getPheromoneAt(pos.x, pos.y, type);
+    }
+
+    /**
+     * Gets a pheromone of a specific type at the given grid coordinates.
+     */
+    public Pheromone getPheromoneAt(int x, int y, PheromoneType type) {
+        PheromoneChunk chunk = findChunk(x, y);
+        return chunk != null ? chunk.getView(type, PheromoneChunk.index(x, y)) : null;
     }
 
     /**
      * Gets all pheromones at the given position (all types).
      */
     public Collection<Pheromone> getPheromonesAt(GridPoint2 pos) {
-        Map<PheromoneType, Pheromone> typeMap = pheromones.get(pos);
-        return typeMap != null ? new ArrayList<>(typeMap.values()) : List.of();
+        PheromoneChunk chunk = findChunk(pos.x, pos.y);
+        if (chunk == null) {
+            return List.of();
+        }
+        int index = PheromoneChunk.index(pos.x, pos.y);
+        List<Pheromone> result = new ArrayList<>();
+        for (PheromoneType type : TYPES) {
+            Pheromone pheromone = chunk.getView(type, index);
+            if (pheromone != null) {
+                result.add(pheromone);
+            }
+        }
+        return result;
     }
 
-    public void addPheromone(Pheromone pheromone) {
-        GridPoint2 pos = pheromone.getPosition();
-        pheromones.computeIfAbsent(pos, k -> new EnumMap<>(PheromoneType.class))
-                .put(pheromone.getType(), pheromone);
+    /**
+     * Places a pheromone, or changes the distance of the one already there.
+     *
+     * @return the placed pheromone
+     */
+    public Pheromone addPheromone(GridPoint2 pos, PheromoneType type, int distance) {
+        if (distance <= 0) {
+            throw new IllegalArgumentException("distance must be positive");
+        }
+        PheromoneChunk chunk = getOrCreateChunk(pos.x, pos.y);
+        int index = PheromoneChunk.index(pos.x, pos.y);
+        Pheromone pheromone = chunk.getView(type, index);
+        int oldDistance = 0;
+        if (pheromone != null) {
+            oldDistance = pheromone.getDistance();
+            pheromone.setDistance(distance);
+        } else {
+            pheromone = new Pheromone(new GridPoint2(pos), type, chunk, index);
+            chunk.place(pheromone, index, distance);
+            if (evaporation != null) {
+                evaporation.track(chunk, pos.x, pos.y, type, index);
+            }
+        }
+        updateFlow(pos.x, pos.y, type, distance);
+        journal.record(pos.x, pos.y, type, oldDistance, distance);
+        return pheromone;
+    }
+
+    /**
+     * Changes the distance of a placed pheromone, doing nothing if there is
+     * none.
+     */
+    public void setDistance(int x, int y, PheromoneType type, int distance) {
+        if (distance <= 0) {
+            throw new IllegalArgumentException("distance must be positive");
+        }
+        PheromoneChunk chunk = findChunk(x, y);
+        int index = PheromoneChunk.index(x, y);
+        int oldDistance = chunk != null ? chunk.getDistance(type, index) : 0;
+        if (oldDistance == 0) {
+            return;
+        }
+        chunk.setDistance(type, index, distance);
+        updateFlow(x, y, type, distance);
+        journal.record(x, y, type, oldDistance, distance);
     }
 
     /**
      * Removes a pheromone of a specific type at the position.
      */
     public void removePheromone(GridPoint2 pos, PheromoneType type) {
-        Map<PheromoneType, Pheromone> typeMap = pheromones.get(pos);
-        if (typeMap == null) {
+        PheromoneChunk chunk = findChunk(pos.x, pos.y);
+        if (chunk == null) {
+            return;
+        }
+        int index = PheromoneChunk.index(pos.x, pos.y);
+        Pheromone pheromone = chunk.getView(type, index);
+        if (pheromone == null) {
             return;
         }
+        pheromone.detach();
+        chunk.clear(type, index);
+        updateFlow(pos.x, pos.y, type, 0);
+        journal.record(pos.x, pos.y, type, pheromone.getDistance(), 0);
+    }
+
+    /**
+     * Removes every pheromone, recording each removal like
+     * {@link #removePheromone} does.
+     */
+    public void clear() {
+        for (Pheromone pheromone : getAllPheromones()) {
+            removePheromone(pheromone.getPosition(), pheromone.getType());
+        }
+    }
+
+    /**
+     * Places many pheromones of one type at once, as when loading a saved
+     * network. The distances are taken as they are, without checking that the
+     * cells connect to the colony, and the trail flows are worked out once all
+     * cells are placed instead of after each one.
+     *
+     * @param count     the number of cells, the first {@code count} entries of
+     *                  the arrays
+     * @param distances the distance of each cell, all positive
+     * @throws IllegalStateException    if the grid already holds pheromones of
+     *                                  the type
+     * @throws IllegalArgumentException if a cell is given twice or a distance
+     *                                  is not positive
+     */
+    void placeAll(PheromoneType type, int count, int[] xs, int[] ys, int[] distances) {
+        for (PheromoneChunk chunk : chunks) {
+            if (chunk.getCount(type) != 0) {
+                throw new IllegalStateException("grid already holds " + type + " pheromones");
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int x = xs[i];
+            int y = ys[i];
+            int distance = distances[i];
+            if (distance <= 0) {
+                throw new IllegalArgumentException("distance must be positive");
+            }
+            PheromoneChunk chunk = getOrCreateChunk(x, y);
+            int index = PheromoneChunk.index(x, y);
+            if (chunk.getDistance(type, index) != 0) {
+                throw new IllegalArgumentException("cell " + x + "," + y + " is given twice");
+            }
+            chunk.place(new Pheromone(new GridPoint2(x, y), type, chunk, index), index, distance);
+            if (evaporation != null) {
+                evaporation.track(chunk, x, y, type, index);
+            }
+            journal.record(x, y, type, 0, distance);
+        }
+        for (int i = 0; i < count; i++) {
+            int x = xs[i];
+            int y = ys[i];
+            findChunk(x, y).setFlow(type, PheromoneChunk.index(x, y), flowOf(x, y, type, distances[i]));
+        }
+    }
+
+    /**
+     * Told about the cells holding a pheromone of one type, see
+     * {@link PheromoneGrid#forEachCell}.
+     */
+    @FunctionalInterface
+    interface CellVisitor {
+        void visit(int x, int y, int distance);
+    }
 
-        typeMap.remove(type);
-        if (typeMap.isEmpty()) {
-            pheromones.remove(pos);
+    /**
+     * Tells the visitor about every cell with a pheromone of the type, chunk by
+     * chunk in no particular order.
+     */
+    void forEachCell(PheromoneType type, CellVisitor visitor) {
+        for (int slot = 0; slot < table.length; slot++) {
+            PheromoneChunk chunk = table[slot];
+            if (chunk == null || chunk.getCount(type) == 0) {
+                continue;
+            }
+            int baseX = (int) (keys[slot] >> 32) << PheromoneChunk.SHIFT;
+            int baseY = (int) keys[slot] << PheromoneChunk.SHIFT;
+            for (int index = 0; index < PheromoneChunk.SIZE * PheromoneChunk.SIZE; index++) {
+                int distance = chunk.getDistance(type, index);
+                if (distance != 0) {
+                    visitor.visit(baseX | (index & PheromoneChunk.MASK), baseY | (index >> PheromoneChunk.SHIFT),
+                            distance);
+                }
+            }
         }
     }
 
     public Collection<Pheromone> getAllPheromones() {
         List<Pheromone> allPheromones = new ArrayList<>();
-        for (Map<PheromoneType, Pheromone> typeMap : pheromones.values()) {
-            allPheromones.addAll(typeMap.values());
+        for (PheromoneChunk chunk : chunks) {
+            for (PheromoneType type : TYPES) {
+                Pheromone[] views = chunk.getViews(type);
+                if (views == null) {
+                    continue;
+                }
+                for (Pheromone pheromone : views) {
+                    if (pheromone != null) {
+                        allPheromones.add(pheromone);
+                    }
+                }
+            }
         }
         return allPheromones;
     }
 
     public List<Pheromone> getPheromonesIn3x3(GridPoint2 centerGridPos, PheromoneType type) {
         List<Pheromone> pheromonesInArea = new ArrayList<>();
+        getPheromonesIn3x3(centerGridPos.x, centerGridPos.y, type, pheromonesInArea);
+        return pheromonesInArea;
+    }
+
+    /**
+     * Adds the pheromones of the given type in the 3x3 area around the grid
+     * coordinates to {@code result}, without allocating.
+     */
+    public void getPheromonesIn3x3(int centerX, int centerY, PheromoneType type, List<Pheromone> result) {
+        int localX = centerX & PheromoneChunk.MASK;
+        int localY = centerY & PheromoneChunk.MASK;
+        boolean insideChunk = localX > 0 && localX < PheromoneChunk.MASK
+                && localY > 0 && localY < PheromoneChunk.MASK;
+        // Most areas lie within one chunk, which then only needs to be found once
+        PheromoneChunk chunk = insideChunk ? findChunk(centerX, centerY) : null;
+        if (insideChunk && (chunk == null || chunk.getCount(type) == 0)) {
+            return;
+        }
 
         // Check all 9 cells in 3x3 grid (including center and all 8 neighbors)
         for (int dx = -1; dx <= 1; dx++) {
             for (int dy = -1; dy <= 1; dy++) {
-                GridPoint2 pos = new GridPoint2(centerGridPos.x + dx, centerGridPos.y + dy);
-                Map<PheromoneType, Pheromone> typeMap = pheromones.get(pos);
-                if (typeMap != null) {
-                    Pheromone pheromone = typeMap.get(type);
+                int x = centerX + dx;
+                int y = centerY + dy;
+                PheromoneChunk cellChunk = insideChunk ? chunk : findChunk(x, y);
+                if (cellChunk != null) {
+                    Pheromone pheromone = cellChunk.getView(type, PheromoneChunk.index(x, y));
                     if (pheromone != null) {
-                        pheromonesInArea.add(pheromone);
+                        result.add(pheromone);
                     }
                 }
             }
         }
-        return pheromonesInArea;
+    }
+
+    /**
+     * Brings the trail flow of a cell whose distance changed, and the bit that
+     * each of its neighbours has for it, up to date.
+     *
+     * @param distance the new distance of the cell, 0 if it was removed
+     */
+    private void updateFlow(int x, int y, PheromoneType type, int distance) {
+        int inward = 0;
+        int outward = 0;
+        for (int bit = 0; bit < TrailFlow.NEIGHBORS; bit++) {
+            int neighborX = x + TrailFlow.dx(bit);
+            int neighborY = y + TrailFlow.dy(bit);
+            PheromoneChunk neighborChunk = findChunk(neighborX, neighborY);
+            if (neighborChunk == null) {
+                continue;
+            }
+            int neighborIndex = PheromoneChunk.index(neighborX, neighborY);
+            int neighborDistance = neighborChunk.getDistance(type, neighborIndex);
+            if (neighborDistance == 0) {
+                continue;
+            }
+            if (neighborDistance < distance) {
+                inward |= 1 << bit;
+            } else if (distance != 0 && neighborDistance > distance) {
+                outward |= 1 << bit;
+            }
+
+            // The neighbour sees this cell from the opposite side
+            int mask = 1 << TrailFlow.opposite(bit);
+            int neighborFlow = neighborChunk.getFlow(type, neighborIndex);
+            int neighborInward = TrailFlow.inward(neighborFlow) & ~mask;
+            int neighborOutward = TrailFlow.outward(neighborFlow) & ~mask;
+            if (distance != 0 && distance < neighborDistance) {
+                neighborInward |= mask;
+            } else if (distance > neighborDistance) {
+                neighborOutward |= mask;
+            }
+            neighborChunk.setFlow(type, neighborIndex, TrailFlow.pack(neighborInward, neighborOutward));
+        }
+        if (distance != 0) {
+            findChunk(x, y).setFlow(type, PheromoneChunk.index(x, y), TrailFlow.pack(inward, outward));
+        }
+    }
+
+    /**
+     * @return the trail flow of a cell at the given distance, from the
+     *         distances of its neighbours
+     */
+    private int flowOf(int x, int y, PheromoneType type, int distance) {
+        int inward = 0;
+        int outward = 0;
+        for (int bit = 0; bit < TrailFlow.NEIGHBORS; bit++) {
+            int neighborDistance = getDistance(x + TrailFlow.dx(bit), y + TrailFlow.dy(bit), type);
+            if (neighborDistance == 0) {
+                continue;
+            }
+            if (neighborDistance < distance) {
+                inward |= 1 << bit;
+            } else if (neighborDistance > distance) {
+                outward |= 1 << bit;
+            }
+        }
+        return TrailFlow.pack(inward, outward);
+    }
+
+    PheromoneChunk findChunk(int x, int y) {
+        long key = key(x >> PheromoneChunk.SHIFT, y >> PheromoneChunk.SHIFT);
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+            PheromoneChunk chunk = table[slot];
+            if (chunk == null || keys[slot] == key) {
+                return chunk;
+            }
+        }
+    }
+
+    private PheromoneChunk getOrCreateChunk(int x, int y) {
+        PheromoneChunk chunk = findChunk(x, y);
+        if (chunk != null) {
+            return chunk;
+        }
+        // Keep the table at most half full so probes stay short
+        if ((chunks.size() + 1) * 2 > table.length) {
+            resize();
+        }
+        chunk = new PheromoneChunk(PheromoneChunk.SIZE * PheromoneChunk.SIZE, evaporation);
+        insert(key(x >> PheromoneChunk.SHIFT, y >> PheromoneChunk.SHIFT), chunk);
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        PheromoneChunk[] oldTable = table;
+        keys = new long[oldKeys.length * 2];
+        table = new PheromoneChunk[oldTable.length * 2];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != null) {
+                insert(oldKeys[i], oldTable[i]);
+            }
+        }
+    }
+
+    private void insert(long key, PheromoneChunk chunk) {
+        int mask = table.length - 1;
+        int slot = slot(key, mask);
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        table[slot] = chunk;
+    }
+
+    private static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
     }
 }
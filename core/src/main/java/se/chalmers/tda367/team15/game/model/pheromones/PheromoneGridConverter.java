@@ -22,9 +22,21 @@ public class PheromoneGridConverter {
      * @return Pheromone grid position
      */
     public GridPoint2 worldToPheromoneGrid(Vector2 worldPos) {
-        return new GridPoint2(
-                (int) Math.floor(worldPos.x / getPheromoneCellSize()),
-                (int) Math.floor(worldPos.y / getPheromoneCellSize()));
+        return new GridPoint2(worldToPheromoneGridX(worldPos.x), worldToPheromoneGridY(worldPos.y));
+    }
+
+    /**
+     * Converts a world x coordinate to a pheromone grid column.
+     */
+    public int worldToPheromoneGridX(float worldX) {
+        return (int) Math.floor(worldX / getPheromoneCellSize());
+    }
+
+    /**
+     * Converts a world y coordinate to a pheromone grid row.
+     */
+    public int worldToPheromoneGridY(float worldY) {
+        return (int) Math.floor(worldY / getPheromoneCellSize());
     }
 
     /**
@@ -35,9 +47,22 @@ public class PheromoneGridConverter {
      * @return World position (center of the pheromone cell)
      */
     public Vector2 pheromoneGridToWorld(GridPoint2 gridPos) {
-        return new Vector2(
-                gridPos.x * getPheromoneCellSize() + getPheromoneCellSize() / 2f,
-                gridPos.y * getPheromoneCellSize() + getPheromoneCellSize() / 2f);
+        return new Vector2(pheromoneGridToWorldX(gridPos.x), pheromoneGridToWorldY(gridPos.y));
+    }
+
+    /**
+     * Converts a pheromone grid column to the world x coordinate of the cell
+     * center.
+     */
+    public float pheromoneGridToWorldX(int gridX) {
+        return gridX * getPheromoneCellSize() + getPheromoneCellSize() / 2f;
+    }
+
+    /**
+     * Converts a pheromone grid row to the world y coordinate of the cell center.
+     */
+    public float pheromoneGridToWorldY(int gridY) {
+        return gridY * getPheromoneCellSize() + getPheromoneCellSize() / 2f;
     }
 
     /**
@@ -0,0 +1,99 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+/**
+ * The changes to the pheromones of a {@link PheromoneGrid}, in the order they
+ * happened: pheromones placed, removed or given a new distance.
+ *
+ * Each change is numbered, the version being the number of changes so far.
+ * Only the latest {@link #CAPACITY} changes are kept, in a ring, so a consumer
+ * that remembers the version it last saw can catch up with
+ * {@link #changesSince(long, ChangeListener)} as long as it is not too far
+ * behind, and otherwise has to look at the whole grid again.
+ */
+public final class PheromoneJournal {
+    public static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+
+    /**
+     * What a change did to its cell.
+     */
+    public enum ChangeKind {
+        ADDED, REMOVED, DISTANCE_CHANGED;
+
+        /**
+         * @return the kind of a change between the distances, 0 standing for no
+         *         pheromone
+         */
+        public static ChangeKind of(int oldDistance, int newDistance) {
+            if (oldDistance == 0) {
+                return ADDED;
+            }
+            return newDistance == 0 ? REMOVED : DISTANCE_CHANGED;
+        }
+    }
+
+    /**
+     * Told about each change a consumer has not seen yet.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * @param oldDistance the distance before the change, 0 if the pheromone
+         *                    was added
+         * @param newDistance the distance after the change, 0 if the pheromone
+         *                    was removed
+         */
+        void changed(int x, int y, PheromoneType type, int oldDistance, int newDistance);
+    }
+
+    private final long[] cells = new long[CAPACITY];
+    private final int[] oldDistances = new int[CAPACITY];
+    private final int[] newDistances = new int[CAPACITY];
+    private long version = 0;
+
+    void record(int x, int y, PheromoneType type, int oldDistance, int newDistance) {
+        if (oldDistance == newDistance) {
+            return;
+        }
+        int slot = (int) (version & MASK);
+        cells[slot] = CellKey.pack(x, y, type);
+        oldDistances[slot] = oldDistance;
+        newDistances[slot] = newDistance;
+        version++;
+    }
+
+    /**
+     * @return the number of changes recorded so far
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return whether all changes after the version are still kept
+     */
+    public boolean covers(long since) {
+        return since <= version && version - since <= CAPACITY;
+    }
+
+    /**
+     * Tells the listener about the changes after the given version, oldest
+     * first.
+     *
+     * @return false, without telling about any change, if they are no longer
+     *         all kept. The consumer then has to start over from the grid's
+     *         current pheromones.
+     */
+    public boolean changesSince(long since, ChangeListener listener) {
+        if (!covers(since)) {
+            return false;
+        }
+        for (long change = since; change < version; change++) {
+            int slot = (int) (change & MASK);
+            long cell = cells[slot];
+            listener.changed(CellKey.x(cell), CellKey.y(cell), CellKey.type(cell),
+                    oldDistances[slot], newDistances[slot]);
+        }
+        return true;
+    }
+}
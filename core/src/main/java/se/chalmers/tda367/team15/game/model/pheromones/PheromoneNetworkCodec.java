@@ -0,0 +1,270 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Reads and writes the pheromones of a {@link PheromoneGrid} in a compact
+ * binary format, for saving trail networks and loading fixed ones in tests and
+ * benchmarks.
+ *
+ * For every pheromone type the cells are listed row by row over their bounding
+ * box. Which cells hold a pheromone is stored as a run-length encoded bitmap,
+ * the lengths of the alternating runs of empty and placed cells, and the
+ * distances of the placed cells as the difference to the previous one in the
+ * same order. Along a trail those differences are mostly 1 or -1 and take a
+ * byte, and a trail along a row is a single run, so its cells take little more
+ * than that byte each. All numbers are written as variable-length integers,
+ * signed ones zigzag encoded.
+ *
+ * <pre>
+ * int     magic "PHNW"
+ * byte    format version
+ * byte    number of pheromone types, by ordinal
+ * for each type:
+ *   uvarint cell count, nothing more follows if 0
+ *   svarint left and bottom of the bounding box
+ *   uvarint width of the bounding box
+ *   uvarint run lengths, empty first, until all cells are placed
+ *   svarint distance differences, the first one to 0
+ * </pre>
+ */
+public final class PheromoneNetworkCodec {
+    private static final int MAGIC = 0x50484E57; // "PHNW"
+    private static final int VERSION = 1;
+    private static final PheromoneType[] TYPES = PheromoneType.values();
+
+    private PheromoneNetworkCodec() {
+    }
+
+    /**
+     * Writes all pheromones of the grid.
+     */
+    public static void write(PheromoneGrid grid, OutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeInt(bytes, MAGIC);
+        bytes.write(VERSION);
+        bytes.write(TYPES.length);
+        for (PheromoneType type : TYPES) {
+            writeType(grid, type, bytes);
+        }
+        bytes.writeTo(out);
+    }
+
+    private static void writeType(PheromoneGrid grid, PheromoneType type, ByteArrayOutputStream out) {
+        long[][] cells = { new long[64] };
+        int[] count = { 0 };
+        grid.forEachCell(type, (x, y, distance) -> {
+            if (count[0] == cells[0].length) {
+                cells[0] = Arrays.copyOf(cells[0], count[0] * 2);
+            }
+            cells[0][count[0]++] = sortKey(x, y);
+        });
+        long[] keys = cells[0];
+        int size = count[0];
+        writeUnsigned(out, size);
+        if (size == 0) {
+            return;
+        }
+        // Row by row, bottom to top
+        Arrays.sort(keys, 0, size);
+
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, keyX(keys[i]));
+            maxX = Math.max(maxX, keyX(keys[i]));
+        }
+        int minY = keyY(keys[0]);
+        long width = (long) maxX - minX + 1;
+        writeSigned(out, minX);
+        writeSigned(out, minY);
+        writeUnsigned(out, width);
+
+        // Runs of empty and placed cells, each run of placed cells preceded by
+        // the empty run before it
+        long next = 0;
+        int i = 0;
+        while (i < size) {
+            long start = position(keys[i], minX, minY, width);
+            int run = 1;
+            while (i + run < size && position(keys[i + run], minX, minY, width) == start + run) {
+                run++;
+            }
+            writeUnsigned(out, start - next);
+            writeUnsigned(out, run);
+            next = start + run;
+            i += run;
+        }
+
+        int previous = 0;
+        for (i = 0; i < size; i++) {
+            int distance = grid.getDistance(keyX(keys[i]), keyY(keys[i]), type);
+            writeSigned(out, distance - previous);
+            previous = distance;
+        }
+    }
+
+    /**
+     * Reads pheromones written by {@link #write} into the grid in one pass per
+     * type. The distances are taken as they were saved.
+     *
+     * @param grid a grid without pheromones of the types in the data
+     * @throws IOException if the data is not a pheromone network or is cut
+     *                     short
+     */
+    public static void read(InputStream in, PheromoneGrid grid) throws IOException {
+        Reader reader = new Reader(in.readAllBytes());
+        if (reader.remaining() < 6 || reader.readInt() != MAGIC) {
+            throw new IOException("not a pheromone network");
+        }
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported pheromone network version " + version);
+        }
+        int typeCount = reader.readByte();
+        if (typeCount > TYPES.length) {
+            throw new IOException("pheromone network has " + typeCount + " types, expected at most "
+                    + TYPES.length);
+        }
+        for (int t = 0; t < typeCount; t++) {
+            readType(reader, TYPES[t], grid);
+        }
+    }
+
+    private static void readType(Reader in, PheromoneType type, PheromoneGrid grid) throws IOException {
+        long size = in.readUnsigned();
+        if (size == 0) {
+            return;
+        }
+        // Every cell takes at least one byte, which bounds what a corrupt count
+        // can make us allocate
+        if (size > in.remaining()) {
+            throw new IOException("corrupt pheromone network: " + size + " " + type + " cells");
+        }
+        int count = (int) size;
+        int minX = (int) in.readSigned();
+        int minY = (int) in.readSigned();
+        long width = in.readUnsigned();
+        if (width <= 0) {
+            throw new IOException("corrupt pheromone network: empty bounding box");
+        }
+
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        int[] distances = new int[count];
+        long position = 0;
+        int placed = 0;
+        while (placed < count) {
+            long gap = in.readUnsigned();
+            long run = in.readUnsigned();
+            if (run <= 0 || run > count - placed) {
+                throw new IOException("corrupt pheromone network: run of " + run + " " + type + " cells");
+            }
+            if (gap < 0 || gap > Long.MAX_VALUE - position - run) {
+                throw new IOException("corrupt pheromone network: gap of " + gap + " cells");
+            }
+            position += gap;
+            for (long end = position + run; position < end; position++) {
+                xs[placed] = (int) (minX + position % width);
+                ys[placed] = (int) (minY + position / width);
+                placed++;
+            }
+        }
+
+        int distance = 0;
+        for (int i = 0; i < count; i++) {
+            distance += (int) in.readSigned();
+            if (distance <= 0) {
+                throw new IOException("corrupt pheromone network: distance " + distance);
+            }
+            distances[i] = distance;
+        }
+        grid.placeAll(type, count, xs, ys, distances);
+    }
+
+    private static long sortKey(int x, int y) {
+        return ((long) y << 32) | ((x ^ Integer.MIN_VALUE) & 0xffffffffL);
+    }
+
+    private static int keyX(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    private static int keyY(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * @return the index of the cell counted row by row over the bounding box
+     */
+    private static long position(long key, int minX, int minY, long width) {
+        return ((long) keyY(key) - minY) * width + ((long) keyX(key) - minX);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Reads the numbers back from the bytes of a network.
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int offset = 0;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int remaining() {
+            return data.length - offset;
+        }
+
+        int readByte() throws IOException {
+            if (offset == data.length) {
+                throw new IOException("pheromone network is cut short");
+            }
+            return data[offset++] & 0xff;
+        }
+
+        int readInt() throws IOException {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        long readUnsigned() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("corrupt pheromone network: number too long");
+        }
+
+        long readSigned() throws IOException {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+/**
+ * A trail being drawn in one go, such as a drag of the mouse.
+ *
+ * Cells are placed as they are added, as long as they connect to the colony,
+ * an existing trail of the same type or the cells added before them. Shorter
+ * paths the new cells open up through the existing trails are only spread
+ * once, in {@link #commit()}, instead of once per cell.
+ */
+public interface PheromoneStroke {
+    /**
+     * Adds the cells on a line from where the stroke last reached to the end,
+     * using strictly adjacent (non-diagonal) steps. The first call only adds the
+     * end cell.
+     *
+     * @return the last cell the stroke reached, the line stops early at a cell
+     *         that does not connect to anything
+     */
+    GridPoint2 lineTo(GridPoint2 end);
+
+    /**
+     * Finishes the stroke, updating the distances of all pheromones reachable
+     * from its cells in a single pass. Cells can no longer be added afterwards.
+     */
+    void commit();
+}
@@ -1,7 +1,34 @@
 package se.chalmers.tda367.team15.game.model.pheromones;
 
+import java.util.Collection;
+
 public enum PheromoneType {
     GATHER,
     ATTACK,
-    EXPLORE
+    EXPLORE;
+
+    /**
+     * @return the bit representing this type in a type mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @return whether the type is included in the type mask
+     */
+    public boolean isIn(int typeMask) {
+        return (typeMask & bit()) != 0;
+    }
+
+    /**
+     * @return a type mask with the bits of the given types set
+     */
+    public static int maskOf(Collection<PheromoneType> types) {
+        int mask = 0;
+        for (PheromoneType type : types) {
+            mask |= type.bit();
+        }
+        return mask;
+    }
 }
@@ -0,0 +1,15 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+/**
+ * What happens to the trail behind a removed pheromone.
+ */
+public enum RemovalMode {
+    /** Remove every pheromone of the type further down the trail */
+    CASCADE,
+    /**
+     * Keep the pheromones further down the trail that still connect to the
+     * colony another way, with their distances recomputed along that way, and
+     * remove only those that no longer connect
+     */
+    REROOT
+}
@@ -0,0 +1,155 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import java.util.Arrays;
+
+/**
+ * A hierarchical timing wheel of {@code long} entries keyed by tick.
+ *
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. A slot on the
+ * lowest level holds the entries due on one tick, a slot one level up the
+ * entries due within a block of {@value #SLOTS} times as many ticks, and so on.
+ * When time enters a block, the entries of its slot are moved down to the
+ * level below, so every entry is moved at most once per level. Scheduling is
+ * constant time and advancing a tick only touches the entries that are due or
+ * moved, never the ones waiting further ahead.
+ *
+ * Entries further ahead than the top level reaches wait in its last slot and
+ * are placed again when that slot comes up.
+ */
+final class TimingWheel {
+    static final int LEVELS = 4;
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    // Entries of each slot as parallel deadline and payload arrays, indexed by
+    // level * SLOTS + slot
+    private final long[][] deadlines = new long[LEVELS * SLOTS][];
+    private final long[][] payloads = new long[LEVELS * SLOTS][];
+    private final int[] sizes = new int[LEVELS * SLOTS];
+    private long now;
+    private int size;
+
+    // Payloads of the entries that came due on the last advance
+    private long[] due = new long[16];
+    private int dueCount;
+    // Holds the entries of a slot while they are placed again
+    private long[] movingDeadlines = new long[16];
+    private long[] movingPayloads = new long[16];
+
+    /**
+     * @return the current tick, starting at 0
+     */
+    long now() {
+        return now;
+    }
+
+    /**
+     * @return the number of entries in the wheel
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules an entry. Entries for the current tick or earlier come due on
+     * the next advance.
+     */
+    void schedule(long deadline, long payload) {
+        insert(Math.max(deadline, now + 1), payload);
+        size++;
+    }
+
+    /**
+     * Moves on to the next tick, collecting the payloads of the entries due on
+     * it, which are removed from the wheel.
+     *
+     * @return the number of due entries, read with {@link #due(int)}
+     */
+    int advance() {
+        now++;
+        // Higher levels first, so entries they move down to a slot that also
+        // comes up now are moved on in the same tick
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = level * SLOT_BITS;
+            if ((now & ((1L << shift) - 1)) == 0) {
+                cascade(level * SLOTS + (int) ((now >>> shift) & SLOT_MASK));
+            }
+        }
+
+        int slot = (int) (now & SLOT_MASK);
+        int count = sizes[slot];
+        if (due.length < count) {
+            due = new long[Math.max(count, due.length * 2)];
+        }
+        if (count > 0) {
+            System.arraycopy(payloads[slot], 0, due, 0, count);
+            sizes[slot] = 0;
+            size -= count;
+        }
+        dueCount = count;
+        return count;
+    }
+
+    /**
+     * @return the payload of the i-th entry that came due on the last advance
+     */
+    long due(int i) {
+        if (i >= dueCount) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return due[i];
+    }
+
+    private void cascade(int slot) {
+        int count = sizes[slot];
+        if (count == 0) {
+            return;
+        }
+        if (movingDeadlines.length < count) {
+            movingDeadlines = new long[Math.max(count, movingDeadlines.length * 2)];
+            movingPayloads = new long[movingDeadlines.length];
+        }
+        System.arraycopy(deadlines[slot], 0, movingDeadlines, 0, count);
+        System.arraycopy(payloads[slot], 0, movingPayloads, 0, count);
+        sizes[slot] = 0;
+        for (int i = 0; i < count; i++) {
+            insert(movingDeadlines[i], movingPayloads[i]);
+        }
+    }
+
+    private void insert(long deadline, long payload) {
+        int slot = -1;
+        if (deadline - now < SLOTS) {
+            slot = (int) (deadline & SLOT_MASK);
+        } else {
+            for (int level = 1; level < LEVELS; level++) {
+                int shift = level * SLOT_BITS;
+                if ((deadline >>> shift) - (now >>> shift) < SLOTS) {
+                    slot = level * SLOTS + (int) ((deadline >>> shift) & SLOT_MASK);
+                    break;
+                }
+            }
+        }
+        if (slot == -1) {
+            // Beyond the top level, wait in the slot that comes up last
+            int shift = (LEVELS - 1) * SLOT_BITS;
+            slot = (LEVELS - 1) * SLOTS + (int) (((now >>> shift) + SLOTS - 1) & SLOT_MASK);
+        }
+        add(slot, deadline, payload);
+    }
+
+    private void add(int slot, long deadline, long payload) {
+        int count = sizes[slot];
+        if (deadlines[slot] == null) {
+            deadlines[slot] = new long[4];
+            payloads[slot] = new long[4];
+        } else if (deadlines[slot].length == count) {
+            deadlines[slot] = Arrays.copyOf(deadlines[slot], count * 2);
+            payloads[slot] = Arrays.copyOf(payloads[slot], count * 2);
+        }
+        deadlines[slot][count] = deadline;
+        payloads[slot][count] = payload;
+        sizes[slot] = count + 1;
+    }
+}
@@ -0,0 +1,70 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import java.util.Random;
+
+/**
+ * Layout of the trail flow kept for every pheromone cell: which of the 8
+ * neighbouring cells hold a pheromone of the same type closer to the colony
+ * (inward) and which hold one further away from it (outward).
+ *
+ * Both are 8 bit masks packed into one int, bit {@code i} standing for the
+ * neighbour at offset ({@link #dx(int)}, {@link #dy(int)}). The neighbours are
+ * numbered in the same order as 3x3 queries visit them, so picking the n-th set
+ * bit picks the same cell as picking the n-th matching query result.
+ */
+public final class TrailFlow {
+    public static final int NEIGHBORS = 8;
+
+    private static final int[] DX = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] DY = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final int OUTWARD_SHIFT = 8;
+
+    private TrailFlow() {
+    }
+
+    /**
+     * @return the neighbours closer to the colony, from a packed flow
+     */
+    public static int inward(int flow) {
+        return flow & 0xff;
+    }
+
+    /**
+     * @return the neighbours further from the colony, from a packed flow
+     */
+    public static int outward(int flow) {
+        return (flow >>> OUTWARD_SHIFT) & 0xff;
+    }
+
+    static int pack(int inward, int outward) {
+        return inward | (outward << OUTWARD_SHIFT);
+    }
+
+    public static int dx(int bit) {
+        return DX[bit];
+    }
+
+    public static int dy(int bit) {
+        return DY[bit];
+    }
+
+    /**
+     * @return the bit under which the cell at {@code bit} sees this cell
+     */
+    static int opposite(int bit) {
+        return NEIGHBORS - 1 - bit;
+    }
+
+    /**
+     * Picks one of the set bits of a non-empty mask, each with equal chance.
+     *
+     * @return the index of the picked bit
+     */
+    public static int pickBit(int mask, Random random) {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,38 @@
+package se.chalmers.tda367.team15.game.model.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event with the timings of one observer over one profiling
+ * window, committed by {@link TickProfiler}.
+ */
+@Name("se.chalmers.tda367.team15.game.ObserverTiming")
+@Label("Observer Timing")
+@Category({ "Unite The Ants", "Simulation" })
+@Description("Time spent in a simulation observer or time callback during one profiling window")
+@StackTrace(false)
+class ObserverTimingEvent extends Event {
+    @Label("Observer")
+    String observer;
+
+    @Label("Calls")
+    long calls;
+
+    @Label("Median")
+    @Timespan(Timespan.NANOSECONDS)
+    long p50;
+
+    @Label("99th Percentile")
+    @Timespan(Timespan.NANOSECONDS)
+    long p99;
+
+    @Label("Maximum")
+    @Timespan(Timespan.NANOSECONDS)
+    long max;
+}
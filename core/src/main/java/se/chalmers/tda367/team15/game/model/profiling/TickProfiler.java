@@ -0,0 +1,105 @@
+package se.chalmers.tda367.team15.game.model.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects how long each simulation observer and time callback takes.
+ *
+ * Durations are recorded into one {@link TimingHistogram} per name. Every
+ * window of ticks the histograms are summarised, committed as flight recorder
+ * events and started over, so the summary always describes the recent past.
+ *
+ * Recording and {@link #endTick()} must be called from the thread that drives
+ * the simulation, {@link #getLatest()} may be called from any thread.
+ */
+public class TickProfiler {
+    // One second of ticks at normal speed
+    public static final int DEFAULT_WINDOW_TICKS = 100;
+
+    private final int windowTicks;
+    private final Map<String, TimingHistogram> histograms = new LinkedHashMap<>();
+    private int ticksInWindow = 0;
+    private volatile List<TimingSummary> latest = List.of();
+
+    public TickProfiler() {
+        this(DEFAULT_WINDOW_TICKS);
+    }
+
+    /**
+     * @param windowTicks how many ticks each summary covers
+     */
+    public TickProfiler(int windowTicks) {
+        if (windowTicks <= 0) {
+            throw new IllegalArgumentException("window must be at least one tick");
+        }
+        this.windowTicks = windowTicks;
+    }
+
+    /**
+     * @return the histogram that durations for the given name are recorded in.
+     *         Callers should keep it instead of looking it up on every call.
+     */
+    public TimingHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new TimingHistogram());
+    }
+
+    /**
+     * @return the name timings of the object are shown under, its class name
+     */
+    public static String nameOf(Object timed) {
+        Class<?> type = timed.getClass();
+        return type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+    }
+
+    /**
+     * Marks the end of a tick, summarising the window once it is full.
+     */
+    public void endTick() {
+        ticksInWindow++;
+        if (ticksInWindow >= windowTicks) {
+            closeWindow();
+        }
+    }
+
+    /**
+     * @return the summary of the last complete window, in the order the names
+     *         were first used. Empty until the first window is complete.
+     */
+    public List<TimingSummary> getLatest() {
+        return latest;
+    }
+
+    private void closeWindow() {
+        List<TimingSummary> summaries = new ArrayList<>(histograms.size());
+        for (Map.Entry<String, TimingHistogram> entry : histograms.entrySet()) {
+            TimingHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            TimingSummary summary = new TimingSummary(entry.getKey(), histogram.getCount(),
+                    histogram.getPercentile(0.5), histogram.getPercentile(0.99), histogram.getMax());
+            summaries.add(summary);
+            commitEvent(summary);
+            histogram.reset();
+        }
+        latest = Collections.unmodifiableList(summaries);
+        ticksInWindow = 0;
+    }
+
+    private void commitEvent(TimingSummary summary) {
+        ObserverTimingEvent event = new ObserverTimingEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.observer = summary.name();
+        event.calls = summary.calls();
+        event.p50 = summary.p50Nanos();
+        event.p99 = summary.p99Nanos();
+        event.max = summary.maxNanos();
+        event.commit();
+    }
+}
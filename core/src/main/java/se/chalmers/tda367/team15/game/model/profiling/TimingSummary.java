@@ -0,0 +1,14 @@
+package se.chalmers.tda367.team15.game.model.profiling;
+
+/**
+ * Timings of one observer or callback over one profiling window.
+ *
+ * @param name      what was timed, for example "EntityManager" or
+ *                  "EggManager.onMinute"
+ * @param calls     how often it ran during the window
+ * @param p50Nanos  median duration of a call
+ * @param p99Nanos  99th percentile duration of a call
+ * @param maxNanos  longest call
+ */
+public record TimingSummary(String name, long calls, long p50Nanos, long p99Nanos, long maxNanos) {
+}
@@ -0,0 +1,60 @@
+package se.chalmers.tda367.team15.game.model.snapshot;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands snapshots from the simulation thread to the render thread without
+ * locking.
+ *
+ * Three snapshots rotate between the writer, the reader and a shared slot in
+ * the middle. The writer fills its own snapshot and swaps it into the shared
+ * slot, the reader swaps its snapshot for the shared one when that is newer.
+ * Neither side ever waits for the other, and a snapshot is never written to
+ * while the reader holds it.
+ *
+ * {@link #write()} and {@link #publish()} may only be called from one thread,
+ * {@link #latest()} from one other thread.
+ */
+public class SnapshotBuffer {
+    private final AtomicReference<WorldSnapshot> shared = new AtomicReference<>(new WorldSnapshot());
+    private WorldSnapshot writing = new WorldSnapshot();
+    // Volatile so the writer can see which snapshot the reader holds
+    private volatile WorldSnapshot reading = new WorldSnapshot();
+    private long sequence = 0;
+
+    /**
+     * @return the snapshot to fill before the next {@link #publish()}
+     */
+    public WorldSnapshot write() {
+        return writing;
+    }
+
+    /**
+     * Makes the snapshot returned by {@link #write()} available to the reader.
+     */
+    public void publish() {
+        writing.sequence = ++sequence;
+        writing = shared.getAndSet(writing);
+    }
+
+    /**
+     * @return the snapshot the reader currently holds. The writer may read what
+     *         it wrote into it, but must not change it.
+     */
+    WorldSnapshot held() {
+        return reading;
+    }
+
+    /**
+     * @return the most recently published snapshot, or an empty one if nothing
+     *         has been published yet
+     */
+    public WorldSnapshot latest() {
+        // Only the writer changes the shared slot meanwhile, and only to a newer
+        // snapshot, so the swap can never go backwards
+        if (shared.get().sequence > reading.sequence) {
+            reading = shared.getAndSet(reading);
+        }
+        return reading;
+    }
+}
@@ -0,0 +1,171 @@
+package se.chalmers.tda367.team15.game.model.snapshot;
+
+import java.util.Arrays;
+import java.util.List;
+
+import se.chalmers.tda367.team15.game.model.TimeCycle;
+import se.chalmers.tda367.team15.game.model.entity.Entity;
+import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
+import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
+import se.chalmers.tda367.team15.game.model.interfaces.GameObject;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.ColonyDataProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.EggProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.SimulationProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.StructureProvider;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
+import se.chalmers.tda367.team15.game.model.managers.egg.Egg;
+import se.chalmers.tda367.team15.game.model.managers.fog.FogProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneJournal;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.structure.Structure;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
+
+/**
+ * Copies the state the renderer needs into a {@link WorldSnapshot} and hands it
+ * to the render thread through a {@link SnapshotBuffer}.
+ */
+public class SnapshotPublisher {
+    private final SnapshotBuffer buffer = new SnapshotBuffer();
+    private final SimulationProvider simulationProvider;
+    private final StructureProvider structureProvider;
+    private final EntityQuery entityQuery;
+    private final PheromoneUsageProvider pheromoneUsageProvider;
+    private final FogProvider fogProvider;
+    private final ColonyDataProvider colonyDataProvider;
+    private final TimeCycleDataProvider timeProvider;
+    private final EggProvider eggProvider;
+    // Copies journal changes into the snapshot being written
+    private final PheromoneJournal.ChangeListener pheromoneChangeCopier = (x, y, type, oldDistance,
+            newDistance) -> addPheromoneChange(buffer.write(), x, y, type, newDistance);
+
+    public SnapshotPublisher(SimulationProvider simulationProvider, StructureProvider structureProvider,
+            EntityQuery entityQuery, PheromoneUsageProvider pheromoneUsageProvider, FogProvider fogProvider,
+            ColonyDataProvider colonyDataProvider, TimeCycleDataProvider timeProvider, EggProvider eggProvider) {
+        this.simulationProvider = simulationProvider;
+        this.structureProvider = structureProvider;
+        this.entityQuery = entityQuery;
+        this.pheromoneUsageProvider = pheromoneUsageProvider;
+        this.fogProvider = fogProvider;
+        this.colonyDataProvider = colonyDataProvider;
+        this.timeProvider = timeProvider;
+        this.eggProvider = eggProvider;
+    }
+
+    /**
+     * Takes a snapshot of the current state. Must be called from the thread that
+     * drives the simulation, while no tick is running.
+     */
+    public void publish() {
+        WorldSnapshot snapshot = buffer.write();
+        snapshot.tick = simulationProvider.getTickCount();
+        copyDrawables(snapshot);
+        copyPheromones(snapshot);
+        snapshot.fogVersion = fogProvider.getVersion();
+
+        snapshot.colonyAnts = colonyDataProvider.getAnts().size();
+        snapshot.totalAnts = entityQuery.getEntitiesOfType(Ant.class).size();
+        snapshot.food = colonyDataProvider.getTotalResources(ResourceType.FOOD);
+        snapshot.consumption = colonyDataProvider.getConsumption();
+        snapshot.colonyDead = colonyDataProvider.getIsDead();
+        snapshot.load = simulationProvider.getLoad();
+        snapshot.timings = simulationProvider.getTimings();
+
+        TimeCycle.GameTime time = timeProvider.getGameTime();
+        snapshot.day = timeProvider.getIsDay();
+        snapshot.dayNumber = time.totalDays();
+        snapshot.hour = time.currentHour();
+        snapshot.minute = time.currentMinute();
+        copyEggs(snapshot);
+
+        buffer.publish();
+    }
+
+    /**
+     * @return the latest published snapshot. Must always be called from the same
+     *         thread, usually the render thread.
+     */
+    public WorldSnapshot latest() {
+        return buffer.latest();
+    }
+
+    private void copyDrawables(WorldSnapshot snapshot) {
+        List<Structure> structures = structureProvider.getStructures();
+        List<Entity> entities = entityQuery.getEntitiesOfType(Entity.class);
+        int previousCount = snapshot.drawableCount;
+        snapshot.ensureDrawableCapacity(structures.size() + entities.size());
+
+        int count = 0;
+        // getPosition() and getSize() create a vector on every call, so copy
+        // through the primitive accessors instead
+        for (int i = 0; i < structures.size(); i++) {
+            Structure structure = structures.get(i);
+            copyDrawable(snapshot, count++, structure, structure.getX(), structure.getY());
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            copyDrawable(snapshot, count++, entity, entity.getX(), entity.getY());
+        }
+        snapshot.drawableCount = count;
+
+        // Do not keep removed entities alive through the reused array
+        if (previousCount > count) {
+            Arrays.fill(snapshot.drawables, count, previousCount, null);
+        }
+    }
+
+    private void copyDrawable(WorldSnapshot snapshot, int i, GameObject drawable, float x, float y) {
+        snapshot.drawables[i] = drawable;
+        snapshot.x[i] = x;
+        snapshot.y[i] = y;
+        snapshot.width[i] = drawable.getWidth();
+        snapshot.height[i] = drawable.getHeight();
+        snapshot.rotation[i] = drawable.getRotation();
+    }
+
+    private void copyEggs(WorldSnapshot snapshot) {
+        int previousCount = snapshot.eggCount;
+        int count = 0;
+        for (Egg egg : eggProvider.getEggs()) {
+            snapshot.ensureEggCapacity(count + 1);
+            snapshot.eggTypeIds[count] = egg.getTypeId();
+            snapshot.eggProgress[count] = egg.getProgress();
+            count++;
+        }
+        snapshot.eggCount = count;
+        if (previousCount > count) {
+            Arrays.fill(snapshot.eggTypeIds, count, previousCount, null);
+        }
+    }
+
+    /**
+     * Copies the pheromone cells changed since the snapshot the reader holds.
+     * The reader has seen that one, and snapshots are taken in order, so these
+     * cover everything it has not seen yet. When the journal no longer goes
+     * back that far, all pheromones are copied instead.
+     */
+    private void copyPheromones(WorldSnapshot snapshot) {
+        PheromoneJournal journal = pheromoneUsageProvider.getJournal();
+        snapshot.pheromoneVersion = journal.getVersion();
+        snapshot.pheromoneChangeCount = 0;
+        snapshot.pheromoneResync = !journal.changesSince(buffer.held().pheromoneVersion, pheromoneChangeCopier);
+
+        if (snapshot.pheromoneResync) {
+            for (Pheromone pheromone : pheromoneUsageProvider.getPheromones()) {
+                addPheromoneChange(snapshot, pheromone.getPosition().x, pheromone.getPosition().y,
+                        pheromone.getType(), pheromone.getDistance());
+            }
+        }
+    }
+
+    private void addPheromoneChange(WorldSnapshot snapshot, int x, int y, PheromoneType type, int distance) {
+        int i = snapshot.pheromoneChangeCount;
+        snapshot.ensurePheromoneCapacity(i + 1);
+        snapshot.pheromoneX[i] = x;
+        snapshot.pheromoneY[i] = y;
+        snapshot.pheromoneTypes[i] = type;
+        snapshot.pheromoneDistances[i] = distance;
+        snapshot.pheromoneChangeCount = i + 1;
+    }
+}
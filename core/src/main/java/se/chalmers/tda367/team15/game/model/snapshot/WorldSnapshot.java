@@ -0,0 +1,254 @@
+package se.chalmers.tda367.team15.game.model.snapshot;
+
+import java.util.Arrays;
+import java.util.List;
+
+import se.chalmers.tda367.team15.game.model.SimulationLoad;
+import se.chalmers.tda367.team15.game.model.interfaces.GameObject;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.profiling.TimingSummary;
+
+/**
+ * What the renderer needs to draw one frame, copied out of the simulation at
+ * the end of a tick.
+ *
+ * A snapshot is filled by {@link SnapshotPublisher} on the simulation thread
+ * and does not change while the render thread holds it, see
+ * {@link SnapshotBuffer}. Instances are reused, so they should not be kept
+ * around after the next call to {@link SnapshotBuffer#latest()}.
+ */
+public class WorldSnapshot {
+    long sequence = 0;
+    long tick = 0;
+
+    int drawableCount = 0;
+    GameObject[] drawables = new GameObject[0];
+    float[] x = new float[0];
+    float[] y = new float[0];
+    float[] width = new float[0];
+    float[] height = new float[0];
+    float[] rotation = new float[0];
+
+    // Pheromone cells changed since the snapshot the reader held when this one
+    // was published, in the order they changed
+    long pheromoneVersion = 0;
+    boolean pheromoneResync = false;
+    int pheromoneChangeCount = 0;
+    int[] pheromoneX = new int[0];
+    int[] pheromoneY = new int[0];
+    PheromoneType[] pheromoneTypes = new PheromoneType[0];
+    int[] pheromoneDistances = new int[0];
+
+    long fogVersion = -1;
+
+    int colonyAnts = 0;
+    int totalAnts = 0;
+    int food = 0;
+    int consumption = 0;
+    boolean colonyDead = false;
+
+    boolean day = true;
+    int dayNumber = 1;
+    int hour = 0;
+    int minute = 0;
+
+    // Type and progress of each egg
+    int eggCount = 0;
+    String[] eggTypeIds = new String[0];
+    float[] eggProgress = new float[0];
+
+    SimulationLoad load = SimulationLoad.IDLE;
+    List<TimingSummary> timings = List.of();
+
+    /**
+     * @return the tick the snapshot was taken after
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public int getDrawableCount() {
+        return drawableCount;
+    }
+
+    /**
+     * The object drawn at the index. Only meant for choosing its texture, its
+     * position, size and rotation should be read from the snapshot.
+     */
+    public GameObject getDrawable(int i) {
+        return drawables[i];
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public float getWidth(int i) {
+        return width[i];
+    }
+
+    public float getHeight(int i) {
+        return height[i];
+    }
+
+    public float getRotation(int i) {
+        return rotation[i];
+    }
+
+    /**
+     * @return the version of the pheromone journal the snapshot is up to date
+     *         with, the pheromone changes only need to be applied when it differs
+     *         from the last snapshot's
+     */
+    public long getPheromoneVersion() {
+        return pheromoneVersion;
+    }
+
+    /**
+     * @return whether the pheromone changes list every pheromone instead of the
+     *         changed cells, so anything not in them should be cleared first
+     */
+    public boolean isPheromoneResync() {
+        return pheromoneResync;
+    }
+
+    /**
+     * The number of pheromone cells changed since the snapshot before, as long
+     * as every snapshot taken from the buffer has been looked at.
+     */
+    public int getPheromoneChangeCount() {
+        return pheromoneChangeCount;
+    }
+
+    /** The changed cell's x position in pheromone grid coordinates */
+    public int getPheromoneX(int i) {
+        return pheromoneX[i];
+    }
+
+    /** The changed cell's y position in pheromone grid coordinates */
+    public int getPheromoneY(int i) {
+        return pheromoneY[i];
+    }
+
+    public PheromoneType getPheromoneType(int i) {
+        return pheromoneTypes[i];
+    }
+
+    /** The changed cell's distance, 0 if its pheromone was removed */
+    public int getPheromoneDistance(int i) {
+        return pheromoneDistances[i];
+    }
+
+    /**
+     * Changes whenever more of the map has been revealed. The discovered tiles
+     * themselves are read from the fog provider, since they are only ever
+     * revealed.
+     */
+    public long getFogVersion() {
+        return fogVersion;
+    }
+
+    public int getColonyAnts() {
+        return colonyAnts;
+    }
+
+    public int getTotalAnts() {
+        return totalAnts;
+    }
+
+    public int getFood() {
+        return food;
+    }
+
+    public int getConsumption() {
+        return consumption;
+    }
+
+    public boolean isColonyDead() {
+        return colonyDead;
+    }
+
+    /**
+     * @return whether it is day, the map is darkened at night
+     */
+    public boolean isDay() {
+        return day;
+    }
+
+    /**
+     * @return the day of the game, counted from 1
+     */
+    public int getDayNumber() {
+        return dayNumber;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public int getMinute() {
+        return minute;
+    }
+
+    public int getEggCount() {
+        return eggCount;
+    }
+
+    /** The id of the ant type the egg hatches into */
+    public String getEggTypeId(int i) {
+        return eggTypeIds[i];
+    }
+
+    /** How far the egg has developed, from 0 to 1 */
+    public float getEggProgress(int i) {
+        return eggProgress[i];
+    }
+
+    public SimulationLoad getLoad() {
+        return load;
+    }
+
+    /**
+     * @return per-observer timings of the last profiling window
+     */
+    public List<TimingSummary> getTimings() {
+        return timings;
+    }
+
+    void ensureDrawableCapacity(int capacity) {
+        if (drawables.length >= capacity) {
+            return;
+        }
+        capacity = Math.max(capacity, drawables.length * 2);
+        drawables = Arrays.copyOf(drawables, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+    }
+
+    void ensureEggCapacity(int capacity) {
+        if (eggTypeIds.length >= capacity) {
+            return;
+        }
+        capacity = Math.max(capacity, eggTypeIds.length * 2);
+        eggTypeIds = Arrays.copyOf(eggTypeIds, capacity);
+        eggProgress = Arrays.copyOf(eggProgress, capacity);
+    }
+
+    void ensurePheromoneCapacity(int capacity) {
+        if (pheromoneX.length >= capacity) {
+            return;
+        }
+        capacity = Math.max(capacity, pheromoneX.length * 2);
+        pheromoneX = Arrays.copyOf(pheromoneX, capacity);
+        pheromoneY = Arrays.copyOf(pheromoneY, capacity);
+        pheromoneTypes = Arrays.copyOf(pheromoneTypes, capacity);
+        pheromoneDistances = Arrays.copyOf(pheromoneDistances, capacity);
+    }
+}
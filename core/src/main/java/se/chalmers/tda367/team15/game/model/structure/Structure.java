@@ -29,8 +29,23 @@ public abstract class Structure implements GameObject, SimulationObserver, HasPo
     }
 
     @Override
-    public Vector2 getSize() {
-        return new Vector2(size, size);
+    public float getX() {
+        return position.x;
+    }
+
+    @Override
+    public float getY() {
+        return position.y;
+    }
+
+    @Override
+    public float getWidth() {
+        return size;
+    }
+
+    @Override
+    public float getHeight() {
+        return size;
     }
 
     public Faction getFaction() {
@@ -11,6 +11,12 @@ public interface MapProvider {
     /** Converts a world position to the closest tile */
     GridPoint2 worldToTile(Vector2 worldPos);
 
+    /** The tile column containing the given world x coordinate */
+    int worldToTileX(float worldX);
+
+    /** The tile row containing the given world y coordinate */
+    int worldToTileY(float worldY);
+
     /** Converts tile coordinates to the center of the tile in world coordinates */
     Vector2 tileToWorld(GridPoint2 tilePos);
 
@@ -20,6 +26,9 @@ public interface MapProvider {
     /** Checks if a position is within the map bounds */
     boolean isInBounds(GridPoint2 tilePos);
 
+    /** Checks if a tile position is within the map bounds */
+    boolean isInBounds(int tileX, int tileY);
+
     /** Gets the size of the map */
     GridPoint2 getSize();
 
@@ -29,5 +38,8 @@ public interface MapProvider {
     /** Gets the tile at the given world position */
     Tile getTile(Vector2 worldPos);
 
+    /** Gets the tile at the given tile position, or null if out of bounds */
+    Tile getTile(int tileX, int tileY);
+
     List<StructureSpawn> getStructureSpawns();
 }
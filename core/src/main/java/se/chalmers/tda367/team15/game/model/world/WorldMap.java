@@ -43,30 +43,42 @@ public class WorldMap implements MapProvider {
     }
 
     public Tile getTile(Vector2 worldPos) {
-        GridPoint2 tilePos = worldToTile(worldPos);
-        return getTile(tilePos);
+        return getTile(worldToTileX(worldPos.x), worldToTileY(worldPos.y));
     }
 
     public Tile getTile(GridPoint2 pos) {
-        if (!isInBounds(pos)) {
+        return getTile(pos.x, pos.y);
+    }
+
+    public Tile getTile(int tileX, int tileY) {
+        if (!isInBounds(tileX, tileY)) {
             return null;
         }
-        return tiles[pos.x][pos.y];
+        return tiles[tileX][tileY];
     }
 
     public boolean isInBounds(Vector2 worldPos) {
-        GridPoint2 tilePos = worldToTile(worldPos);
-        return isInBounds(tilePos);
+        return isInBounds(worldToTileX(worldPos.x), worldToTileY(worldPos.y));
     }
 
     public boolean isInBounds(GridPoint2 pos) {
-        return pos.x >= 0 && pos.x < width && pos.y >= 0 && pos.y < height;
+        return isInBounds(pos.x, pos.y);
+    }
+
+    public boolean isInBounds(int tileX, int tileY) {
+        return tileX >= 0 && tileX < width && tileY >= 0 && tileY < height;
     }
 
     public GridPoint2 worldToTile(Vector2 worldPos) {
-        return new GridPoint2(
-                (int) Math.floor(worldPos.x) + width / 2,
-                (int) Math.floor(worldPos.y) + height / 2);
+        return new GridPoint2(worldToTileX(worldPos.x), worldToTileY(worldPos.y));
+    }
+
+    public int worldToTileX(float worldX) {
+        return (int) Math.floor(worldX) + width / 2;
+    }
+
+    public int worldToTileY(float worldY) {
+        return (int) Math.floor(worldY) + height / 2;
     }
 
     public Vector2 tileToWorld(GridPoint2 tilePos) {
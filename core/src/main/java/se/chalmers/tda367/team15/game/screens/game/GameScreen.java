@@ -10,6 +10,8 @@ import se.chalmers.tda367.team15.game.controller.HudController;
 import se.chalmers.tda367.team15.game.model.GameEndReason;
 import se.chalmers.tda367.team15.game.model.GameModel;
 import se.chalmers.tda367.team15.game.model.GameStats;
+import se.chalmers.tda367.team15.game.model.SimulationThread;
+import se.chalmers.tda367.team15.game.model.snapshot.WorldSnapshot;
 import se.chalmers.tda367.team15.game.screens.EndScreen;
 import se.chalmers.tda367.team15.game.view.TextureRegistry;
 import se.chalmers.tda367.team15.game.view.camera.CameraView;
@@ -24,10 +26,14 @@ import se.chalmers.tda367.team15.game.view.ui.UiSkin;
  * Main game screen.
  * Dependencies are injected via constructor to keep the class simple and
  * testable.
+ *
+ * The simulation runs on its own {@link SimulationThread} while the screen is
+ * shown. Each frame draws the latest snapshot it published.
  */
 public class GameScreen extends ScreenAdapter {
     // Models
     private final GameModel gameModel;
+    private final SimulationThread simulationThread;
 
     // Views
     private final CameraView cameraView;
@@ -64,6 +70,7 @@ public class GameScreen extends ScreenAdapter {
         this.game = game;
         this.gameFactory = gameFactory;
         this.gameModel = gameModel;
+        this.simulationThread = new SimulationThread(gameModel);
         this.cameraView = cameraView;
         this.sceneView = sceneView;
         this.pheromoneView = pheromoneView;
@@ -75,11 +82,11 @@ public class GameScreen extends ScreenAdapter {
         this.hudController = hudController;
     }
 
-    private GameEndReason gameHasEnded() {
-        if (gameModel.getTotalAnts() == 0) {
+    private GameEndReason gameHasEnded(WorldSnapshot snapshot) {
+        if (snapshot.getTotalAnts() == 0) {
             return GameEndReason.ALL_ANTS_DEAD;
         }
-        if (gameModel.getColonyDataProvider().getIsDead()) {
+        if (snapshot.isColonyDead()) {
             return GameEndReason.STARVATION;
         }
         return GameEndReason.STILL_PLAYING;
@@ -88,19 +95,27 @@ public class GameScreen extends ScreenAdapter {
     @Override
     public void show() {
         tutorialView = new TutorialView(hudView.getStage());
+        simulationThread.start();
+    }
+
+    @Override
+    public void hide() {
+        simulationThread.stop();
     }
 
     @Override
     public void render(float delta) {
+        simulationThread.checkFailure();
+        WorldSnapshot snapshot = gameModel.getSnapshot();
+
         // Update
         cameraController.update(delta);
         cameraView.updateCamera();
-        gameModel.update();
-        hudController.update(delta);
+        hudController.update(snapshot);
 
-        GameEndReason endReason = gameHasEnded();
+        GameEndReason endReason = gameHasEnded(snapshot);
         if (endReason != GameEndReason.STILL_PLAYING) {
-            int totalDays = gameModel.getTimeProvider().getGameTime().totalDays();
+            int totalDays = snapshot.getDayNumber();
             GameStats gameStats = new GameStats(totalDays);
 
             gameStats.saveIfNewHighScore();
@@ -110,8 +125,8 @@ public class GameScreen extends ScreenAdapter {
         // Render
         ScreenUtils.clear(0.227f, 0.643f, 0.239f, 1f);
 
-        sceneView.render(gameModel.getDrawables());
-        pheromoneView.render();
+        sceneView.render(snapshot);
+        pheromoneView.render(snapshot);
         hudView.render(Gdx.graphics.getDeltaTime());
     }
 
@@ -123,6 +138,7 @@ public class GameScreen extends ScreenAdapter {
 
     @Override
     public void dispose() {
+        simulationThread.stop();
         sceneView.dispose();
         pheromoneView.dispose();
         hudView.dispose();
@@ -7,30 +7,56 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.BufferUtils;
 
-import se.chalmers.tda367.team15.game.model.interfaces.observers.FogObserver;
 import se.chalmers.tda367.team15.game.model.managers.fog.FogProvider;
 import se.chalmers.tda367.team15.game.view.camera.CameraView;
 import se.chalmers.tda367.team15.game.view.camera.ViewportObserver;
 
-public class FogRenderer implements FogObserver, ViewportObserver {
-    private final SpriteBatch maskBatch;
+/**
+ * Draws fog over the undiscovered parts of the map.
+ *
+ * The fog mask is a single-channel texture with a byte per tile, fog 255 and
+ * discovered 0. When more is discovered only the areas that changed are
+ * uploaded, so a fog change costs time by the newly discovered area rather
+ * than by the size of the map.
+ *
+ * Fog and the night overlay are drawn in one pass of a quad over the screen.
+ * The shader works out the world position of every pixel from the camera and
+ * samples the mask there, so no screen-sized buffer is drawn in between.
+ */
+public class FogRenderer implements ViewportObserver {
+    private static final byte FOG = (byte) 255;
+    private static final byte DISCOVERED = 0;
+
+    // Darkness of the map at night
+    private static final float NIGHT_ALPHA = 0.65f;
+
     private final SpriteBatch fogBatch;
     private final ShaderProgram fogShader;
-    private FrameBuffer fogMaskBuffer;
+    private final Matrix4 screenProjection = new Matrix4();
+    private int screenWidth;
+    private int screenHeight;
     private float time = 0f;
     private final FogProvider fogProvider;
+    // Fog version the mask texture was last built from
+    private long uploadedFogVersion;
+    // Fog revision the mask texture is up to, -1 before the first upload
+    private long uploadedRevision = -1;
 
-    private Pixmap fogPixmap;
     private Texture fogMaskTexture;
+    private int maskWidth;
+    private int maskHeight;
+    // Bytes of the area being uploaded, grown as needed
+    private ByteBuffer uploadBuffer = BufferUtils.newByteBuffer(0);
+    private final FogProvider.AreaVisitor uploadArea = this::uploadArea;
 
     public FogRenderer(FogProvider fogProvider) {
         this.fogProvider = fogProvider;
-        this.maskBatch = new SpriteBatch();
         this.fogBatch = new SpriteBatch();
 
         ShaderProgram.pedantic = false;
@@ -40,174 +66,121 @@ public class FogRenderer implements FogObserver, ViewportObserver {
 
         fogBatch.setShader(fogShader);
 
-        createFrameBuffer(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        uploadedFogVersion = fogProvider.getVersion();
         updateFogMaskTexture(fogProvider);
     }
 
-    private void createFrameBuffer(int width, int height) {
-        if (width <= 0 || height <= 0)
-            return;
-
-        if (fogMaskBuffer != null) {
-            fogMaskBuffer.dispose();
-        }
-        fogMaskBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
-    }
-
     private void ensureFogTextureSize(int width, int height) {
-        if (fogPixmap != null && fogPixmap.getWidth() == width && fogPixmap.getHeight() == height) {
+        if (fogMaskTexture != null && maskWidth == width && maskHeight == height) {
             return;
         }
 
-        if (fogPixmap != null) {
-            fogPixmap.dispose();
-        }
-
         if (fogMaskTexture != null) {
             fogMaskTexture.dispose();
         }
 
-        fogPixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        fogMaskTexture = new Texture(fogPixmap);
+        maskWidth = width;
+        maskHeight = height;
+        fogMaskTexture = new Texture(width, height, Pixmap.Format.Alpha);
         fogMaskTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        uploadedRevision = -1;
     }
 
-    public void resize(int width, int height) {
-        createFrameBuffer(width, height);
-    }
-
-    public void render(Matrix4 worldProjectionMatrix, CameraView cameraView) {
+    /**
+     * Draws the fog, and at night the darkness, over the map.
+     *
+     * @param fogVersion the fog version of the snapshot being rendered, the mask
+     *                   is updated when it differs from the last one
+     * @param showFog    whether to draw the fog, otherwise only the night
+     * @param night      whether to darken the map for the night
+     */
+    public void render(CameraView cameraView, long fogVersion, boolean showFog, boolean night) {
         time += Gdx.graphics.getDeltaTime();
 
-        int screenWidth = Gdx.graphics.getWidth();
-        int screenHeight = Gdx.graphics.getHeight();
+        if (showFog && fogVersion != uploadedFogVersion) {
+            uploadedFogVersion = fogVersion;
+            updateFogMaskTexture(fogProvider);
+        }
+        if (!showFog && !night) {
+            return;
+        }
 
-        // Ensure framebuffer is the right size
-        if (fogMaskBuffer == null ||
-                fogMaskBuffer.getWidth() != screenWidth ||
-                fogMaskBuffer.getHeight() != screenHeight) {
-            createFrameBuffer(screenWidth, screenHeight);
+        int width = Gdx.graphics.getWidth();
+        int height = Gdx.graphics.getHeight();
+        if (width != screenWidth || height != screenHeight) {
+            onViewportResize(width, height);
         }
 
-        renderFogMaskToFramebuffer(fogProvider, worldProjectionMatrix);
-        renderFogOverlay(screenWidth, screenHeight, cameraView);
-    }
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        fogBatch.setProjectionMatrix(screenProjection);
+        fogBatch.begin();
 
-    @Override
-    public void onFogDirty() {
-        updateFogMaskTexture(fogProvider);
+        fogShader.setUniformf("u_time", time);
+
+        // Pass camera/world info so shader can calculate world coordinates
+        Vector2 cameraPos = cameraView.getPosition();
+        Vector2 viewportSize = cameraView.getViewportSize();
+        fogShader.setUniformf("u_cameraPos", cameraPos.x, cameraPos.y);
+        fogShader.setUniformf("u_cameraZoom", cameraView.getZoom());
+        fogShader.setUniformf("u_viewportSize", viewportSize.x, viewportSize.y);
+        // The map is centered on the world origin, one tile per world unit
+        fogShader.setUniformf("u_mapOrigin", -maskWidth / 2f, -maskHeight / 2f);
+        fogShader.setUniformf("u_mapSize", maskWidth, maskHeight);
+        fogShader.setUniformf("u_showFog", showFog ? 1f : 0f);
+        fogShader.setUniformf("u_nightAlpha", night ? NIGHT_ALPHA : 0f);
+
+        fogBatch.setColor(1f, 1f, 1f, 1f);
+        // Fullscreen quad with screen UVs growing up and to the right, the mask
+        // is sampled by world position instead
+        fogBatch.draw(fogMaskTexture, 0, 0, screenWidth, screenHeight, 0f, 0f, 1f, 1f);
+
+        fogBatch.end();
     }
 
     @Override
     public void onViewportResize(int width, int height) {
-        createFrameBuffer(width, height);
+        screenWidth = width;
+        screenHeight = height;
+        screenProjection.setToOrtho2D(0, 0, width, height);
     }
 
     private void updateFogMaskTexture(FogProvider fogProvider) {
         GridPoint2 size = fogProvider.getSize();
         ensureFogTextureSize(size.x, size.y);
 
-        boolean[][] discovered = fogProvider.getDiscoveredArray();
+        fogMaskTexture.bind();
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+        uploadedRevision = fogProvider.forEachChangedArea(uploadedRevision, uploadArea);
+    }
 
-        // Direct pixel buffer manipulation - much faster than setColor/drawPixel
-        ByteBuffer pixels = fogPixmap.getPixels();
+    /**
+     * Uploads a rectangle of tiles into the bound mask texture.
+     */
+    private void uploadArea(int x, int y, int width, int height) {
+        int bytes = width * height;
+        if (uploadBuffer.capacity() < bytes) {
+            uploadBuffer = BufferUtils.newByteBuffer(bytes);
+        }
+        ByteBuffer pixels = uploadBuffer;
         pixels.clear();
-
-        // Fill pixmap with RGBA: white (255,255,255,255) = fog, transparent (0,0,0,0) =
-        // revealed
-        // Shader samples .r channel, so we need white for fog
-        // Pixmap is Y-down (top-left origin), world is Y-up, so flip Y
-        for (int y = 0; y < size.y; y++) {
-            int flippedY = size.y - 1 - y;
-            for (int x = 0; x < size.x; x++) {
-                if (discovered[x][flippedY]) {
-                    // Revealed - transparent black
-                    pixels.put((byte) 0); // R
-                    pixels.put((byte) 0); // G
-                    pixels.put((byte) 0); // B
-                    pixels.put((byte) 0); // A
-                } else {
-                    // Fog - opaque white
-                    pixels.put((byte) 255); // R
-                    pixels.put((byte) 255); // G
-                    pixels.put((byte) 255); // B
-                    pixels.put((byte) 255); // A
-                }
+        // Texture rows go top to bottom, the world's bottom to top, so the rows
+        // of the area are written from its top tile down
+        for (int tileY = y + height - 1; tileY >= y; tileY--) {
+            for (int tileX = x; tileX < x + width; tileX++) {
+                pixels.put(fogProvider.isDiscovered(tileX, tileY) ? DISCOVERED : FOG);
             }
         }
         pixels.flip();
 
-        // Upload to GPU
-        fogMaskTexture.draw(fogPixmap, 0, 0);
-    }
-
-    private void renderFogMaskToFramebuffer(FogProvider fogProvider, Matrix4 worldProjectionMatrix) {
-        fogMaskBuffer.begin();
-
-        // Clear to transparent
-        Gdx.gl.glClearColor(0, 0, 0, 0);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-
-        maskBatch.setProjectionMatrix(worldProjectionMatrix);
-        maskBatch.begin();
-
-        GridPoint2 size = fogProvider.getSize();
-        float offsetX = -size.x / 2f;
-        float offsetY = -size.y / 2f;
-
-        // Draw the entire fog mask as a single textured quad
-        maskBatch.draw(fogMaskTexture, offsetX, offsetY, size.x, size.y);
-
-        maskBatch.end();
-
-        fogMaskBuffer.end();
-    }
-
-    private void renderFogOverlay(int screenWidth, int screenHeight, CameraView cameraView) {
-        // Enable blending for transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
-        Matrix4 screenProjection = new Matrix4();
-        screenProjection.setToOrtho2D(0, 0, screenWidth, screenHeight);
-        fogBatch.setProjectionMatrix(screenProjection);
-
-        fogBatch.begin();
-
-        fogShader.setUniformf("u_time", time);
-
-        // Pass camera/world info so shader can calculate world coordinates
-        fogShader.setUniformf("u_cameraPos", cameraView.getPosition().x, cameraView.getPosition().y);
-        fogShader.setUniformf("u_cameraZoom", cameraView.getZoom());
-        fogShader.setUniformf("u_viewportSize", cameraView.getViewportSize().x, cameraView.getViewportSize().y);
-
-        fogBatch.setColor(1f, 1f, 1f, 1f);
-
-        // Get the framebuffer texture
-        Texture maskTexture = fogMaskBuffer.getColorBufferTexture();
-
-        // Draw fullscreen quad in screen space
-        // Note: framebuffer texture is flipped, so we flip the V coordinates
-        fogBatch.draw(maskTexture,
-                0, 0, // position
-                screenWidth, screenHeight, // size
-                0, 0, // srcX, srcY
-                screenWidth, screenHeight, // srcWidth, srcHeight
-                false, true); // flipX, flipY (flip Y for framebuffer)
-
-        fogBatch.end();
+        int textureY = maskHeight - y - height;
+        Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, x, textureY, width, height,
+                GL20.GL_ALPHA, GL20.GL_UNSIGNED_BYTE, pixels);
     }
 
     public void dispose() {
-        maskBatch.dispose();
         fogBatch.dispose();
         fogShader.dispose();
-        if (fogMaskBuffer != null) {
-            fogMaskBuffer.dispose();
-        }
-        if (fogPixmap != null) {
-            fogPixmap.dispose();
-        }
         if (fogMaskTexture != null) {
             fogMaskTexture.dispose();
         }
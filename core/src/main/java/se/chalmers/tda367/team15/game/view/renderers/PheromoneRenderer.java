@@ -1,46 +1,137 @@
 package se.chalmers.tda367.team15.game.view.renderers;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.GridPoint2;
-import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.BufferUtils;
 
 import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
-import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.snapshot.WorldSnapshot;
 import se.chalmers.tda367.team15.game.view.camera.CameraView;
 
+/**
+ * Draws the pheromones from textures holding a texel for every pheromone
+ * cell.
+ *
+ * The grid is split into pages of cells, and a page only gets a texture for a
+ * pheromone type once a pheromone of that type is in or near it, so memory
+ * grows with the area the trails cover rather than with the size of the map.
+ * Each texture also holds the cells within reach of the page's edges, so the
+ * shader never needs a neighbouring page. Texels are two bytes, the high and
+ * low byte of the distance, 0 where there is no pheromone.
+ *
+ * The textures are kept up to date from the changed cells in each snapshot,
+ * uploading only the pages that changed. Drawing is one quad per visible page
+ * near a pheromone, the shader working out which pheromones cover each pixel,
+ * so the cost does not grow with the number of pheromones.
+ */
 public class PheromoneRenderer {
+    private static final PheromoneType[] TYPES = PheromoneType.values();
+    // Sampler of each type's texture and the unit it is bound to, by ordinal.
+    // The sprite batch binds the first one itself.
+    private static final String[] SAMPLERS = { "u_texture", "u_attack", "u_explore" };
+    // Pages are as large as the chunks of the pheromone grid
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    // Cells around a page kept in its textures, at least the reach of a
+    // pheromone in the shader
+    private static final int APRON = 4;
+    private static final int LAYER_SIZE = PAGE_SIZE + 2 * APRON;
+    private static final int BYTES_PER_TEXEL = 2;
+    // Largest distance a texel can hold
+    private static final int MAX_TEXEL_DISTANCE = 0xffff;
+
     private final SpriteBatch batch;
     private final ShaderProgram shader;
     private final CameraView cameraView;
-    private final PheromoneUsageProvider pheromoneUsageProvider;
     private final PheromoneGridConverter converter;
-    private final Texture pheromoneTexture;
-    private final TextureRegion pheromoneRegion;
     private float time;
 
-    public PheromoneRenderer(CameraView cameraView, PheromoneUsageProvider pheromoneUsageProvider) {
+    // Grid coordinates of the first cell of the first page and the size of the
+    // drawn grid in cells
+    private final int originX;
+    private final int originY;
+    private final int width;
+    private final int height;
+    private final int pagesX;
+    private final int pagesY;
+    // The texture of each type around each page, by ordinal and page, null
+    // where there is no pheromone of that type
+    private final Layer[][] layers;
+    // Number of pheromones of any type in or near each page, for skipping empty
+    // ones
+    private final int[] pageCounts;
+    // Layers changed since the last upload, as type * page count + page
+    private int[] dirtyLayers = new int[16];
+    private int dirtyLayerCount = 0;
+    // Drawn in place of the layers that do not exist
+    private final Texture emptyTexture;
+
+    // Number of pheromones at each distance, for finding the largest one
+    private int[] distanceCounts = new int[64];
+    private int maxDistance = 0;
+    private long appliedVersion = 0;
+
+    /**
+     * The cells of one pheromone type in and around one page.
+     */
+    private static class Layer {
+        final ByteBuffer texels = BufferUtils.newByteBuffer(LAYER_SIZE * LAYER_SIZE * BYTES_PER_TEXEL);
+        final Texture texture = new Texture(LAYER_SIZE, LAYER_SIZE, Pixmap.Format.LuminanceAlpha);
+        // Number of cells with a pheromone
+        int pheromones = 0;
+        boolean dirty = false;
+
+        Layer() {
+            texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        }
+
+        int getDistance(int x, int y) {
+            int offset = (y * LAYER_SIZE + x) * BYTES_PER_TEXEL;
+            return ((texels.get(offset) & 0xff) << 8) | (texels.get(offset + 1) & 0xff);
+        }
+
+        void setDistance(int x, int y, int distance) {
+            int offset = (y * LAYER_SIZE + x) * BYTES_PER_TEXEL;
+            texels.put(offset, (byte) (distance >> 8));
+            texels.put(offset + 1, (byte) distance);
+        }
+    }
+
+    /**
+     * @param mapSize the size of the map in tiles, the map being centered on the
+     *                origin. Pheromones outside it are not drawn.
+     */
+    public PheromoneRenderer(CameraView cameraView, PheromoneUsageProvider pheromoneUsageProvider,
+            GridPoint2 mapSize) {
         this.cameraView = cameraView;
-        this.pheromoneUsageProvider = pheromoneUsageProvider;
         this.converter = pheromoneUsageProvider.getConverter();
         this.batch = new SpriteBatch();
 
-        // Create a simple white texture with proper UV coordinates (not from atlas)
-        Pixmap pixmap = new Pixmap(2, 2, Pixmap.Format.RGBA8888);
-        pixmap.setColor(1f, 1f, 1f, 1f);
-        pixmap.fill();
-        pheromoneTexture = new Texture(pixmap);
-        pheromoneRegion = new TextureRegion(pheromoneTexture, 0, 0, 2, 2);
-        pixmap.dispose();
+        width = mapSize.x * converter.getPheromonesPerTile();
+        height = mapSize.y * converter.getPheromonesPerTile();
+        originX = -width / 2;
+        originY = -height / 2;
+        pagesX = (width + PAGE_SIZE - 1) >> PAGE_SHIFT;
+        pagesY = (height + PAGE_SIZE - 1) >> PAGE_SHIFT;
+        layers = new Layer[TYPES.length][pagesX * pagesY];
+        pageCounts = new int[pagesX * pagesY];
+
+        Pixmap empty = new Pixmap(1, 1, Pixmap.Format.LuminanceAlpha);
+        empty.setColor(0f, 0f, 0f, 0f);
+        empty.fill();
+        emptyTexture = new Texture(empty);
+        empty.dispose();
 
         ShaderProgram.pedantic = false;
         shader = new ShaderProgram(
@@ -54,78 +145,206 @@ public class PheromoneRenderer {
         batch.setShader(shader);
     }
 
-    public void render() {
+    public void render(WorldSnapshot snapshot) {
         time += Gdx.graphics.getDeltaTime();
+        applyChanges(snapshot);
+        uploadDirtyLayers();
 
-        Matrix4 projectionMatrix = cameraView.getCombinedMatrix();
-        batch.setProjectionMatrix(projectionMatrix);
+        batch.setProjectionMatrix(cameraView.getCombinedMatrix());
 
         Gdx.gl.glEnable(GL20.GL_BLEND);
         Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 
         batch.begin();
-
-        // Set uniforms once before drawing
-        shader.setUniformf("u_time", time);
-
-        // Find max distance for normalization
-        int maxDistance = 1;
-        for (Pheromone pheromone : pheromoneUsageProvider.getPheromones()) {
-            maxDistance = Math.max(maxDistance, pheromone.getDistance());
+        for (int t = 1; t < TYPES.length; t++) {
+            shader.setUniformi(SAMPLERS[t], t);
         }
+        shader.setUniformf("u_gridSize", LAYER_SIZE, LAYER_SIZE);
+        shader.setUniformf("u_cellSize", converter.getPheromoneCellSize());
+        shader.setUniformf("u_maxDistance", Math.max(1, maxDistance));
+        shader.setUniformf("u_time", time);
+        drawVisiblePages();
+        batch.end();
+    }
 
+    /**
+     * Draws a quad over every visible page that has a pheromone in or near it,
+     * with the page's textures bound.
+     */
+    private void drawVisiblePages() {
         float cellSize = converter.getPheromoneCellSize();
-        // Draw at 4x size so balls can overflow into neighboring cells
-        float drawSize = cellSize * 4f;
+        Vector2 position = cameraView.getPosition();
+        Vector2 viewSize = cameraView.getEffectiveViewportSize();
+        int minX = pageOf(converter.worldToPheromoneGridX(position.x - viewSize.x / 2) - originX, pagesX);
+        int maxX = pageOf(converter.worldToPheromoneGridX(position.x + viewSize.x / 2) - originX, pagesX);
+        int minY = pageOf(converter.worldToPheromoneGridY(position.y - viewSize.y / 2) - originY, pagesY);
+        int maxY = pageOf(converter.worldToPheromoneGridY(position.y + viewSize.y / 2) - originY, pagesY);
 
-        for (Pheromone pheromone : pheromoneUsageProvider.getPheromones()) {
-            float distanceRatio = (float) pheromone.getDistance() / maxDistance;
+        float pageWorldSize = PAGE_SIZE * cellSize;
+        for (int py = minY; py <= maxY; py++) {
+            for (int px = minX; px <= maxX; px++) {
+                int page = py * pagesX + px;
+                if (pageCounts[page] == 0) {
+                    continue;
+                }
+                // The textures and uniforms of the previous page are still in use
+                // until its quad is drawn
+                batch.flush();
+                for (int t = 1; t < TYPES.length; t++) {
+                    textureOf(t, page).bind(t);
+                }
+                // The batch binds its texture to whichever unit is active
+                Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+                int cellX = originX + (px << PAGE_SHIFT);
+                int cellY = originY + (py << PAGE_SHIFT);
+                shader.setUniformf("u_gridOrigin", cellX - APRON, cellY - APRON);
+                batch.draw(textureOf(0, page), cellX * cellSize, cellY * cellSize, pageWorldSize, pageWorldSize);
+            }
+        }
+    }
 
-            // Trail strength: 1.0 at start, 0.0 at end
-            float trailStrength = 1.0f - distanceRatio;
+    private Texture textureOf(int type, int page) {
+        Layer layer = layers[type][page];
+        return layer != null ? layer.texture : emptyTexture;
+    }
+
+    private static int pageOf(int cell, int pages) {
+        return Math.max(0, Math.min(pages - 1, cell >> PAGE_SHIFT));
+    }
 
-            // Pack: R = type index, G = trail strength, B = random seed, A = 1.0
-            int typeIndex = getTypeIndex(pheromone.getType());
+    private void applyChanges(WorldSnapshot snapshot) {
+        if (snapshot.getPheromoneVersion() == appliedVersion && !snapshot.isPheromoneResync()) {
+            return;
+        }
+        if (snapshot.isPheromoneResync()) {
+            clear();
+        }
+        for (int i = 0; i < snapshot.getPheromoneChangeCount(); i++) {
+            setCell(snapshot.getPheromoneX(i), snapshot.getPheromoneY(i),
+                    snapshot.getPheromoneType(i), snapshot.getPheromoneDistance(i));
+        }
+        appliedVersion = snapshot.getPheromoneVersion();
+    }
 
-            // Generate deterministic random seed from grid position
-            GridPoint2 gridPos = pheromone.getPosition();
-            float randomSeed = ((gridPos.x * 73856093) ^ (gridPos.y * 19349663)) / (float) Integer.MAX_VALUE;
-            randomSeed = Math.abs(randomSeed);
+    private void clear() {
+        for (int t = 0; t < TYPES.length; t++) {
+            for (int page = 0; page < layers[t].length; page++) {
+                if (layers[t][page] != null) {
+                    layers[t][page].texture.dispose();
+                    layers[t][page] = null;
+                }
+            }
+        }
+        dirtyLayerCount = 0;
+        Arrays.fill(pageCounts, 0);
+        Arrays.fill(distanceCounts, 0);
+        maxDistance = 0;
+    }
 
-            Color tempColor = new Color();
-            tempColor.set(typeIndex / 3.0f, trailStrength, randomSeed, 1.0f);
+    /**
+     * Writes the state of one cell into the layers of every page it is in or
+     * near.
+     *
+     * @param distance the cell's distance, 0 if it has no pheromone
+     */
+    private void setCell(int x, int y, PheromoneType type, int distance) {
+        int cellX = x - originX;
+        int cellY = y - originY;
+        if (cellX < 0 || cellY < 0 || cellX >= width || cellY >= height) {
+            return;
+        }
+        int t = type.ordinal();
+        int pageX = cellX >> PAGE_SHIFT;
+        int pageY = cellY >> PAGE_SHIFT;
+        Layer own = layers[t][pageY * pagesX + pageX];
+        int oldDistance = own != null
+                ? own.getDistance(cellX - (pageX << PAGE_SHIFT) + APRON, cellY - (pageY << PAGE_SHIFT) + APRON)
+                : 0;
+        int texelDistance = Math.min(distance, MAX_TEXEL_DISTANCE);
+        if (oldDistance == texelDistance) {
+            return;
+        }
 
-            batch.setColor(tempColor);
-            Vector2 worldPos = converter.pheromoneGridToWorld(gridPos);
+        if (oldDistance != 0) {
+            countDistance(oldDistance, -1);
+        }
+        if (texelDistance != 0) {
+            countDistance(texelDistance, 1);
+        }
+        int added = oldDistance == 0 ? 1 : texelDistance == 0 ? -1 : 0;
 
-            float thisDrawSize = ((float) Math.log(trailStrength + 1) + 0.5f) * drawSize;
+        // The pages whose apron reaches the cell, as well as its own
+        int lastPageX = Math.min(pagesX - 1, (cellX + APRON) >> PAGE_SHIFT);
+        int lastPageY = Math.min(pagesY - 1, (cellY + APRON) >> PAGE_SHIFT);
+        for (int py = Math.max(0, (cellY - APRON) >> PAGE_SHIFT); py <= lastPageY; py++) {
+            for (int px = Math.max(0, (cellX - APRON) >> PAGE_SHIFT); px <= lastPageX; px++) {
+                int page = py * pagesX + px;
+                Layer layer = layers[t][page];
+                if (layer == null) {
+                    layer = new Layer();
+                    layers[t][page] = layer;
+                }
+                layer.setDistance(cellX - (px << PAGE_SHIFT) + APRON, cellY - (py << PAGE_SHIFT) + APRON,
+                        texelDistance);
+                layer.pheromones += added;
+                pageCounts[page] += added;
+                markDirty(t, page, layer);
+            }
+        }
+    }
 
-            batch.draw(pheromoneRegion,
-                    worldPos.x - thisDrawSize / 2f,
-                    worldPos.y - thisDrawSize / 2f,
-                    thisDrawSize,
-                    thisDrawSize);
+    private void markDirty(int type, int page, Layer layer) {
+        if (layer.dirty) {
+            return;
         }
+        layer.dirty = true;
+        if (dirtyLayerCount == dirtyLayers.length) {
+            dirtyLayers = Arrays.copyOf(dirtyLayers, dirtyLayers.length * 2);
+        }
+        dirtyLayers[dirtyLayerCount++] = type * pageCounts.length + page;
+    }
 
-        batch.end();
+    private void countDistance(int distance, int delta) {
+        if (distance >= distanceCounts.length) {
+            distanceCounts = Arrays.copyOf(distanceCounts, Math.max(distance + 1, distanceCounts.length * 2));
+        }
+        distanceCounts[distance] += delta;
+        if (delta > 0) {
+            maxDistance = Math.max(maxDistance, distance);
+        } else {
+            while (maxDistance > 0 && distanceCounts[maxDistance] == 0) {
+                maxDistance--;
+            }
+        }
     }
 
-    private int getTypeIndex(PheromoneType type) {
-        switch (type) {
-            case GATHER:
-                return 0;
-            case ATTACK:
-                return 1;
-            case EXPLORE:
-                return 2;
-            default:
-                return 0;
+    /**
+     * Uploads every layer that changed as a whole, and frees the layers that no
+     * longer hold a pheromone.
+     */
+    private void uploadDirtyLayers() {
+        for (int i = 0; i < dirtyLayerCount; i++) {
+            int type = dirtyLayers[i] / pageCounts.length;
+            int page = dirtyLayers[i] % pageCounts.length;
+            Layer layer = layers[type][page];
+            layer.dirty = false;
+            if (layer.pheromones == 0) {
+                layer.texture.dispose();
+                layers[type][page] = null;
+                continue;
+            }
+            layer.texture.bind();
+            layer.texels.position(0);
+            Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, LAYER_SIZE, LAYER_SIZE,
+                    GL20.GL_LUMINANCE_ALPHA, GL20.GL_UNSIGNED_BYTE, layer.texels);
         }
+        dirtyLayerCount = 0;
     }
 
     public void dispose() {
         batch.dispose();
         shader.dispose();
-        pheromoneTexture.dispose();
+        clear();
+        emptyTexture.dispose();
     }
 }
@@ -1,15 +1,10 @@
 package se.chalmers.tda367.team15.game.view.renderers;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.MathUtils;
 
-import se.chalmers.tda367.team15.game.model.interfaces.GameObject;
-import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
+import se.chalmers.tda367.team15.game.model.snapshot.WorldSnapshot;
 import se.chalmers.tda367.team15.game.model.world.MapProvider;
 import se.chalmers.tda367.team15.game.view.TextureResolver;
 import se.chalmers.tda367.team15.game.view.camera.CameraView;
@@ -22,12 +17,10 @@ public class WorldRenderer {
     private final TerrainRenderer terrainRenderer;
     private final FogRenderer fogRenderer;
     private final MapProvider mapProvider;
-    private final ShapeRenderer shapeRenderer;
-    private final TimeCycleDataProvider timeProvider;
     private final boolean disableFog;
 
     public WorldRenderer(CameraView cameraView, TextureResolver textureResolver, MapProvider mapProvider,
-            TimeCycleDataProvider timeProvider, FogRenderer fogRenderer, ViewportListener viewportListener,
+            FogRenderer fogRenderer, ViewportListener viewportListener,
             boolean disableFog) {
         this.cameraView = cameraView;
         this.textureResolver = textureResolver;
@@ -36,64 +29,48 @@ public class WorldRenderer {
         this.fogRenderer = fogRenderer;
         viewportListener.addObserver(fogRenderer);
         this.mapProvider = mapProvider;
-        this.shapeRenderer = new ShapeRenderer();
-        this.timeProvider = timeProvider;
         this.disableFog = disableFog;
     }
 
-    public void render(Iterable<GameObject> drawables) {
+    public void render(WorldSnapshot snapshot) {
         batch.setProjectionMatrix(cameraView.getCombinedMatrix());
         batch.begin();
 
         terrainRenderer.render(batch, mapProvider, cameraView);
-        drawables.forEach(this::draw);
-
-        batch.end();
-
-        // Render fog after main batch to avoid z-fighting
-        if (!disableFog) {
-            fogRenderer.render(cameraView.getCombinedMatrix(), cameraView);
+        for (int i = 0; i < snapshot.getDrawableCount(); i++) {
+            draw(snapshot, i);
         }
 
-        if (!timeProvider.getIsDay()) {
-            // at night, we draw a black rectangle over screen 50% opacity
-            GridPoint2 dimensions = mapProvider.getSize();
-            Gdx.gl.glEnable(GL20.GL_BLEND); // we want to blend not cover.
-            shapeRenderer.setProjectionMatrix(cameraView.getCombinedMatrix());
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-            shapeRenderer.setColor(0, 0, 0, 0.65f);
-            shapeRenderer.rect(-((float) dimensions.x / 2), -((float) dimensions.y / 2), dimensions.x, dimensions.y);
-            shapeRenderer.end();
-            Gdx.gl.glDisable(GL20.GL_BLEND);
-        }
+        batch.end();
 
+        // Render fog and night after main batch to avoid z-fighting, in one pass
+        fogRenderer.render(cameraView, snapshot.getFogVersion(), !disableFog, !snapshot.isDay());
     }
 
-    private void draw(GameObject drawable) {
-        TextureRegion region = textureResolver.resolve(drawable);
+    private void draw(WorldSnapshot snapshot, int i) {
+        TextureRegion region = textureResolver.resolve(snapshot.getDrawable(i));
 
-        float width = drawable.getSize().x;
-        float height = drawable.getSize().y;
+        float width = snapshot.getWidth(i);
+        float height = snapshot.getHeight(i);
 
         // Center origin for rotation
         float originX = width / 2f;
         float originY = height / 2f;
 
         // Position is the center of the object
-        float x = drawable.getPosition().x - originX;
-        float y = drawable.getPosition().y - originY;
+        float x = snapshot.getX(i) - originX;
+        float y = snapshot.getY(i) - originY;
 
         batch.draw(region,
                 x, y,
                 originX, originY,
                 width, height,
                 1f, 1f,
-                MathUtils.radiansToDegrees * drawable.getRotation());
+                MathUtils.radiansToDegrees * snapshot.getRotation(i));
     }
 
     public void dispose() {
         batch.dispose();
         fogRenderer.dispose();
-        shapeRenderer.dispose();
     }
 }
@@ -80,12 +80,6 @@ public class BottomBarView {
         buildBarContents();
     }
 
-    public void update(float deltaTime) {
-        if (eggPanelView != null) {
-            eggPanelView.update();
-        }
-    }
-
     private HorizontalGroup createPheromoneButtonGroup() {
         String[] labels = { "Gather", "Attack", "Explore", "Erase" };
         PheromoneType[] types = { PheromoneType.GATHER, PheromoneType.ATTACK, PheromoneType.EXPLORE, null };
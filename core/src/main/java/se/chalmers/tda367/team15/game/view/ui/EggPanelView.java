@@ -11,10 +11,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 
 import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
 import se.chalmers.tda367.team15.game.model.entity.ant.AntTypeRegistry;
-import se.chalmers.tda367.team15.game.model.interfaces.providers.ColonyDataProvider;
-import se.chalmers.tda367.team15.game.model.interfaces.providers.EggProvider;
-import se.chalmers.tda367.team15.game.model.managers.egg.Egg;
-import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
+import se.chalmers.tda367.team15.game.model.snapshot.WorldSnapshot;
 
 /**
  * UI panel for purchasing eggs and displaying egg development progress.
@@ -22,18 +19,13 @@ import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
  */
 public class EggPanelView {
     private final UiSkin uiSkin;
-    private final EggProvider eggProvider;
     private final Table panelTable;
     private final HorizontalGroup eggTypeGroup;
-    private final ColonyDataProvider colonyDataProvider;
     private final AntTypeRegistry antTypeRegistry;
     private EggPanelListener eggPanelListener;
 
-    public EggPanelView(UiSkin uiFactory, EggProvider eggProvider,
-            ColonyDataProvider colonyDataProvider, AntTypeRegistry antTypeRegistry) {
+    public EggPanelView(UiSkin uiFactory, AntTypeRegistry antTypeRegistry) {
         this.uiSkin = uiFactory;
-        this.eggProvider = eggProvider;
-        this.colonyDataProvider = colonyDataProvider;
         this.antTypeRegistry = antTypeRegistry;
         panelTable = new Table();
         // No background - this panel is embedded in BottomBarView which has its own
@@ -109,9 +101,11 @@ public class EggPanelView {
 
     /**
      * Updates the UI to reflect current egg states and resource availability.
-     * Should be called each frame in render().
+     * Should be called each frame with the snapshot being rendered.
+     *
+     * @param snapshot the snapshot to read the eggs and food from
      */
-    public void update() {
+    public void update(WorldSnapshot snapshot) {
         // Update progress bars and button states
         for (int i = 0; i < eggTypeGroup.getChildren().size; i++) {
             Table container = (Table) eggTypeGroup.getChild(i);
@@ -123,10 +117,10 @@ public class EggPanelView {
                 int eggCount = 0;
                 float totalProgress = 0f;
 
-                for (Egg egg : eggProvider.getEggs()) {
-                    if (egg.getTypeId().equals(state.typeId)) {
+                for (int egg = 0; egg < snapshot.getEggCount(); egg++) {
+                    if (snapshot.getEggTypeId(egg).equals(state.typeId)) {
                         eggCount++;
-                        totalProgress += egg.getProgress();
+                        totalProgress += snapshot.getEggProgress(egg);
                     }
                 }
 
@@ -141,7 +135,7 @@ public class EggPanelView {
 
                 Optional<AntType> type = antTypeRegistry.get(state.typeId);
                 if (type.isPresent()) {
-                    boolean canAfford = colonyDataProvider.getTotalResources(ResourceType.FOOD) >= type.orElseThrow()
+                    boolean canAfford = snapshot.getFood() >= type.orElseThrow()
                             .foodCost();
                     button.setDisabled(!canAfford);
                 }
@@ -1,5 +1,7 @@
 package se.chalmers.tda367.team15.game.view.ui;
 
+import java.util.List;
+
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -7,7 +9,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
-import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
+import se.chalmers.tda367.team15.game.model.SimulationLoad;
+import se.chalmers.tda367.team15.game.model.profiling.TimingSummary;
 
 import com.badlogic.gdx.Gdx;
 
@@ -16,6 +19,10 @@ public class HudView {
     private final TopBarView topBar;
     private final BottomBarView bottomBar;
     private final Label fpsLabel;
+    private final Label profilerLabel;
+    private SimulationLoad simulationLoad = SimulationLoad.IDLE;
+    private List<TimingSummary> timings = List.of();
+    private List<TimingSummary> shownTimings;
 
     public HudView(SpriteBatch batch, UiSkin uiFactory) {
         stage = new Stage(new ScreenViewport(), batch);
@@ -43,14 +50,24 @@ public class HudView {
         Table fpsContainer = new Table();
         fpsContainer.setFillParent(true);
         fpsContainer.top().left();
-        fpsContainer.add(fpsLabel).pad(UiTheme.PADDING_SMALL);
+        fpsContainer.add(fpsLabel).pad(UiTheme.PADDING_SMALL).left();
+
+        // Profiler overlay, hidden until toggled
+        profilerLabel = new Label("", uiFactory.createLabelStyle(0.6f, Color.WHITE));
+        profilerLabel.setVisible(false);
+        fpsContainer.row();
+        fpsContainer.add(profilerLabel).padLeft(UiTheme.PADDING_SMALL).left();
         stage.addActor(fpsContainer);
     }
 
     public void render(float dt) {
-        fpsLabel.setText("FPS: " + Gdx.graphics.getFramesPerSecond());
+        fpsLabel.setText(String.format("FPS: %d  Sim: %.0f%%%s", Gdx.graphics.getFramesPerSecond(),
+                simulationLoad.load() * 100, simulationLoad.fallingBehind() ? " (behind)" : ""));
+        if (profilerLabel.isVisible() && timings != shownTimings) {
+            profilerLabel.setText(formatTimings(timings));
+            shownTimings = timings;
+        }
         stage.act(dt);
-        bottomBar.update(dt);
         stage.draw();
     }
 
@@ -67,8 +84,36 @@ public class HudView {
         bottomBar.updateLayout(stage.getViewport().getWorldWidth(), stage.getViewport().getWorldHeight());
     }
 
-    public void updateData(TimeCycleDataProvider timeProvider, int antCount, int resourceCount, int consumption) {
-        topBar.update(timeProvider, antCount, resourceCount, consumption);
+    public void updateSimulationLoad(SimulationLoad simulationLoad) {
+        this.simulationLoad = simulationLoad;
+    }
+
+    /**
+     * @param timings per-observer timings to show in the profiler overlay
+     */
+    public void updateTimings(List<TimingSummary> timings) {
+        this.timings = timings;
+    }
+
+    public void toggleProfilerOverlay() {
+        profilerLabel.setVisible(!profilerLabel.isVisible());
+        shownTimings = null;
+    }
+
+    private static String formatTimings(List<TimingSummary> timings) {
+        if (timings.isEmpty()) {
+            return "Profiling...";
+        }
+        StringBuilder text = new StringBuilder("Observer  p50 / p99 / max (ms)");
+        for (TimingSummary timing : timings) {
+            text.append(String.format("%n%s  %.3f / %.3f / %.3f", timing.name(), timing.p50Nanos() / 1e6,
+                    timing.p99Nanos() / 1e6, timing.maxNanos() / 1e6));
+        }
+        return text.toString();
+    }
+
+    public void updateData(int day, int hour, int minute, int antCount, int resourceCount, int consumption) {
+        topBar.update(day, hour, minute, antCount, resourceCount, consumption);
     }
 
     public void setPheromoneSelectionListener(PheromoneSelectionListener listener) {
@@ -12,7 +12,6 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Scaling;
 
-import se.chalmers.tda367.team15.game.model.interfaces.providers.TimeCycleDataProvider;
 
 public class TopBarView extends Table {
     private final UiSkin uiFactory;
@@ -124,10 +123,9 @@ public class TopBarView extends Table {
         return stack;
     }
 
-    public void update(TimeCycleDataProvider timeProvider, int antCount, int resourceCount, int consumption) {
-        dayLabel.setText("Day " + timeProvider.getGameTime().totalDays());
-        timeLabel.setText(String.format("%02d:%02d", timeProvider.getGameTime().currentHour(),
-                timeProvider.getGameTime().currentMinute()));
+    public void update(int day, int hour, int minute, int antCount, int resourceCount, int consumption) {
+        dayLabel.setText("Day " + day);
+        timeLabel.setText(String.format("%02d:%02d", hour, minute));
         resource1Value.setText(String.valueOf(antCount));
         resource2Value.setText(String.format("%d (%d/d)", resourceCount, consumption));
 
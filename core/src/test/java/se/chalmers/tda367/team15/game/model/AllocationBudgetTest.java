@@ -0,0 +1,80 @@
+package se.chalmers.tda367.team15.game.model;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.sun.management.ThreadMXBean;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.managers.SimulationManager;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+
+class AllocationBudgetTest {
+    private static final int START_ANTS = 5000;
+    private static final int WARMUP_TICKS = 500;
+    private static final int MEASURED_TICKS = 1000;
+    // Length in grid cells of each trail laid out from the colony
+    private static final int TRAIL_LENGTH = 40;
+    // A steady-state tick with ants on trails allocates about 3.5 KB, before it
+    // was megabytes
+    private static final long BUDGET_BYTES_PER_TICK = 4 * 1024;
+
+    @Test
+    @DisplayName("a steady-state tick with 5k ants on trails should stay within the allocation budget")
+    void tickShouldStayWithinAllocationBudget() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        GameConfiguration configuration = GameConfiguration.fromArgs(
+                new String[] { "--start-ants=" + START_ANTS, "--seed=1" });
+        SimulationManager simulationManager = new SimulationManager();
+        GameModel gameModel = new GameModelFactory(configuration).createGameModel(simulationManager);
+        layTrails(gameModel.getPheromoneUsageProvider());
+
+        // Let caches, indexes and scratch buffers reach their steady-state size
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            simulationManager.tick();
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            simulationManager.tick();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        long budget = BUDGET_BYTES_PER_TICK * MEASURED_TICKS;
+        assertTrue(allocated <= budget, "allocated " + allocated + " bytes over " + MEASURED_TICKS
+                + " ticks, budget is " + budget);
+    }
+
+    /**
+     * Lays gather trails from the colony in eight directions, joined by a ring,
+     * so that ants follow and wander along trails while being measured.
+     */
+    private static void layTrails(PheromoneUsageProvider pheromones) {
+        GridPoint2 colony = new GridPoint2(0, 0);
+        int[][] directions = { { 1, 0 }, { 1, 1 }, { 0, 1 }, { -1, 1 }, { -1, 0 }, { -1, -1 }, { 0, -1 },
+                { 1, -1 } };
+        for (int[] direction : directions) {
+            GridPoint2 end = new GridPoint2(direction[0] * TRAIL_LENGTH, direction[1] * TRAIL_LENGTH);
+            pheromones.drawPheromonesBetween(colony, end, PheromoneType.GATHER);
+        }
+        int ring = TRAIL_LENGTH / 2;
+        GridPoint2 corner = new GridPoint2(ring, 0);
+        for (int[] direction : directions) {
+            GridPoint2 next = new GridPoint2(direction[0] * ring, direction[1] * ring);
+            pheromones.drawPheromonesBetween(corner, next, PheromoneType.GATHER);
+            corner = next;
+        }
+        pheromones.drawPheromonesBetween(corner, new GridPoint2(ring, 0), PheromoneType.GATHER);
+    }
+}
@@ -0,0 +1,67 @@
+package se.chalmers.tda367.team15.game.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.managers.SimulationManager;
+
+class DeterminismTest {
+    private static final int TICKS = 300;
+    // EntityManager only updates entities in parallel above this many
+    private static final int PARALLEL_BATCH_SIZE = 256;
+
+    private static class Run {
+        final SimulationManager simulationManager = new SimulationManager();
+        final GameModel gameModel;
+
+        Run(String... args) {
+            gameModel = new GameModelFactory(GameConfiguration.fromArgs(args)).createGameModel(simulationManager);
+        }
+
+        long tick() {
+            simulationManager.tick();
+            return gameModel.computeChecksum();
+        }
+    }
+
+    @Test
+    @DisplayName("two games with the same seed should stay identical tick by tick")
+    void sameSeedShouldGiveIdenticalRuns() {
+        Run first = new Run("--start-ants=200", "--seed=7", "--map-size=100,100");
+        Run second = new Run("--start-ants=200", "--seed=7", "--map-size=100,100");
+
+        assertEquals(first.gameModel.computeChecksum(), second.gameModel.computeChecksum());
+        for (int i = 1; i <= TICKS; i++) {
+            assertEquals(first.tick(), second.tick(), "diverged at tick " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("parallel entity updates should give the same run as serial ones")
+    void parallelShouldMatchSerial() {
+        Run serial = new Run("--start-ants=600", "--seed=7", "--map-size=100,100");
+        Run parallel = new Run("--start-ants=600", "--seed=7", "--map-size=100,100", "--parallel-entities");
+
+        for (int i = 1; i <= TICKS; i++) {
+            assertEquals(serial.tick(), parallel.tick(), "diverged at tick " + i);
+        }
+        assertTrue(parallel.gameModel.getTotalAnts() > PARALLEL_BATCH_SIZE,
+                "too few ants left to update in parallel");
+    }
+
+    @Test
+    @DisplayName("games with different seeds should differ")
+    void differentSeedsShouldDiffer() {
+        Run first = new Run("--start-ants=200", "--seed=7", "--map-size=100,100");
+        Run second = new Run("--start-ants=200", "--seed=8", "--map-size=100,100");
+
+        first.tick();
+        second.tick();
+        assertNotEquals(first.gameModel.computeChecksum(), second.gameModel.computeChecksum());
+    }
+}
@@ -0,0 +1,104 @@
+package se.chalmers.tda367.team15.game.model.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.Vector2;
+
+class KinematicsStoreTest {
+
+    private static class Dummy extends Entity {
+        int collisions = 0;
+
+        Dummy(float x, float y) {
+            super(new Vector2(x, y), 0);
+        }
+
+        @Override
+        protected void handleCollision() {
+            collisions++;
+            super.handleCollision();
+        }
+
+        @Override
+        public String getTypeId() {
+            return "dummy";
+        }
+    }
+
+    private KinematicsStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new KinematicsStore(2);
+    }
+
+    @Test
+    @DisplayName("entities should keep their kinematics when added to a store")
+    void addShouldKeepKinematics() {
+        Dummy entity = new Dummy(3, 4);
+        entity.setVelocity(new Vector2(1, 2));
+
+        store.add(entity);
+
+        assertEquals(new Vector2(3, 4), entity.getPosition());
+        assertEquals(new Vector2(1, 2), entity.getVelocity());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("removing an entity should not affect the others")
+    void removeShouldKeepOtherEntities() {
+        Dummy first = new Dummy(1, 1);
+        Dummy second = new Dummy(2, 2);
+        Dummy third = new Dummy(3, 3);
+        store.add(first);
+        store.add(second);
+        store.add(third);
+
+        store.remove(first);
+        first.moveTo(new Vector2(10, 10));
+
+        assertEquals(2, store.size());
+        assertEquals(new Vector2(10, 10), first.getPosition());
+        assertEquals(new Vector2(2, 2), second.getPosition());
+        assertEquals(new Vector2(3, 3), third.getPosition());
+    }
+
+    @Test
+    @DisplayName("integrate should move entities by their velocity")
+    void integrateShouldMoveEntities() {
+        Dummy entity = new Dummy(0, 0);
+        entity.setVelocity(new Vector2(0, 2));
+        store.add(entity);
+
+        store.integrate(0.5f);
+
+        assertEquals(new Vector2(0, 1), entity.getPosition());
+        assertEquals(0f, entity.getRotation(), 1e-6f);
+    }
+
+    @Test
+    @DisplayName("integrate should stop blocked entities and report the collision")
+    void integrateShouldHandleCollisions() {
+        Dummy blocked = new Dummy(0, 0);
+        blocked.setVelocity(new Vector2(1, 0));
+        blocked.setMovementStrategy(position -> position.x < 0.5f);
+        Dummy free = new Dummy(0, 0);
+        free.setVelocity(new Vector2(1, 0));
+        store.add(blocked);
+        store.add(free);
+
+        store.integrate(1f);
+
+        assertEquals(new Vector2(0, 0), blocked.getPosition());
+        assertEquals(1, blocked.collisions);
+        assertTrue(blocked.getVelocity().isZero());
+        assertEquals(new Vector2(1, 0), free.getPosition());
+        assertEquals(0, free.collisions);
+    }
+}
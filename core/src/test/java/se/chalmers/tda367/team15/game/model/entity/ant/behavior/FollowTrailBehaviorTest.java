@@ -0,0 +1,106 @@
+package se.chalmers.tda367.team15.game.model.entity.ant.behavior;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.DestructionListener;
+import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
+import se.chalmers.tda367.team15.game.model.entity.ant.AntTypeRegistry;
+import se.chalmers.tda367.team15.game.model.managers.EntityManager;
+import se.chalmers.tda367.team15.game.model.managers.PheromoneManager;
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.structure.Colony;
+import se.chalmers.tda367.team15.game.model.structure.resource.ResourceType;
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerationResult;
+import se.chalmers.tda367.team15.game.model.world.Tile;
+import se.chalmers.tda367.team15.game.model.world.TileType;
+import se.chalmers.tda367.team15.game.model.world.WorldMap;
+
+class FollowTrailBehaviorTest {
+    private static final int MAP_SIZE = 40;
+    // The first cell east of the colony
+    private static final GridPoint2 TRAIL_CELL = new GridPoint2(8, 0);
+
+    private Ant ant;
+    private Pheromone pheromone;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = new EntityManager(false);
+        PheromoneManager pheromoneManager = new PheromoneManager(new GridPoint2(0, 0),
+                new PheromoneGridConverter(4), 4);
+        pheromoneManager.addPheromone(TRAIL_CELL, PheromoneType.GATHER);
+        pheromone = pheromoneManager.getPheromoneAt(TRAIL_CELL, PheromoneType.GATHER);
+
+        AntTypeRegistry antTypeRegistry = new AntTypeRegistry();
+        GameConfiguration.registerAntTypes(antTypeRegistry);
+        AntType worker = antTypeRegistry.get("worker").orElseThrow();
+
+        // Standing on the center of the cell, so the ant reaches it without moving
+        PheromoneGridConverter converter = pheromoneManager.getConverter();
+        Vector2 position = new Vector2(converter.pheromoneGridToWorldX(TRAIL_CELL.x),
+                converter.pheromoneGridToWorldY(TRAIL_CELL.y));
+        ant = new Ant(position, pheromoneManager, worker,
+                new WorldMap(MAP_SIZE, MAP_SIZE, FollowTrailBehaviorTest::flatTerrain),
+                new Colony(new GridPoint2(0, 0), entityManager, 0), entityManager, new HashMap<>(),
+                new DestructionListener(), 1);
+        ant.setFollowTrailBehaviour();
+    }
+
+    private static TerrainGenerationResult flatTerrain(int width, int height) {
+        Tile[][] tiles = new Tile[width][height];
+        Tile grass = new Tile(0, TileType.GRASS);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                tiles[x][y] = grass;
+            }
+        }
+        return new TerrainGenerationResult(tiles, new ArrayList<>());
+    }
+
+    private void tick() {
+        ant.updateBehavior();
+        ant.applyUpdate();
+    }
+
+    @Test
+    @DisplayName("an ant on a trail should be counted on its pheromone")
+    void antOnTrailShouldBeCounted() {
+        tick();
+
+        assertEquals(1, pheromone.getAntCount());
+    }
+
+    @Test
+    @DisplayName("an ant leaving the trail should no longer be counted")
+    void antLeavingTrailShouldNotBeCounted() {
+        tick();
+        // Full at the end of the trail closest to the colony, so it leaves the trail
+        ant.getInventory().addResource(ResourceType.FOOD, ant.getInventory().getRemainingCapacity());
+        tick();
+
+        assertEquals(0, pheromone.getAntCount());
+    }
+
+    @Test
+    @DisplayName("an ant dying on the trail should no longer be counted")
+    void antDyingOnTrailShouldNotBeCounted() {
+        tick();
+        ant.takeDamage(Float.MAX_VALUE);
+
+        assertEquals(0, pheromone.getAntCount());
+    }
+}
@@ -1,14 +1,19 @@
 package se.chalmers.tda367.team15.game.model.entity.ant.behavior;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,7 +23,6 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import com.badlogic.gdx.math.GridPoint2;
-import com.badlogic.gdx.math.Vector2;
 
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
@@ -49,6 +53,11 @@ class WanderBehaviorTest {
     @Mock
     private AntType antType;
 
+    @BeforeEach
+    void setUp() {
+        when(ant.getRandom()).thenReturn(new Random(42));
+    }
+
     // ========== Trail Re-entry Cooldown Tests ==========
 
     @Test
@@ -59,21 +68,25 @@ class WanderBehaviorTest {
 
         // Setup pheromones in range
         GridPoint2 gridPos = new GridPoint2(0, 0);
-        when(ant.getGridPosition()).thenReturn(gridPos);
+        when(ant.getGridX()).thenReturn(gridPos.x);
+        when(ant.getGridY()).thenReturn(gridPos.y);
         when(ant.getType()).thenReturn(antType);
         when(ant.getVisionRadius()).thenReturn(8);
-        when(ant.getVelocity()).thenReturn(new Vector2(1, 0));
-        when(ant.getPosition()).thenReturn(new Vector2(0, 0));
+        when(ant.getVelocityX()).thenReturn(1f);
+        when(ant.getX()).thenReturn(0f);
+        when(ant.getY()).thenReturn(0f);
         when(ant.getSpeed()).thenReturn(1.0f);
-        when(home.getPosition()).thenReturn(new Vector2(0, 0));
+        when(home.getX()).thenReturn(0f);
+        when(home.getY()).thenReturn(0f);
         when(antType.allowedPheromones()).thenReturn(Set.of(PheromoneType.EXPLORE));
         when(antType.homeBias()).thenReturn(0.0f);
 
         Pheromone nearbyPheromone = new Pheromone(gridPos, PheromoneType.EXPLORE, 1);
-        when(pheromoneManager.getPheromonesIn3x3(gridPos, Set.of(PheromoneType.EXPLORE)))
-                .thenReturn(List.of(nearbyPheromone));
+        doAnswer(invocation -> invocation.<List<Pheromone>>getArgument(3).add(nearbyPheromone))
+                .when(pheromoneManager)
+                .getPheromonesIn3x3(eq(gridPos.x), eq(gridPos.y), eq(PheromoneType.EXPLORE.bit()), any());
         // No enemies in sight
-        when(entityQuery.getEntitiesOfType(Termite.class)).thenReturn(Collections.emptyList());
+        when(entityQuery.findClosest(eq(Termite.class), anyFloat(), anyFloat(), anyFloat(), any())).thenReturn(null);
 
         // When: update is called
         behavior.update(pheromoneManager);
@@ -90,7 +103,7 @@ class WanderBehaviorTest {
 
         // Setup: no enemies in sight
         when(ant.getVisionRadius()).thenReturn(8);
-        when(entityQuery.getEntitiesOfType(Termite.class)).thenReturn(Collections.emptyList());
+        when(entityQuery.findClosest(eq(Termite.class), anyFloat(), anyFloat(), anyFloat(), any())).thenReturn(null);
 
         // When: update is called once
         behavior.update(pheromoneManager);
@@ -107,22 +120,26 @@ class WanderBehaviorTest {
 
         // Setup pheromones in range
         GridPoint2 gridPos = new GridPoint2(0, 0);
-        when(ant.getGridPosition()).thenReturn(gridPos);
+        when(ant.getGridX()).thenReturn(gridPos.x);
+        when(ant.getGridY()).thenReturn(gridPos.y);
         when(ant.getType()).thenReturn(antType);
         when(ant.getVisionRadius()).thenReturn(8);
-        when(ant.getPosition()).thenReturn(new Vector2(0, 0));
+        when(ant.getX()).thenReturn(0f);
+        when(ant.getY()).thenReturn(0f);
         when(ant.getSpeed()).thenReturn(1.0f);
-        when(ant.getVelocity()).thenReturn(new Vector2(1, 0));
+        when(ant.getVelocityX()).thenReturn(1f);
         when(ant.getRotation()).thenReturn(0.0f);
-        when(home.getPosition()).thenReturn(new Vector2(0, 0));
+        when(home.getX()).thenReturn(0f);
+        when(home.getY()).thenReturn(0f);
         when(antType.allowedPheromones()).thenReturn(Set.of(PheromoneType.EXPLORE));
         when(antType.homeBias()).thenReturn(0.0f);
         // No enemies in sight
-        when(entityQuery.getEntitiesOfType(Termite.class)).thenReturn(Collections.emptyList());
+        when(entityQuery.findClosest(eq(Termite.class), anyFloat(), anyFloat(), anyFloat(), any())).thenReturn(null);
 
         Pheromone nearbyPheromone = new Pheromone(gridPos, PheromoneType.EXPLORE, 1);
-        when(pheromoneManager.getPheromonesIn3x3(gridPos, Set.of(PheromoneType.EXPLORE)))
-                .thenReturn(List.of(nearbyPheromone));
+        doAnswer(invocation -> invocation.<List<Pheromone>>getArgument(3).add(nearbyPheromone))
+                .when(pheromoneManager)
+                .getPheromonesIn3x3(eq(gridPos.x), eq(gridPos.y), eq(PheromoneType.EXPLORE.bit()), any());
 
         // When: update is called many times to exhaust cooldown (30 frames)
         for (int i = 0; i < 31; i++) {
@@ -141,12 +158,14 @@ class WanderBehaviorTest {
 
         // Setup enemy in sight
         Termite termite = mock(Termite.class);
-        when(termite.getPosition()).thenReturn(new Vector2(1, 1)); // nearby
+        when(termite.getX()).thenReturn(1f); // nearby
+        when(termite.getY()).thenReturn(1f);
         when(termite.getFaction()).thenReturn(Faction.TERMITE_PROTECTORATE);
-        when(ant.getPosition()).thenReturn(new Vector2(0, 0));
+        when(ant.getX()).thenReturn(0f);
+        when(ant.getY()).thenReturn(0f);
         when(ant.getFaction()).thenReturn(Faction.DEMOCRATIC_REPUBLIC_OF_ANTS);
         when(ant.getVisionRadius()).thenReturn(8);
-        when(entityQuery.getEntitiesOfType(Termite.class)).thenReturn(List.of(termite));
+        when(entityQuery.findClosest(eq(Termite.class), anyFloat(), anyFloat(), anyFloat(), any())).thenReturn(termite);
 
         // When: update is called
         behavior.update(pheromoneManager);
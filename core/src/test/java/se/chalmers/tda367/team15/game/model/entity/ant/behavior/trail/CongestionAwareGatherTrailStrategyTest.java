@@ -0,0 +1,109 @@
+package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
+import se.chalmers.tda367.team15.game.model.entity.ant.Inventory;
+import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+
+@ExtendWith(MockitoExtension.class)
+class CongestionAwareGatherTrailStrategyTest {
+
+    private CongestionAwareGatherTrailStrategy strategy;
+
+    @Mock
+    private Ant ant;
+
+    @Mock
+    private Inventory inventory;
+
+    @Mock
+    private FollowTrailBehavior behavior;
+
+    private final TrailFixture trail = new TrailFixture(PheromoneType.GATHER);
+    private final PheromoneUsageProvider pheromones = trail.getPheromones();
+
+    @BeforeEach
+    void setUp() {
+        strategy = new CongestionAwareGatherTrailStrategy();
+        lenient().when(ant.getInventory()).thenReturn(inventory);
+        lenient().when(ant.getRandom()).thenReturn(new Random(42));
+        lenient().when(behavior.isOutwards()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("should prefer the fork with fewer ants on it")
+    void shouldPreferLessCrowdedFork() {
+        when(inventory.isFull()).thenReturn(false);
+
+        Pheromone current = trail.place(0, 0, 1);
+        Pheromone crowded = trail.place(1, 0, 2);
+        Pheromone empty = trail.place(0, 1, 2);
+        for (int i = 0; i < 3; i++) {
+            crowded.incrementAnts();
+        }
+
+        int picksOfEmpty = 0;
+        for (int i = 0; i < 400; i++) {
+            if (strategy.selectNextPheromone(ant, pheromones, current, behavior) == empty) {
+                picksOfEmpty++;
+            }
+        }
+
+        // Weighted 1 : 1/4, so the empty cell should get about 80% of the picks
+        assertTrue(picksOfEmpty > 280 && picksOfEmpty < 360, "Empty fork picked " + picksOfEmpty + " times");
+    }
+
+    @Test
+    @DisplayName("should still pick a crowded cell when it is the only way forward")
+    void shouldPickCrowdedCellWhenOnlyOption() {
+        when(inventory.isFull()).thenReturn(false);
+
+        Pheromone current = trail.place(0, 0, 1);
+        Pheromone next = trail.place(1, 0, 2);
+        for (int i = 0; i < 20; i++) {
+            next.incrementAnts();
+        }
+
+        assertSame(next, strategy.selectNextPheromone(ant, pheromones, current, behavior));
+    }
+
+    @Test
+    @DisplayName("should turn around at dead ends like the plain gather strategy")
+    void shouldTurnAroundAtDeadEnd() {
+        when(inventory.isFull()).thenReturn(false);
+
+        Pheromone start = trail.place(1, 0, 1);
+        Pheromone end = trail.place(2, 0, 2);
+
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, end, behavior);
+
+        verify(behavior).flipDirection();
+        assertNotNull(result);
+    }
+
+    @Test
+    @DisplayName("should return home by the shortest way when inventory is full")
+    void shouldReturnHomeWhenFull() {
+        when(inventory.isFull()).thenReturn(true);
+
+        Pheromone current = trail.place(2, 0, 2);
+        trail.place(3, 0, 3);
+        Pheromone homeward = trail.place(1, 0, 1);
+
+        assertEquals(homeward, strategy.selectNextPheromone(ant, pheromones, current, behavior));
+    }
+}
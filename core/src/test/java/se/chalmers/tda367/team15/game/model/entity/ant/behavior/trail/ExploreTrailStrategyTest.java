@@ -3,9 +3,7 @@ package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,10 +12,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.badlogic.gdx.math.GridPoint2;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
 
@@ -32,9 +29,13 @@ class ExploreTrailStrategyTest {
     @Mock
     private FollowTrailBehavior behavior;
 
+    private final TrailFixture trail = new TrailFixture(PheromoneType.EXPLORE);
+    private final PheromoneUsageProvider pheromones = trail.getPheromones();
+
     @BeforeEach
     void setUp() {
         strategy = new ExploreTrailStrategy();
+        lenient().when(ant.getRandom()).thenReturn(new Random(42));
     }
 
     // ========== Core Behavior: Walk Outward Then Wander ==========
@@ -42,13 +43,11 @@ class ExploreTrailStrategyTest {
     @Test
     @DisplayName("should move outward initially (prefer higher distance)")
     void shouldMoveOutwardInitially() {
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.EXPLORE, 1);
-        Pheromone outward = new Pheromone(new GridPoint2(1, 0), PheromoneType.EXPLORE, 2);
-        Pheromone backward = new Pheromone(new GridPoint2(-1, 0), PheromoneType.EXPLORE, 0);
-
-        List<Pheromone> neighbors = Arrays.asList(outward, backward);
+        Pheromone current = trail.place(0, 0, 2);
+        Pheromone outward = trail.place(1, 0, 3);
+        Pheromone backward = trail.place(-1, 0, 1);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         assertEquals(outward, result, "Should move outward (higher distance)");
     }
@@ -56,15 +55,13 @@ class ExploreTrailStrategyTest {
     @Test
     @DisplayName("should pick from outward options randomly")
     void shouldPickFromOutwardOptionsRandomly() {
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.EXPLORE, 1);
-        Pheromone outward1 = new Pheromone(new GridPoint2(1, 0), PheromoneType.EXPLORE, 2);
-        Pheromone outward2 = new Pheromone(new GridPoint2(0, 1), PheromoneType.EXPLORE, 3);
-
-        List<Pheromone> neighbors = Arrays.asList(outward1, outward2);
+        Pheromone current = trail.place(0, 0, 2);
+        Pheromone outward1 = trail.place(1, 0, 3);
+        Pheromone outward2 = trail.place(0, 1, 4);
 
         // Run multiple times and verify result is always an outward option
         for (int i = 0; i < 10; i++) {
-            Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+            Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
             assertTrue(result == outward1 || result == outward2, "Should pick an outward option");
         }
     }
@@ -72,12 +69,10 @@ class ExploreTrailStrategyTest {
     @Test
     @DisplayName("should leave trail at end (return null to trigger wander)")
     void shouldLeaveTrailAtEnd() {
-        Pheromone current = new Pheromone(new GridPoint2(2, 0), PheromoneType.EXPLORE, 2);
-        Pheromone backward = new Pheromone(new GridPoint2(1, 0), PheromoneType.EXPLORE, 1);
-
-        List<Pheromone> neighbors = Collections.singletonList(backward);
+        Pheromone current = trail.place(2, 0, 3);
+        Pheromone backward = trail.place(1, 0, 2);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         // Should return null to leave trail and start wandering
         assertNull(result, "Should leave trail at end (return null) to start wandering");
@@ -87,11 +82,11 @@ class ExploreTrailStrategyTest {
     @DisplayName("should NOT return along trail (unlike Gather)")
     void shouldNotReturnAlongTrail() {
         // Simulate reaching end of trail
-        Pheromone end = new Pheromone(new GridPoint2(3, 0), PheromoneType.EXPLORE, 3);
-        Pheromone backward = new Pheromone(new GridPoint2(2, 0), PheromoneType.EXPLORE, 2);
+        Pheromone end = trail.place(3, 0, 4);
+        Pheromone backward = trail.place(2, 0, 3);
 
         // First call at trail end
-        Pheromone result = strategy.selectNextPheromone(ant, Collections.singletonList(backward), end, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, end, behavior);
 
         // Should leave trail, NOT go backward
         assertNull(result, "Should leave trail, not return along it");
@@ -102,10 +97,9 @@ class ExploreTrailStrategyTest {
     @Test
     @DisplayName("should return null when no neighbors available")
     void shouldReturnNullWhenNoNeighbors() {
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.EXPLORE, 1);
-        List<Pheromone> neighbors = Collections.emptyList();
+        Pheromone current = trail.place(0, 0, 2);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         assertNull(result);
     }
@@ -113,7 +107,7 @@ class ExploreTrailStrategyTest {
     @Test
     @DisplayName("onTrailEnd should set ant to wander behavior")
     void onTrailEndShouldSetWanderBehavior() {
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.EXPLORE, 1);
+        Pheromone current = trail.place(0, 0, 2);
 
         strategy.onTrailEnd(ant, current, behavior);
 
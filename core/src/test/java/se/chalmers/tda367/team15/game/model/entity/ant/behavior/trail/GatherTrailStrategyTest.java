@@ -3,10 +3,8 @@ package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,11 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.badlogic.gdx.math.GridPoint2;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.Inventory;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
 
@@ -38,10 +35,14 @@ class GatherTrailStrategyTest {
     @Mock
     private FollowTrailBehavior behavior;
 
+    private final TrailFixture trail = new TrailFixture(PheromoneType.GATHER);
+    private final PheromoneUsageProvider pheromones = trail.getPheromones();
+
     @BeforeEach
     void setUp() {
         strategy = new GatherTrailStrategy();
         lenient().when(ant.getInventory()).thenReturn(inventory);
+        lenient().when(ant.getRandom()).thenReturn(new Random(42));
         lenient().when(behavior.isOutwards()).thenReturn(true);
     }
 
@@ -52,16 +53,15 @@ class GatherTrailStrategyTest {
     void shouldPickRandomlyAtForks() {
         when(inventory.isFull()).thenReturn(false);
 
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.GATHER, 1);
+        Pheromone current = trail.place(0, 0, 1);
         // Two forward options with DIFFERENT distances (like a real fork)
-        Pheromone option1 = new Pheromone(new GridPoint2(1, 0), PheromoneType.GATHER, 2);
-        Pheromone option2 = new Pheromone(new GridPoint2(0, 1), PheromoneType.GATHER, 3);
-        List<Pheromone> neighbors = Arrays.asList(option1, option2);
+        Pheromone option1 = trail.place(1, 0, 2);
+        Pheromone option2 = trail.place(0, 1, 3);
 
         Set<Pheromone> results = new HashSet<>();
         // Run multiple times - random should give different results
         for (int i = 0; i < 50; i++) {
-            Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+            Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
             assertNotNull(result);
             results.add(result);
         }
@@ -77,12 +77,11 @@ class GatherTrailStrategyTest {
         when(behavior.isOutwards()).thenReturn(false); // Already turned around
 
         // Now at mid (dist 2), should be able to continue backward
-        Pheromone end = new Pheromone(new GridPoint2(3, 0), PheromoneType.GATHER, 3);
-        Pheromone mid = new Pheromone(new GridPoint2(2, 0), PheromoneType.GATHER, 2);
-        Pheromone start = new Pheromone(new GridPoint2(1, 0), PheromoneType.GATHER, 1);
-        List<Pheromone> neighbors = Arrays.asList(end, start);
+        Pheromone end = trail.place(3, 0, 3);
+        Pheromone mid = trail.place(2, 0, 2);
+        Pheromone start = trail.place(1, 0, 1);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, mid, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, mid, behavior);
 
         // Should pick something (continue wandering), not leave trail
         assertNotNull(result, "Should continue wandering on trail");
@@ -95,12 +94,11 @@ class GatherTrailStrategyTest {
     void shouldReturnHomeWhenFull() {
         when(inventory.isFull()).thenReturn(true);
 
-        Pheromone current = new Pheromone(new GridPoint2(2, 0), PheromoneType.GATHER, 2);
-        Pheromone outward = new Pheromone(new GridPoint2(3, 0), PheromoneType.GATHER, 3);
-        Pheromone homeward = new Pheromone(new GridPoint2(1, 0), PheromoneType.GATHER, 1);
-        List<Pheromone> neighbors = Arrays.asList(outward, homeward);
+        Pheromone current = trail.place(2, 0, 2);
+        Pheromone outward = trail.place(3, 0, 3);
+        Pheromone homeward = trail.place(1, 0, 1);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         assertEquals(homeward, result, "Should go toward lower distance (home) when full");
     }
@@ -111,11 +109,10 @@ class GatherTrailStrategyTest {
         when(inventory.isFull()).thenReturn(true);
 
         // At dist 1, no lower distance available (colony is dist 0 but not a pheromone)
-        Pheromone current = new Pheromone(new GridPoint2(1, 0), PheromoneType.GATHER, 1);
-        Pheromone outward = new Pheromone(new GridPoint2(2, 0), PheromoneType.GATHER, 2);
-        List<Pheromone> neighbors = Collections.singletonList(outward);
+        Pheromone current = trail.place(1, 0, 1);
+        Pheromone outward = trail.place(2, 0, 2);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         assertNull(result, "Should leave trail (return null) when at colony and full");
     }
@@ -126,12 +123,11 @@ class GatherTrailStrategyTest {
         when(inventory.isFull()).thenReturn(false);
         when(behavior.isOutwards()).thenReturn(true);
 
-        Pheromone current = new Pheromone(new GridPoint2(2, 0), PheromoneType.GATHER, 2);
-        Pheromone outward = new Pheromone(new GridPoint2(3, 0), PheromoneType.GATHER, 3);
-        Pheromone homeward = new Pheromone(new GridPoint2(1, 0), PheromoneType.GATHER, 1);
-        List<Pheromone> neighbors = Arrays.asList(outward, homeward);
+        Pheromone current = trail.place(2, 0, 2);
+        Pheromone outward = trail.place(3, 0, 3);
+        Pheromone homeward = trail.place(1, 0, 1);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         // Should pick outward (higher distance), not homeward
         assertEquals(outward, result, "Should go forward (outward) when not full");
@@ -140,16 +136,15 @@ class GatherTrailStrategyTest {
     // ========== Edge Cases ==========
 
     @Test
-    @DisplayName("should return null when no neighbors available")
-    void shouldReturnNullWhenNoNeighbors() {
+    @DisplayName("should stay on the current pheromone when no neighbors available")
+    void shouldStayWhenNoNeighbors() {
         lenient().when(inventory.isFull()).thenReturn(false);
 
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.GATHER, 1);
-        List<Pheromone> neighbors = Collections.emptyList();
+        Pheromone current = trail.place(0, 0, 1);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
-        assertNull(result);
+        assertSame(current, result);
     }
 
     @Test
@@ -3,9 +3,7 @@ package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,11 +12,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.badlogic.gdx.math.GridPoint2;
-
 import se.chalmers.tda367.team15.game.model.entity.ant.Ant;
 import se.chalmers.tda367.team15.game.model.entity.ant.AntType;
 import se.chalmers.tda367.team15.game.model.entity.ant.behavior.FollowTrailBehavior;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
 
@@ -36,12 +33,17 @@ class PatrolTrailStrategyTest {
     @Mock
     private FollowTrailBehavior behavior;
 
+    private final TrailFixture trail = new TrailFixture(PheromoneType.ATTACK);
+    private final PheromoneUsageProvider pheromones = trail.getPheromones();
+
     @BeforeEach
     void setUp() {
         strategy = new PatrolTrailStrategy();
         lenient().when(ant.getType()).thenReturn(antType);
         lenient().when(antType.id()).thenReturn("soldier");
         lenient().when(behavior.isOutwards()).thenReturn(true);
+        lenient().when(behavior.isCountedOn(any())).thenReturn(true);
+        lenient().when(ant.getRandom()).thenReturn(new Random(42));
     }
 
     // ========== Core Behavior: Patrol Along Trail ==========
@@ -50,15 +52,13 @@ class PatrolTrailStrategyTest {
     @DisplayName("should patrol along trail when alone on pheromone")
     void shouldPatrolWhenAloneOnPheromone() {
         // When soldier count is 1 (just this ant), it should patrol normally
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.ATTACK, 1);
+        Pheromone current = trail.place(0, 0, 2);
         current.incrementAnts(); // This ant
 
-        Pheromone outward = new Pheromone(new GridPoint2(1, 0), PheromoneType.ATTACK, 2);
-        Pheromone backward = new Pheromone(new GridPoint2(-1, 0), PheromoneType.ATTACK, 0);
+        Pheromone outward = trail.place(1, 0, 3);
+        Pheromone backward = trail.place(-1, 0, 1);
 
-        List<Pheromone> neighbors = Arrays.asList(outward, backward);
-
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
         // Should pick something (patrol), not null
         assertNotNull(result, "Should patrol on trail when alone");
@@ -68,14 +68,13 @@ class PatrolTrailStrategyTest {
     // ========== Edge Cases ==========
 
     @Test
-    @DisplayName("should return null when no neighbors available")
-    void shouldReturnNullWhenNoNeighbors() {
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.ATTACK, 1);
-        List<Pheromone> neighbors = Collections.emptyList();
+    @DisplayName("should stay on the current pheromone when no neighbors available")
+    void shouldStayWhenNoNeighbors() {
+        Pheromone current = trail.place(0, 0, 2);
 
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
 
-        assertNull(result);
+        assertSame(current, result);
     }
 
     @Test
@@ -90,20 +89,18 @@ class PatrolTrailStrategyTest {
         when(behavior.isOutwards()).thenReturn(true);
 
         // When multiple soldiers are on the same pheromone, there's a chance to turn
-        Pheromone current = new Pheromone(new GridPoint2(0, 0), PheromoneType.ATTACK, 1);
+        Pheromone current = trail.place(0, 0, 2);
         current.incrementAnts(); // This ant
         current.incrementAnts(); // Another soldier
         current.incrementAnts(); // Another soldier
 
         assertEquals(3, current.getAntCount(), "Should have 3 soldiers on pheromone");
 
-        Pheromone outward = new Pheromone(new GridPoint2(1, 0), PheromoneType.ATTACK, 2);
-        Pheromone backward = new Pheromone(new GridPoint2(-1, 0), PheromoneType.ATTACK, 0);
-
-        List<Pheromone> neighbors = Arrays.asList(outward, backward);
+        Pheromone outward = trail.place(1, 0, 3);
+        Pheromone backward = trail.place(-1, 0, 1);
 
         // The result should still be valid even with other soldiers
-        Pheromone result = strategy.selectNextPheromone(ant, neighbors, current, behavior);
+        Pheromone result = strategy.selectNextPheromone(ant, pheromones, current, behavior);
         assertNotNull(result, "Should still patrol even with other soldiers");
     }
 }
@@ -0,0 +1,49 @@
+package se.chalmers.tda367.team15.game.model.entity.ant.behavior.trail;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.model.interfaces.providers.PheromoneUsageProvider;
+import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGrid;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+
+/**
+ * Trail for the trail strategy tests to walk on.
+ *
+ * Pheromones are placed in a real {@link PheromoneGrid}, so their trail flow is
+ * maintained like in the game, and read by the strategies through a mocked
+ * {@link PheromoneUsageProvider}.
+ */
+class TrailFixture {
+    private final PheromoneGrid grid = new PheromoneGrid();
+    private final PheromoneUsageProvider pheromones = mock(PheromoneUsageProvider.class);
+    private final PheromoneType type;
+
+    /**
+     * @param type the type of the pheromones placed by {@link #place}
+     */
+    TrailFixture(PheromoneType type) {
+        this.type = type;
+        lenient().when(pheromones.getTrailFlow(anyInt(), anyInt(), any()))
+                .thenAnswer(inv -> grid.getFlow(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+        lenient().when(pheromones.getPheromoneAt(anyInt(), anyInt(), any(PheromoneType.class)))
+                .thenAnswer(inv -> grid.getPheromoneAt((int) inv.getArgument(0), (int) inv.getArgument(1),
+                        inv.<PheromoneType>getArgument(2)));
+    }
+
+    /**
+     * @return the provider to pass to the strategy, reading the placed pheromones
+     */
+    PheromoneUsageProvider getPheromones() {
+        return pheromones;
+    }
+
+    Pheromone place(int x, int y, int distance) {
+        return grid.addPheromone(new GridPoint2(x, y), type, distance);
+    }
+}
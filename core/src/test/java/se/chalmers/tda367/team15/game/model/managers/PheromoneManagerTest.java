@@ -5,9 +5,15 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,7 +24,9 @@ import com.badlogic.gdx.math.GridPoint2;
 
 import se.chalmers.tda367.team15.game.model.pheromones.Pheromone;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneGridConverter;
+import se.chalmers.tda367.team15.game.model.pheromones.PheromoneStroke;
 import se.chalmers.tda367.team15.game.model.pheromones.PheromoneType;
+import se.chalmers.tda367.team15.game.model.pheromones.RemovalMode;
 
 /**
  * Tests for the {@link PheromoneManager} class.
@@ -198,6 +206,31 @@ class PheromoneManagerTest {
 
             assertTrue(pheromoneManager.getPheromonesAt(pos).isEmpty());
         }
+
+        @Test
+        @DisplayName("re-rooting should keep the trail that still connects another way")
+        void rerootShouldKeepConnectedTrail() {
+            // A loop out of the colony, (20, 20) being the colony center
+            GridPoint2 reached = pheromoneManager.drawPheromonesBetween(null, new GridPoint2(24, 20),
+                    PheromoneType.GATHER);
+            reached = pheromoneManager.drawPheromonesBetween(reached, new GridPoint2(28, 20), PheromoneType.GATHER);
+            reached = pheromoneManager.drawPheromonesBetween(reached, new GridPoint2(28, 24), PheromoneType.GATHER);
+            reached = pheromoneManager.drawPheromonesBetween(reached, new GridPoint2(20, 24), PheromoneType.GATHER);
+            // A branch that only connects through the removed cell
+            pheromoneManager.drawPheromonesBetween(new GridPoint2(25, 20), new GridPoint2(25, 18),
+                    PheromoneType.GATHER);
+            int cells = pheromoneManager.getPheromones().size();
+
+            pheromoneManager.removePheromone(new GridPoint2(25, 20), PheromoneType.GATHER, RemovalMode.REROOT);
+
+            // Reached from (20, 24) at distance 4 instead: 4 + 8 + 4 + 2
+            assertEquals(18, pheromoneManager.getPheromoneAt(new GridPoint2(26, 20), PheromoneType.GATHER)
+                    .getDistance());
+            assertEquals(4, pheromoneManager.getPheromoneAt(new GridPoint2(24, 20), PheromoneType.GATHER)
+                    .getDistance());
+            assertNull(pheromoneManager.getPheromoneAt(new GridPoint2(25, 18), PheromoneType.GATHER));
+            assertEquals(cells - 3, pheromoneManager.getPheromones().size());
+        }
     }
 
     @Nested
@@ -226,6 +259,52 @@ class PheromoneManagerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Strokes")
+    class StrokeTests {
+
+        private int distanceAt(int x, int y) {
+            return pheromoneManager.getPheromoneAt(new GridPoint2(x, y), PheromoneType.GATHER).getDistance();
+        }
+
+        @Test
+        @DisplayName("should shorten the connected trail only once the stroke is committed")
+        void shouldPropagateOnCommit() {
+            // A U-shaped trail from the colony edge, (20, 20) being the colony center
+            GridPoint2 reached = pheromoneManager.drawPheromonesBetween(null, new GridPoint2(24, 20),
+                    PheromoneType.GATHER);
+            reached = pheromoneManager.drawPheromonesBetween(reached, new GridPoint2(30, 20), PheromoneType.GATHER);
+            reached = pheromoneManager.drawPheromonesBetween(reached, new GridPoint2(30, 26), PheromoneType.GATHER);
+            pheromoneManager.drawPheromonesBetween(reached, new GridPoint2(24, 26), PheromoneType.GATHER);
+            assertEquals(22, distanceAt(24, 26));
+
+            // A shortcut from the colony to the end of the U
+            PheromoneStroke stroke = pheromoneManager.beginStroke(PheromoneType.GATHER);
+            stroke.lineTo(new GridPoint2(20, 24));
+            stroke.lineTo(new GridPoint2(20, 26));
+            assertEquals(new GridPoint2(23, 26), stroke.lineTo(new GridPoint2(23, 26)));
+            assertEquals(19, distanceAt(27, 26));
+
+            stroke.commit();
+
+            assertEquals(10, distanceAt(24, 26));
+            assertEquals(13, distanceAt(27, 26));
+        }
+
+        @Test
+        @DisplayName("should stop at cells that do not connect to anything")
+        void shouldStopAtUnconnectedCells() {
+            PheromoneStroke stroke = pheromoneManager.beginStroke(PheromoneType.ATTACK);
+            stroke.lineTo(new GridPoint2(40, 40));
+            GridPoint2 reached = stroke.lineTo(new GridPoint2(45, 40));
+            stroke.commit();
+
+            assertEquals(new GridPoint2(40, 40), reached);
+            assertTrue(pheromoneManager.getPheromones().isEmpty());
+            assertThrows(IllegalStateException.class, () -> stroke.lineTo(new GridPoint2(24, 20)));
+        }
+    }
+
     @Nested
     @DisplayName("Query Methods")
     class QueryTests {
@@ -261,6 +340,58 @@ class PheromoneManagerTest {
 
             assertEquals(3, pheromones.size());
         }
+
+        @Test
+        @DisplayName("should only add the masked types to the buffer in 3x3 area")
+        void shouldFillBufferWithMaskedTypes() {
+            GridPoint2 center = getAdjacentToColony();
+            GridPoint2 right = new GridPoint2(center.x + 1, center.y);
+
+            pheromoneManager.addPheromone(center, PheromoneType.GATHER);
+            pheromoneManager.addPheromone(center, PheromoneType.ATTACK);
+            pheromoneManager.addPheromone(right, PheromoneType.GATHER);
+
+            List<Pheromone> buffer = new ArrayList<>();
+            pheromoneManager.getPheromonesIn3x3(center.x, center.y, PheromoneType.GATHER.bit(), buffer);
+
+            assertEquals(2, buffer.size());
+            assertTrue(buffer.stream().allMatch(p -> p.getType() == PheromoneType.GATHER));
+        }
+    }
+
+    @Nested
+    @DisplayName("Saving and Loading Networks")
+    class NetworkTests {
+
+        @Test
+        @DisplayName("a loaded network should replace the pheromones and keep growing like a drawn one")
+        void loadedNetworkShouldReplacePheromones() throws IOException {
+            GridPoint2 start = getAdjacentToColony();
+            GridPoint2 end = new GridPoint2(start.x + 5, start.y + 3);
+            PheromoneStroke stroke = pheromoneManager.beginStroke(PheromoneType.GATHER);
+            stroke.lineTo(start);
+            assertEquals(end, stroke.lineTo(end));
+            stroke.commit();
+            ByteArrayOutputStream saved = new ByteArrayOutputStream();
+            pheromoneManager.saveNetwork(saved);
+
+            PheromoneManager other = new PheromoneManager(colonyPosition, converter, COLONY_SIZE_TILES);
+            other.addPheromone(getAdjacentToColony(), PheromoneType.ATTACK);
+            other.loadNetwork(new ByteArrayInputStream(saved.toByteArray()));
+
+            assertEquals(pheromoneManager.getPheromones().size(), other.getPheromones().size());
+            for (Pheromone pheromone : pheromoneManager.getPheromones()) {
+                Pheromone loaded = other.getPheromoneAt(pheromone.getPosition(), pheromone.getType());
+                assertNotNull(loaded);
+                assertEquals(pheromone.getDistance(), loaded.getDistance());
+            }
+            assertNull(other.getPheromoneAt(getAdjacentToColony(), PheromoneType.ATTACK));
+
+            GridPoint2 beyond = new GridPoint2(end.x + 1, end.y);
+            assertTrue(other.addPheromone(beyond, PheromoneType.GATHER));
+            assertEquals(other.getPheromoneAt(end, PheromoneType.GATHER).getDistance() + 1,
+                    other.getPheromoneAt(beyond, PheromoneType.GATHER).getDistance());
+        }
     }
 
     @Nested
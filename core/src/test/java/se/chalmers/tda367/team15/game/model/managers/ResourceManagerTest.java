@@ -58,10 +58,12 @@ class ResourceManagerTest {
             ResourceNode node = mock(ResourceNode.class);
 
             Home home = mock(Home.class);
-            when(ant.getPosition()).thenReturn(new Vector2(10, 10));
+            when(ant.getX()).thenReturn(10f);
+            when(ant.getY()).thenReturn(10f);
             when(ant.getInventory()).thenReturn(inventory);
             when(ant.getHome()).thenReturn(home);
-            when(home.getPosition()).thenReturn(new Vector2(100, 100)); // Far away from home
+            when(home.getX()).thenReturn(100f); // Far away from home
+            when(home.getY()).thenReturn(100f);
             when(inventory.isFull()).thenReturn(false);
             when(inventory.isEmpty()).thenReturn(false);
             when(inventory.getRemainingCapacity()).thenReturn(5);
@@ -88,10 +90,12 @@ class ResourceManagerTest {
             ResourceNode node = resourceNodeFactory.createResourceNode(new Vector2(15, 15), 10);
 
             Home home = mock(Home.class);
-            when(ant.getPosition()).thenReturn(new Vector2(10, 10));
+            when(ant.getX()).thenReturn(10f);
+            when(ant.getY()).thenReturn(10f);
             when(ant.getInventory()).thenReturn(inventory);
             when(ant.getHome()).thenReturn(home);
-            when(home.getPosition()).thenReturn(new Vector2(100, 100));
+            when(home.getX()).thenReturn(100f);
+            when(home.getY()).thenReturn(100f);
             when(inventory.isFull()).thenReturn(false);
             when(inventory.isEmpty()).thenReturn(true);
 
@@ -111,10 +115,12 @@ class ResourceManagerTest {
             ResourceNode node = resourceNodeFactory.createResourceNode(new Vector2(11, 11), 10);
 
             Home home = mock(Home.class);
-            when(ant.getPosition()).thenReturn(new Vector2(10, 10));
+            when(ant.getX()).thenReturn(10f);
+            when(ant.getY()).thenReturn(10f);
             when(ant.getInventory()).thenReturn(inventory);
             when(ant.getHome()).thenReturn(home);
-            when(home.getPosition()).thenReturn(new Vector2(100, 100));
+            when(home.getX()).thenReturn(100f);
+            when(home.getY()).thenReturn(100f);
             when(inventory.isFull()).thenReturn(true);
             when(inventory.isEmpty()).thenReturn(false);
 
@@ -137,12 +143,14 @@ class ResourceManagerTest {
             Inventory inventory = mock(Inventory.class);
             Home home = mock(Home.class);
 
-            when(ant.getPosition()).thenReturn(new Vector2(5, 5));
+            when(ant.getX()).thenReturn(5f);
+            when(ant.getY()).thenReturn(5f);
             when(ant.getInventory()).thenReturn(inventory);
             when(inventory.isFull()).thenReturn(true);
             when(inventory.isEmpty()).thenReturn(false);
             when(ant.getHome()).thenReturn(home);
-            when(home.getPosition()).thenReturn(new Vector2(6, 6)); // Distance 2 (within range)
+            when(home.getX()).thenReturn(6f); // Distance 2 (within range)
+            when(home.getY()).thenReturn(6f);
 
             when(entityQuery.getEntitiesOfType(Ant.class)).thenReturn(Collections.singletonList(ant));
 
@@ -158,12 +166,14 @@ class ResourceManagerTest {
             Inventory inventory = mock(Inventory.class);
             Home home = mock(Home.class);
 
-            when(ant.getPosition()).thenReturn(new Vector2(5, 5));
+            when(ant.getX()).thenReturn(5f);
+            when(ant.getY()).thenReturn(5f);
             when(ant.getInventory()).thenReturn(inventory);
             when(inventory.isFull()).thenReturn(true);
             when(inventory.isEmpty()).thenReturn(false);
             when(ant.getHome()).thenReturn(home);
-            when(home.getPosition()).thenReturn(new Vector2(10, 10)); // Distance 10 (out of range)
+            when(home.getX()).thenReturn(10f); // Distance 10 (out of range)
+            when(home.getY()).thenReturn(10f);
 
             when(entityQuery.getEntitiesOfType(Ant.class)).thenReturn(Collections.singletonList(ant));
 
@@ -179,10 +189,12 @@ class ResourceManagerTest {
             Inventory inventory = mock(Inventory.class);
 
             Home home = mock(Home.class);
-            when(ant.getPosition()).thenReturn(new Vector2(5, 5));
+            when(ant.getX()).thenReturn(5f);
+            when(ant.getY()).thenReturn(5f);
             when(ant.getInventory()).thenReturn(inventory);
             when(ant.getHome()).thenReturn(home);
-            when(home.getPosition()).thenReturn(new Vector2(100, 100)); // Just in case
+            when(home.getX()).thenReturn(100f); // Just in case
+            when(home.getY()).thenReturn(100f);
             when(inventory.isFull()).thenReturn(false);
             when(inventory.isEmpty()).thenReturn(true);
 
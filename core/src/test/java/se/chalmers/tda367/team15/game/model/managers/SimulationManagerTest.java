@@ -0,0 +1,180 @@
+package se.chalmers.tda367.team15.game.model.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import se.chalmers.tda367.team15.game.model.SimulationLoad;
+import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
+import se.chalmers.tda367.team15.game.model.profiling.TickProfiler;
+import se.chalmers.tda367.team15.game.model.profiling.TimingSummary;
+
+class SimulationManagerTest {
+    private static final long MS = 1_000_000;
+
+    private SimulationManager simulationManager;
+    private List<String> events;
+
+    @BeforeEach
+    void setUp() {
+        simulationManager = new SimulationManager();
+        events = new ArrayList<>();
+        simulationManager.addUpdateObserver(new SimulationObserver() {
+            @Override
+            public void update(float deltaTime) {
+                events.add("tick");
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("commands should run in submission order")
+    void commandsShouldRunInOrder() {
+        simulationManager.submit(() -> events.add("first"));
+        simulationManager.submit(() -> events.add("second"));
+
+        assertEquals(2, simulationManager.processCommands());
+        assertEquals(List.of("first", "second"), events);
+    }
+
+    @Test
+    @DisplayName("commands should not run until the simulation is handled")
+    void commandsShouldWaitForSimulationThread() {
+        simulationManager.submit(() -> events.add("command"));
+
+        assertTrue(events.isEmpty());
+        assertTrue(simulationManager.handleSimulation());
+        assertEquals("command", events.get(0));
+    }
+
+    @Test
+    @DisplayName("commands should run while paused")
+    void commandsShouldRunWhilePaused() {
+        simulationManager.setTimePaused();
+        simulationManager.submit(() -> events.add("command"));
+
+        assertTrue(simulationManager.handleSimulation());
+        assertEquals(List.of("command"), events);
+        assertFalse(simulationManager.handleSimulation());
+    }
+
+    @Test
+    @DisplayName("tick should count the ticks run")
+    void tickShouldCountTicks() {
+        simulationManager.tick();
+        simulationManager.tick();
+
+        assertEquals(2, simulationManager.getTickCount());
+        assertEquals(List.of("tick", "tick"), events);
+    }
+
+    /**
+     * A simulation manager on a fake clock whose ticks each take the given
+     * number of milliseconds. The returned array holds the clock in nanoseconds.
+     */
+    private long[] slowSimulation(long tickMs) {
+        long[] clock = { 0 };
+        simulationManager = new SimulationManager(() -> clock[0]);
+        simulationManager.addUpdateObserver(new SimulationObserver() {
+            @Override
+            public void update(float deltaTime) {
+                clock[0] += tickMs * MS;
+            }
+        });
+        return clock;
+    }
+
+    @Test
+    @DisplayName("one update should not run more ticks than its budget")
+    void updateShouldRespectTickBudget() {
+        long[] clock = slowSimulation(0);
+
+        clock[0] += 1000 * MS;
+        simulationManager.handleSimulation();
+
+        assertEquals(SimulationManager.MAX_TICKS_PER_UPDATE, simulationManager.getTickCount());
+        assertTrue(simulationManager.getLoad().fallingBehind());
+    }
+
+    @Test
+    @DisplayName("time that cannot be caught up on should be dropped")
+    void backlogShouldBeClamped() {
+        long[] clock = slowSimulation(0);
+
+        // One second is 100 ticks at normal speed
+        clock[0] += 1000 * MS;
+        simulationManager.handleSimulation();
+        while (simulationManager.getLoad().fallingBehind()) {
+            simulationManager.handleSimulation();
+        }
+
+        assertEquals(SimulationManager.MAX_BACKLOG_TICKS, simulationManager.getTickCount());
+        assertEquals(100 - SimulationManager.MAX_BACKLOG_TICKS, simulationManager.getLoad().droppedTicks());
+    }
+
+    @Test
+    @DisplayName("load should compare tick time to the time slice")
+    void loadShouldCompareTickTimeToBudget() {
+        long[] clock = slowSimulation(5);
+
+        clock[0] += 10 * MS;
+        simulationManager.handleSimulation();
+        SimulationLoad load = simulationManager.getLoad();
+
+        assertEquals(5.0, load.tickMs(), 1e-9);
+        assertEquals(10.0, load.budgetMs(), 1e-9);
+        assertEquals(0.5, load.load(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("adaptive speed should slow down when ticks take longer than their slice")
+    void adaptiveSpeedShouldLowerSpeedWhenOverloaded() {
+        long[] clock = slowSimulation(20);
+        simulationManager.setAdaptiveSpeed(true);
+
+        clock[0] += 10 * MS;
+        for (int i = 0; i < 50; i++) {
+            simulationManager.handleSimulation();
+        }
+        SimulationLoad load = simulationManager.getLoad();
+
+        assertTrue(load.speedFactor() < 1);
+        assertEquals(0, load.droppedTicks());
+    }
+
+    @Test
+    @DisplayName("adaptive speed should keep full speed when ticks fit")
+    void adaptiveSpeedShouldKeepSpeedWhenTicksFit() {
+        long[] clock = slowSimulation(1);
+        simulationManager.setAdaptiveSpeed(true);
+
+        for (int i = 0; i < 50; i++) {
+            clock[0] += 10 * MS;
+            simulationManager.handleSimulation();
+        }
+
+        assertEquals(1.0, simulationManager.getLoad().speedFactor(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("a profiler should time every observer")
+    void profilerShouldTimeObservers() {
+        slowSimulation(3);
+        simulationManager.setProfiler(new TickProfiler(2));
+
+        simulationManager.tick();
+        simulationManager.tick();
+        List<TimingSummary> timings = simulationManager.getTimings();
+
+        assertEquals(1, timings.size());
+        assertEquals(2, timings.get(0).calls());
+        assertEquals(3 * MS, timings.get(0).maxNanos());
+    }
+}
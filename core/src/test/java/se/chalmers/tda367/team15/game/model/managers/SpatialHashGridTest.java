@@ -0,0 +1,121 @@
+package se.chalmers.tda367.team15.game.model.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.Vector2;
+
+import se.chalmers.tda367.team15.game.model.interfaces.HasPosition;
+
+class SpatialHashGridTest {
+
+    private static class Point implements HasPosition {
+        private final Vector2 position;
+
+        Point(float x, float y) {
+            this.position = new Vector2(x, y);
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position.cpy();
+        }
+    }
+
+    private SpatialHashGrid<Point> grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new SpatialHashGrid<>(8f);
+    }
+
+    @Test
+    @DisplayName("radius query should only return items inside the radius")
+    void radiusQueryShouldFilterByDistance() {
+        Point near = new Point(3, 4);
+        Point far = new Point(20, 0);
+        grid.add(near);
+        grid.add(far);
+
+        List<Point> result = new ArrayList<>();
+        grid.queryRadius(new Vector2(0, 0), 5f, p -> true, result);
+
+        assertEquals(List.of(near), result);
+    }
+
+    @Test
+    @DisplayName("rectangle query should include items on the edges")
+    void rectangleQueryShouldBeInclusive() {
+        Point corner = new Point(-8, 16);
+        Point outside = new Point(-8.5f, 16);
+        grid.add(corner);
+        grid.add(outside);
+
+        List<Point> result = new ArrayList<>();
+        grid.queryRectangle(-8, 0, 0, 16, p -> true, result);
+
+        assertEquals(List.of(corner), result);
+    }
+
+    @Test
+    @DisplayName("should find closest matching item across cells")
+    void shouldFindClosestMatchingItem() {
+        Point closest = new Point(9, 0);
+        Point skipped = new Point(1, 0);
+        grid.add(new Point(-30, 30));
+        grid.add(closest);
+        grid.add(skipped);
+
+        Point result = grid.findClosest(new Vector2(0, 0), 100f, p -> p != skipped);
+
+        assertSame(closest, result);
+    }
+
+    @Test
+    @DisplayName("should return null when nothing is within max radius")
+    void shouldReturnNullOutsideMaxRadius() {
+        grid.add(new Point(50, 50));
+
+        assertNull(grid.findClosest(new Vector2(0, 0), 10f, p -> true));
+    }
+
+    @Test
+    @DisplayName("should follow items to their new cell after update")
+    void shouldRebucketMovedItems() {
+        Point point = new Point(0, 0);
+        grid.add(point);
+
+        point.position.set(100, 100);
+        grid.update(point);
+
+        List<Point> atOrigin = new ArrayList<>();
+        grid.queryRadius(new Vector2(0, 0), 5f, p -> true, atOrigin);
+        List<Point> atTarget = new ArrayList<>();
+        grid.queryRadius(new Vector2(100, 100), 5f, p -> true, atTarget);
+
+        assertTrue(atOrigin.isEmpty());
+        assertEquals(List.of(point), atTarget);
+    }
+
+    @Test
+    @DisplayName("removed items should not be re-added by update")
+    void updateShouldIgnoreRemovedItems() {
+        Point point = new Point(0, 0);
+        grid.add(point);
+        grid.remove(point);
+
+        grid.update(point);
+
+        assertEquals(0, grid.size());
+        assertNull(grid.findClosest(new Vector2(0, 0), 10f, p -> true));
+    }
+}
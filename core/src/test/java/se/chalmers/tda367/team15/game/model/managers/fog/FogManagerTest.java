@@ -0,0 +1,117 @@
+package se.chalmers.tda367.team15.game.model.managers.fog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import se.chalmers.tda367.team15.game.model.interfaces.EntityQuery;
+import se.chalmers.tda367.team15.game.model.interfaces.providers.VisionProvider;
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerationResult;
+import se.chalmers.tda367.team15.game.model.world.Tile;
+import se.chalmers.tda367.team15.game.model.world.TileType;
+import se.chalmers.tda367.team15.game.model.world.WorldMap;
+
+class FogManagerTest {
+    private static final int SIZE = 100;
+
+    private final List<VisionProvider> providers = new ArrayList<>();
+    private FogManager fogManager;
+
+    @BeforeEach
+    void setUp() {
+        EntityQuery entityQuery = mock(EntityQuery.class);
+        when(entityQuery.getEntitiesOfType(VisionProvider.class)).thenReturn(providers);
+        fogManager = new FogManager(entityQuery, new WorldMap(SIZE, SIZE, FogManagerTest::flatTerrain));
+    }
+
+    private static TerrainGenerationResult flatTerrain(int width, int height) {
+        Tile[][] tiles = new Tile[width][height];
+        Tile grass = new Tile(0, TileType.GRASS);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                tiles[x][y] = grass;
+            }
+        }
+        return new TerrainGenerationResult(tiles, new ArrayList<>());
+    }
+
+    /**
+     * Adds a provider at the world position, which is the tile offset by half
+     * the map.
+     */
+    private VisionProvider addProvider(float x, float y, int radius) {
+        VisionProvider provider = mock(VisionProvider.class);
+        when(provider.getX()).thenReturn(x);
+        when(provider.getY()).thenReturn(y);
+        when(provider.getVisionRadius()).thenReturn(radius);
+        providers.add(provider);
+        return provider;
+    }
+
+    @Test
+    @DisplayName("a provider should reveal again once it moves to another tile")
+    void movedProviderShouldReveal() {
+        VisionProvider provider = addProvider(0.5f, 0.5f, 2);
+        fogManager.update(0.01f);
+        long version = fogManager.getVersion();
+        assertFalse(fogManager.isDiscovered(60, 50));
+
+        // Moving within the tile reveals nothing new
+        when(provider.getX()).thenReturn(0.9f);
+        fogManager.update(0.01f);
+        assertEquals(version, fogManager.getVersion());
+
+        when(provider.getX()).thenReturn(8.5f);
+        fogManager.update(0.01f);
+        assertTrue(fogManager.isDiscovered(60, 50));
+        assertTrue(fogManager.getVersion() > version);
+    }
+
+    @Test
+    @DisplayName("a provider whose vision grows on the same tile should reveal the larger disc")
+    void grownVisionShouldReveal() {
+        VisionProvider provider = addProvider(0.5f, 0.5f, 2);
+        fogManager.update(0.01f);
+        assertFalse(fogManager.isDiscovered(56, 50));
+
+        when(provider.getVisionRadius()).thenReturn(6);
+        fogManager.update(0.01f);
+        assertTrue(fogManager.isDiscovered(56, 50));
+    }
+
+    @Test
+    @DisplayName("tiles a provider moves away from should stay discovered but no longer be visible")
+    void leftTilesShouldNotBeVisible() {
+        VisionProvider provider = addProvider(0.5f, 0.5f, 2);
+        fogManager.update(0.01f);
+        assertTrue(fogManager.isVisible(50, 50));
+
+        when(provider.getX()).thenReturn(10.5f);
+        fogManager.update(0.01f);
+        assertTrue(fogManager.isDiscovered(50, 50));
+        assertFalse(fogManager.isVisible(50, 50));
+        assertTrue(fogManager.isVisible(60, 50));
+    }
+
+    @Test
+    @DisplayName("tiles should stay visible while another provider still watches them")
+    void overlappingProvidersShouldKeepTilesVisible() {
+        addProvider(0.5f, 0.5f, 3);
+        VisionProvider leaving = addProvider(1.5f, 0.5f, 3);
+        fogManager.update(0.01f);
+
+        providers.remove(leaving);
+        fogManager.update(0.01f);
+        assertTrue(fogManager.isVisible(51, 50));
+        assertFalse(fogManager.isVisible(54, 50));
+    }
+}
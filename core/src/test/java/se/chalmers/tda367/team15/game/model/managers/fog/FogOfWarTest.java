@@ -0,0 +1,237 @@
+package se.chalmers.tda367.team15.game.model.managers.fog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import se.chalmers.tda367.team15.game.model.world.TerrainGenerationResult;
+import se.chalmers.tda367.team15.game.model.world.Tile;
+import se.chalmers.tda367.team15.game.model.world.TileType;
+import se.chalmers.tda367.team15.game.model.world.WorldMap;
+
+class FogOfWarTest {
+    // Not a multiple of 64, so rows end inside a word
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = 90;
+
+    private FogOfWar fogOfWar;
+    private boolean[][] expected;
+
+    @BeforeEach
+    void setUp() {
+        fogOfWar = new FogOfWar(new WorldMap(WIDTH, HEIGHT, FogOfWarTest::flatTerrain));
+        expected = new boolean[WIDTH][HEIGHT];
+    }
+
+    private static TerrainGenerationResult flatTerrain(int width, int height) {
+        Tile[][] tiles = new Tile[width][height];
+        Tile grass = new Tile(0, TileType.GRASS);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                tiles[x][y] = grass;
+            }
+        }
+        return new TerrainGenerationResult(tiles, new ArrayList<>());
+    }
+
+    /**
+     * Reveals the disc in the expected array, tile by tile.
+     */
+    private void revealExpected(int centerX, int centerY, int radius) {
+        for (int x = Math.max(0, centerX - radius); x <= Math.min(WIDTH - 1, centerX + radius); x++) {
+            for (int y = Math.max(0, centerY - radius); y <= Math.min(HEIGHT - 1, centerY + radius); y++) {
+                int dx = x - centerX;
+                int dy = y - centerY;
+                if (dx * dx + dy * dy <= radius * radius) {
+                    expected[x][y] = true;
+                }
+            }
+        }
+    }
+
+    private void assertMatchesExpected() {
+        for (int x = -1; x <= WIDTH; x++) {
+            for (int y = -1; y <= HEIGHT; y++) {
+                boolean inside = x >= 0 && y >= 0 && x < WIDTH && y < HEIGHT;
+                assertEquals(inside && expected[x][y], fogOfWar.isDiscovered(x, y), x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("reveals should discover the same discs as testing every tile, also across the map edges")
+    void revealsShouldMatchTileByTile() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            int x = random.nextInt(WIDTH + 40) - 20;
+            int y = random.nextInt(HEIGHT + 40) - 20;
+            int radius = random.nextInt(40);
+            fogOfWar.reveal(x, y, radius);
+            revealExpected(x, y, radius);
+        }
+        assertMatchesExpected();
+    }
+
+    @Test
+    @DisplayName("a reveal of radius 0 should discover only the center")
+    void radiusZeroShouldRevealCenter() {
+        fogOfWar.reveal(63, 10, 0);
+        revealExpected(63, 10, 0);
+
+        assertMatchesExpected();
+    }
+
+    @Test
+    @DisplayName("only reveals that discover new tiles should mark the fog dirty")
+    void onlyNewTilesShouldMarkDirty() {
+        fogOfWar.reveal(70, 40, 8);
+        assertTrue(fogOfWar.isDirty());
+        fogOfWar.clearDirty();
+
+        fogOfWar.reveal(71, 40, 5);
+        assertFalse(fogOfWar.isDirty());
+
+        fogOfWar.reveal(71, 40, 9);
+        assertTrue(fogOfWar.isDirty());
+    }
+
+    @Test
+    @DisplayName("the discovered array should follow later reveals")
+    void discoveredArrayShouldFollowReveals() {
+        fogOfWar.reveal(10, 10, 3);
+        assertTrue(fogOfWar.getDiscoveredArray()[10][13]);
+        assertFalse(fogOfWar.getDiscoveredArray()[100][50]);
+
+        fogOfWar.reveal(100, 50, 1);
+        assertTrue(fogOfWar.getDiscoveredArray()[100][50]);
+    }
+
+    @Test
+    @DisplayName("reveals reaching from a finished block into undiscovered ones should still discover them")
+    void finishedBlocksShouldNotHideNeighbours() {
+        // Finishes the blocks around the center, not the ones further east
+        fogOfWar.reveal(24, 24, 24);
+        revealExpected(24, 24, 24);
+        fogOfWar.clearDirty();
+
+        fogOfWar.reveal(24, 24, 20);
+        assertFalse(fogOfWar.isDirty());
+
+        fogOfWar.reveal(46, 24, 3);
+        revealExpected(46, 24, 3);
+        assertTrue(fogOfWar.isDirty());
+        assertMatchesExpected();
+    }
+
+    @Test
+    @DisplayName("discovering the whole map should leave nothing to reveal")
+    void wholeMapShouldBeDiscoverable() {
+        for (int x = 0; x < WIDTH; x += 8) {
+            for (int y = 0; y < HEIGHT; y += 8) {
+                fogOfWar.reveal(x, y, 8);
+                revealExpected(x, y, 8);
+            }
+        }
+        fogOfWar.reveal(WIDTH - 1, HEIGHT - 1, 8);
+        revealExpected(WIDTH - 1, HEIGHT - 1, 8);
+        fogOfWar.clearDirty();
+
+        fogOfWar.reveal(WIDTH / 2, HEIGHT / 2, 200);
+        assertFalse(fogOfWar.isDirty());
+        assertMatchesExpected();
+    }
+
+    @Test
+    @DisplayName("changed areas should cover the newly discovered tiles and little else")
+    void changedAreasShouldCoverNewTiles() {
+        List<int[]> areas = new ArrayList<>();
+        FogProvider.AreaVisitor collect = (x, y, width, height) -> areas.add(new int[] { x, y, width, height });
+
+        long revision = fogOfWar.forEachChangedArea(-1, collect);
+        int total = 0;
+        for (int[] area : areas) {
+            total += area[2] * area[3];
+        }
+        assertEquals(WIDTH * HEIGHT, total);
+
+        areas.clear();
+        fogOfWar.reveal(70, 40, 3);
+        revealExpected(70, 40, 3);
+        revision = fogOfWar.forEachChangedArea(revision, collect);
+        boolean[][] covered = new boolean[WIDTH][HEIGHT];
+        total = 0;
+        for (int[] area : areas) {
+            total += area[2] * area[3];
+            for (int x = area[0]; x < area[0] + area[2]; x++) {
+                for (int y = area[1]; y < area[1] + area[3]; y++) {
+                    covered[x][y] = true;
+                }
+            }
+        }
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                assertTrue(covered[x][y] || !expected[x][y], x + "," + y);
+            }
+        }
+        // The disc touches at most four blocks
+        assertTrue(total <= 4 * FogOfWar.BLOCK_SIZE * FogOfWar.BLOCK_SIZE, "covered " + total + " tiles");
+
+        areas.clear();
+        fogOfWar.reveal(70, 40, 2);
+        fogOfWar.forEachChangedArea(revision, collect);
+        assertTrue(areas.isEmpty());
+    }
+
+    @Test
+    @DisplayName("moving vision discs should leave the tiles covered by the current discs visible")
+    void movingVisionShouldMatchCurrentDiscs() {
+        Random random = new Random(11);
+        int providers = 6;
+        int[][] discs = new int[providers][];
+        for (int i = 0; i < 300; i++) {
+            int provider = random.nextInt(providers);
+            int[] old = discs[provider];
+            int[] moved;
+            if (old != null && random.nextInt(8) == 0) {
+                moved = null;
+            } else if (old != null && random.nextBoolean()) {
+                moved = new int[] { old[0] + random.nextInt(5) - 2, old[1] + random.nextInt(5) - 2, old[2] };
+            } else {
+                moved = new int[] { random.nextInt(WIDTH + 40) - 20, random.nextInt(HEIGHT + 40) - 20,
+                        random.nextInt(20) };
+            }
+            fogOfWar.moveVision(old == null ? 0 : old[0], old == null ? 0 : old[1], old == null ? -1 : old[2],
+                    moved == null ? 0 : moved[0], moved == null ? 0 : moved[1], moved == null ? -1 : moved[2]);
+            discs[provider] = moved;
+        }
+
+        for (int[] disc : discs) {
+            if (disc != null) {
+                revealExpected(disc[0], disc[1], disc[2]);
+            }
+        }
+        for (int x = -1; x <= WIDTH; x++) {
+            for (int y = -1; y <= HEIGHT; y++) {
+                boolean inside = x >= 0 && y >= 0 && x < WIDTH && y < HEIGHT;
+                assertEquals(inside && expected[x][y], fogOfWar.isVisible(x, y), x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("vision should not discover tiles by itself")
+    void visionShouldNotDiscover() {
+        fogOfWar.moveVision(0, 0, -1, 40, 40, 5);
+
+        assertTrue(fogOfWar.isVisible(40, 40));
+        assertFalse(fogOfWar.isDiscovered(40, 40));
+    }
+}
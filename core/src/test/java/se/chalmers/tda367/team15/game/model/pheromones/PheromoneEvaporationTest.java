@@ -0,0 +1,147 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+import se.chalmers.tda367.team15.game.model.managers.PheromoneManager;
+
+class PheromoneEvaporationTest {
+    private static final int LIFETIME = 100;
+
+    private PheromoneGrid grid;
+    private PheromoneEvaporation evaporation;
+    private final List<GridPoint2> expired = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        grid = new PheromoneGrid(LIFETIME);
+        evaporation = grid.getEvaporation();
+    }
+
+    /**
+     * Advances the given number of ticks, removing the pheromones that expire.
+     */
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            evaporation.advance((x, y, type) -> {
+                expired.add(new GridPoint2(x, y));
+                grid.removePheromone(new GridPoint2(x, y), type);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("a pheromone no ant steps onto should expire after its lifetime")
+    void unvisitedPheromoneShouldExpire() {
+        grid.addPheromone(new GridPoint2(-3, 70), PheromoneType.GATHER, 1);
+
+        advance(LIFETIME - 1);
+        assertTrue(expired.isEmpty());
+        assertEquals(0.01f, grid.getPheromoneAt(-3, 70, PheromoneType.GATHER).getStrength(), 1e-6);
+
+        advance(1);
+        assertEquals(List.of(new GridPoint2(-3, 70)), expired);
+    }
+
+    @Test
+    @DisplayName("an ant stepping onto a pheromone should restart its lifetime")
+    void visitShouldRestartLifetime() {
+        Pheromone pheromone = grid.addPheromone(new GridPoint2(5, 5), PheromoneType.GATHER, 1);
+        advance(60);
+        pheromone.incrementAnts();
+        assertEquals(1f, pheromone.getStrength());
+
+        advance(99);
+        assertTrue(expired.isEmpty());
+        advance(1);
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    @DisplayName("a pheromone should be kept while the trail further out is alive")
+    void trailShouldEvaporateFromItsEnd() {
+        Pheromone first = grid.addPheromone(new GridPoint2(0, 0), PheromoneType.GATHER, 1);
+        Pheromone second = grid.addPheromone(new GridPoint2(1, 0), PheromoneType.GATHER, 2);
+        Pheromone third = grid.addPheromone(new GridPoint2(2, 0), PheromoneType.GATHER, 3);
+        advance(50);
+        // Stepping past the middle of the trail without touching it
+        first.incrementAnts();
+        third.incrementAnts();
+
+        // The end goes first, each step inwards follows one tick later
+        advance(LIFETIME + 2);
+        assertEquals(List.of(new GridPoint2(2, 0), new GridPoint2(1, 0), new GridPoint2(0, 0)), expired);
+        assertNull(grid.getPheromoneAt(0, 0, PheromoneType.GATHER));
+        assertEquals(0f, second.getStrength());
+    }
+
+    @Test
+    @DisplayName("a pheromone removed and placed again should expire once, after its new lifetime")
+    void replacedPheromoneShouldExpireOnce() {
+        GridPoint2 pos = new GridPoint2(5, 5);
+        grid.addPheromone(pos, PheromoneType.GATHER, 1);
+        advance(30);
+        grid.removePheromone(pos, PheromoneType.GATHER);
+        grid.addPheromone(pos, PheromoneType.GATHER, 1);
+
+        advance(LIFETIME - 1);
+        assertTrue(expired.isEmpty());
+        advance(LIFETIME);
+        assertEquals(List.of(pos), expired);
+    }
+
+    @Test
+    @DisplayName("a dead-end spur of a two-wide trail should evaporate without the walked lane beside it")
+    void spurShouldEvaporateAlone() throws IOException {
+        // Two lanes side by side, each one further from the colony per step, the
+        // top one two further out than the bottom one, as a loaded network may
+        // have it. The top lane goes on, the bottom one ends in a spur nobody
+        // walks.
+        PheromoneGrid network = new PheromoneGrid();
+        List<GridPoint2> walked = new ArrayList<>();
+        for (int x = 100; x <= 110; x++) {
+            network.addPheromone(new GridPoint2(x, 1), PheromoneType.GATHER, x - 97);
+            walked.add(new GridPoint2(x, 1));
+        }
+        for (int x = 100; x <= 106; x++) {
+            network.addPheromone(new GridPoint2(x, 0), PheromoneType.GATHER, x - 99);
+            if (x < 105) {
+                walked.add(new GridPoint2(x, 0));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PheromoneNetworkCodec.write(network, out);
+        PheromoneManager manager = new PheromoneManager(new GridPoint2(0, 0), new PheromoneGridConverter(2), 4,
+                LIFETIME);
+        manager.loadNetwork(new ByteArrayInputStream(out.toByteArray()));
+
+        for (int tick = 0; tick < 2 * LIFETIME; tick++) {
+            for (GridPoint2 pos : walked) {
+                manager.getPheromoneAt(pos, PheromoneType.GATHER).incrementAnts();
+            }
+            manager.update(0.01f);
+        }
+
+        // The spur goes, but not the walked lane beside and beyond it
+        assertNull(manager.getPheromoneAt(new GridPoint2(105, 0), PheromoneType.GATHER));
+        assertNull(manager.getPheromoneAt(new GridPoint2(106, 0), PheromoneType.GATHER));
+        for (GridPoint2 pos : walked) {
+            assertNotNull(manager.getPheromoneAt(pos, PheromoneType.GATHER), pos.toString());
+        }
+        assertEquals(9, manager.getPheromoneAt(new GridPoint2(106, 1), PheromoneType.GATHER).getDistance());
+    }
+}
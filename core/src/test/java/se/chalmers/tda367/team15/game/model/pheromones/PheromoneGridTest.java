@@ -0,0 +1,184 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+class PheromoneGridTest {
+    private PheromoneGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new PheromoneGrid();
+    }
+
+    @Test
+    @DisplayName("placed pheromones should be found again, also at negative coordinates")
+    void placedPheromonesShouldBeFound() {
+        Pheromone placed = grid.addPheromone(new GridPoint2(-1, -65), PheromoneType.GATHER, 3);
+
+        assertSame(placed, grid.getPheromoneAt(-1, -65, PheromoneType.GATHER));
+        assertEquals(3, grid.getDistance(-1, -65, PheromoneType.GATHER));
+        assertNull(grid.getPheromoneAt(-1, -65, PheromoneType.ATTACK));
+        assertNull(grid.getPheromoneAt(63, -65, PheromoneType.GATHER));
+    }
+
+    @Test
+    @DisplayName("a pheromone should be a view of the grid's storage")
+    void pheromoneShouldReadThroughToGrid() {
+        Pheromone placed = grid.addPheromone(new GridPoint2(5, 5), PheromoneType.GATHER, 7);
+        placed.setDistance(2);
+        placed.incrementAnts();
+
+        assertEquals(2, grid.getDistance(5, 5, PheromoneType.GATHER));
+        assertEquals(1, grid.getPheromoneAt(5, 5, PheromoneType.GATHER).getAntCount());
+    }
+
+    @Test
+    @DisplayName("a removed pheromone should keep its values and leave the cell empty")
+    void removedPheromoneShouldKeepValues() {
+        GridPoint2 pos = new GridPoint2(5, 5);
+        Pheromone removed = grid.addPheromone(pos, PheromoneType.GATHER, 4);
+        removed.incrementAnts();
+        grid.removePheromone(pos, PheromoneType.GATHER);
+
+        Pheromone replaced = grid.addPheromone(pos, PheromoneType.GATHER, 9);
+        removed.decrementAnts();
+
+        assertEquals(4, removed.getDistance());
+        assertEquals(0, removed.getAntCount());
+        assertEquals(9, replaced.getDistance());
+        assertEquals(0, replaced.getAntCount());
+    }
+
+    @Test
+    @DisplayName("3x3 queries should include cells in neighbouring chunks")
+    void areaQueryShouldCrossChunkBorders() {
+        for (int x = 62; x <= 64; x++) {
+            for (int y = -1; y <= 1; y++) {
+                grid.addPheromone(new GridPoint2(x, y), PheromoneType.EXPLORE, 1);
+            }
+        }
+        grid.addPheromone(new GridPoint2(65, 0), PheromoneType.EXPLORE, 1);
+
+        List<Pheromone> found = new ArrayList<>();
+        grid.getPheromonesIn3x3(63, 0, PheromoneType.EXPLORE, found);
+
+        assertEquals(9, found.size());
+    }
+
+    @Test
+    @DisplayName("every placed pheromone should be listed, across many chunks")
+    void allPheromonesShouldBeListed() {
+        int count = 0;
+        for (int x = -1000; x < 1000; x += 7) {
+            grid.addPheromone(new GridPoint2(x, x / 3), PheromoneType.GATHER, 1);
+            count++;
+        }
+        grid.removePheromone(new GridPoint2(-1000, -333), PheromoneType.GATHER);
+
+        assertEquals(count - 1, grid.getAllPheromones().size());
+        assertTrue(grid.hasPheromoneAt(new GridPoint2(995, 331), PheromoneType.GATHER));
+    }
+
+    @Test
+    @DisplayName("trail flow should follow placement, distance changes and removal, across chunks")
+    void trailFlowShouldStayInSync() {
+        grid.addPheromone(new GridPoint2(63, 0), PheromoneType.GATHER, 2);
+        grid.addPheromone(new GridPoint2(64, 0), PheromoneType.GATHER, 3);
+        grid.addPheromone(new GridPoint2(62, 0), PheromoneType.GATHER, 1);
+        grid.addPheromone(new GridPoint2(63, 1), PheromoneType.ATTACK, 1);
+
+        int flow = grid.getFlow(63, 0, PheromoneType.GATHER);
+        assertEquals(bit(-1, 0), TrailFlow.inward(flow));
+        assertEquals(bit(1, 0), TrailFlow.outward(flow));
+        assertEquals(bit(-1, 0), TrailFlow.inward(grid.getFlow(64, 0, PheromoneType.GATHER)));
+
+        grid.setDistance(64, 0, PheromoneType.GATHER, 1);
+        flow = grid.getFlow(63, 0, PheromoneType.GATHER);
+        assertEquals(bit(-1, 0) | bit(1, 0), TrailFlow.inward(flow));
+        assertEquals(0, TrailFlow.outward(flow));
+        assertEquals(0, TrailFlow.inward(grid.getFlow(64, 0, PheromoneType.GATHER)));
+
+        grid.removePheromone(new GridPoint2(62, 0), PheromoneType.GATHER);
+        assertEquals(bit(1, 0), TrailFlow.inward(grid.getFlow(63, 0, PheromoneType.GATHER)));
+        assertEquals(0, grid.getFlow(62, 0, PheromoneType.GATHER));
+    }
+
+    @Test
+    @DisplayName("picking a bit should only ever pick set bits")
+    void pickBitShouldPickSetBits() {
+        Random random = new Random(1);
+        int mask = bit(-1, -1) | bit(0, 1) | bit(1, 1);
+        boolean[] picked = new boolean[TrailFlow.NEIGHBORS];
+        for (int i = 0; i < 100; i++) {
+            int bit = TrailFlow.pickBit(mask, random);
+            assertTrue((mask & (1 << bit)) != 0);
+            picked[bit] = true;
+        }
+        assertTrue(picked[0] && picked[4] && picked[7]);
+    }
+
+    @Test
+    @DisplayName("the journal should list every placement, distance change and removal in order")
+    void journalShouldRecordChanges() {
+        long start = grid.getVersion();
+        Pheromone pheromone = grid.addPheromone(new GridPoint2(-70, 3), PheromoneType.GATHER, 2);
+        grid.setDistance(-70, 3, PheromoneType.GATHER, 1);
+        // Neither ants passing by nor setting the same distance again are changes
+        pheromone.incrementAnts();
+        grid.setDistance(-70, 3, PheromoneType.GATHER, 1);
+        grid.removePheromone(new GridPoint2(-70, 3), PheromoneType.GATHER);
+
+        List<PheromoneJournal.ChangeKind> kinds = new ArrayList<>();
+        List<Integer> distances = new ArrayList<>();
+        assertTrue(grid.getJournal().changesSince(start, (x, y, type, oldDistance, newDistance) -> {
+            assertEquals(new GridPoint2(-70, 3), new GridPoint2(x, y));
+            assertEquals(PheromoneType.GATHER, type);
+            kinds.add(PheromoneJournal.ChangeKind.of(oldDistance, newDistance));
+            distances.add(newDistance);
+        }));
+
+        assertEquals(start + 3, grid.getVersion());
+        assertEquals(List.of(PheromoneJournal.ChangeKind.ADDED, PheromoneJournal.ChangeKind.DISTANCE_CHANGED,
+                PheromoneJournal.ChangeKind.REMOVED), kinds);
+        assertEquals(List.of(2, 1, 0), distances);
+    }
+
+    @Test
+    @DisplayName("the journal should only cover versions it still holds every later change of")
+    void journalShouldCoverRecentVersions() {
+        PheromoneJournal journal = grid.getJournal();
+        for (int i = 0; i <= PheromoneJournal.CAPACITY; i++) {
+            grid.addPheromone(new GridPoint2(i % 100, i / 100), PheromoneType.EXPLORE, 1);
+        }
+
+        assertTrue(journal.covers(1));
+        assertTrue(journal.covers(journal.getVersion()));
+        assertFalse(journal.covers(0));
+        assertFalse(journal.covers(journal.getVersion() + 1));
+        assertFalse(journal.changesSince(0, (x, y, type, oldDistance, newDistance) -> fail()));
+    }
+
+    private static int bit(int dx, int dy) {
+        for (int bit = 0; bit < TrailFlow.NEIGHBORS; bit++) {
+            if (TrailFlow.dx(bit) == dx && TrailFlow.dy(bit) == dy) {
+                return 1 << bit;
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+}
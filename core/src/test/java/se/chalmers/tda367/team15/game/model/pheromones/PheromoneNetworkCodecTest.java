@@ -0,0 +1,129 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.GridPoint2;
+
+class PheromoneNetworkCodecTest {
+
+    private static byte[] encode(PheromoneGrid grid) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PheromoneNetworkCodec.write(grid, out);
+        return out.toByteArray();
+    }
+
+    private static PheromoneGrid decode(byte[] data) throws IOException {
+        PheromoneGrid grid = new PheromoneGrid();
+        PheromoneNetworkCodec.read(new ByteArrayInputStream(data), grid);
+        return grid;
+    }
+
+    /**
+     * Checks that the grids hold the same pheromones with the same trail flows.
+     */
+    private static void assertSameNetwork(PheromoneGrid expected, PheromoneGrid actual) {
+        assertEquals(expected.getAllPheromones().size(), actual.getAllPheromones().size());
+        for (Pheromone pheromone : expected.getAllPheromones()) {
+            GridPoint2 pos = pheromone.getPosition();
+            PheromoneType type = pheromone.getType();
+            assertEquals(pheromone.getDistance(), actual.getDistance(pos.x, pos.y, type), pos + " " + type);
+            assertEquals(expected.getFlow(pos.x, pos.y, type), actual.getFlow(pos.x, pos.y, type), pos + " " + type);
+        }
+    }
+
+    @Test
+    @DisplayName("a network should load back with the same distances and trail flows")
+    void networkShouldRoundTrip() throws IOException {
+        PheromoneGrid grid = new PheromoneGrid();
+        Random random = new Random(5);
+        // Trails of every type crossing chunk borders and the axes
+        for (PheromoneType type : PheromoneType.values()) {
+            int x = -70 + type.ordinal();
+            int y = 3;
+            for (int distance = 1; distance <= 300; distance++) {
+                grid.addPheromone(new GridPoint2(x, y), type, distance);
+                if (random.nextBoolean()) {
+                    x++;
+                } else {
+                    y += type.ordinal() == 1 ? -1 : 1;
+                }
+            }
+        }
+        // A few distances out of order, as left by a shortcut
+        grid.addPheromone(new GridPoint2(500, -500), PheromoneType.GATHER, 40);
+        grid.addPheromone(new GridPoint2(501, -500), PheromoneType.GATHER, 7);
+
+        assertSameNetwork(grid, decode(encode(grid)));
+    }
+
+    @Test
+    @DisplayName("an empty grid should load back empty")
+    void emptyGridShouldRoundTrip() throws IOException {
+        assertTrue(decode(encode(new PheromoneGrid())).getAllPheromones().isEmpty());
+    }
+
+    @Test
+    @DisplayName("a trail network should take a few bytes per cell")
+    void networkShouldBeCompact() throws IOException {
+        PheromoneGrid grid = new PheromoneGrid();
+        int distance = 1;
+        for (int x = 0; x < 1000; x++) {
+            grid.addPheromone(new GridPoint2(x, 0), PheromoneType.GATHER, distance++);
+        }
+        for (int y = 1; y < 1000; y++) {
+            grid.addPheromone(new GridPoint2(999, y), PheromoneType.GATHER, distance++);
+        }
+
+        // Against the 12 bytes of writing each cell as three ints. The row takes
+        // about a byte per cell, the column more for the gaps between its cells.
+        int size = encode(grid).length;
+        assertTrue(size < 2000 * 3, "took " + size + " bytes");
+    }
+
+    @Test
+    @DisplayName("loading should record every placed pheromone in the journal")
+    void loadingShouldRecordPlacements() throws IOException {
+        PheromoneGrid grid = new PheromoneGrid();
+        grid.addPheromone(new GridPoint2(1, 1), PheromoneType.GATHER, 1);
+        grid.addPheromone(new GridPoint2(2, 1), PheromoneType.GATHER, 2);
+
+        PheromoneGrid loaded = decode(encode(grid));
+
+        assertEquals(2, loaded.getVersion());
+    }
+
+    @Test
+    @DisplayName("loading into a grid that holds pheromones of the type should fail")
+    void loadingOverPheromonesShouldFail() throws IOException {
+        PheromoneGrid grid = new PheromoneGrid();
+        grid.addPheromone(new GridPoint2(1, 1), PheromoneType.GATHER, 1);
+        byte[] data = encode(grid);
+
+        assertThrows(IllegalStateException.class,
+                () -> PheromoneNetworkCodec.read(new ByteArrayInputStream(data), grid));
+    }
+
+    @Test
+    @DisplayName("data that is not a network or is cut short should be rejected")
+    void badDataShouldBeRejected() throws IOException {
+        PheromoneGrid grid = new PheromoneGrid();
+        for (int x = 0; x < 50; x++) {
+            grid.addPheromone(new GridPoint2(x, 0), PheromoneType.EXPLORE, x + 1);
+        }
+        byte[] data = encode(grid);
+
+        assertThrows(IOException.class, () -> decode(new byte[] { 1, 2, 3, 4, 5, 6, 7 }));
+        assertThrows(IOException.class, () -> decode(Arrays.copyOf(data, data.length - 1)));
+    }
+}
@@ -0,0 +1,71 @@
+package se.chalmers.tda367.team15.game.model.pheromones;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel();
+    }
+
+    @Test
+    @DisplayName("entries should come due on their deadline, on every level of the wheel")
+    void entriesShouldComeDueOnDeadline() {
+        long[] deadlines = { 1, 63, 64, 65, 4095, 4096, 4097, 300_000, 20_000_000 };
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        for (long deadline : deadlines) {
+            while (wheel.now() < deadline - 1) {
+                assertEquals(0, wheel.advance());
+            }
+            assertEquals(1, wheel.advance());
+            assertEquals(deadline, wheel.due(0));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("entries for the current tick or earlier should come due on the next advance")
+    void pastEntriesShouldComeDueNext() {
+        wheel.advance();
+        wheel.schedule(0, 7);
+        wheel.schedule(1, 8);
+
+        assertEquals(2, wheel.advance());
+        assertEquals(2, wheel.now());
+    }
+
+    @Test
+    @DisplayName("randomly scheduled entries should all come due exactly on their deadline")
+    void randomEntriesShouldComeDueOnDeadline() {
+        Random random = new Random(3);
+        List<Long> pending = new ArrayList<>();
+        for (int tick = 0; tick < 20_000; tick++) {
+            for (int i = random.nextInt(3); i > 0; i--) {
+                long deadline = wheel.now() + 1 + random.nextInt(random.nextBoolean() ? 100 : 10_000);
+                wheel.schedule(deadline, deadline);
+                pending.add(deadline);
+            }
+            int count = wheel.advance();
+            for (int i = 0; i < count; i++) {
+                assertEquals(wheel.now(), wheel.due(i));
+                pending.remove(Long.valueOf(wheel.due(i)));
+            }
+            long now = wheel.now();
+            assertEquals(0, pending.stream().filter(deadline -> deadline <= now).count());
+        }
+        assertEquals(pending.size(), wheel.size());
+    }
+}
@@ -0,0 +1,67 @@
+package se.chalmers.tda367.team15.game.model.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TickProfilerTest {
+
+    @Test
+    @DisplayName("the same name should always give the same histogram")
+    void histogramShouldBeReusedPerName() {
+        TickProfiler profiler = new TickProfiler();
+
+        assertSame(profiler.histogram("EntityManager"), profiler.histogram("EntityManager"));
+    }
+
+    @Test
+    @DisplayName("a summary should only be published once the window is full")
+    void summaryShouldBePublishedPerWindow() {
+        TickProfiler profiler = new TickProfiler(3);
+        TimingHistogram histogram = profiler.histogram("EntityManager");
+
+        for (int i = 0; i < 2; i++) {
+            histogram.record(100);
+            profiler.endTick();
+        }
+        assertTrue(profiler.getLatest().isEmpty());
+
+        histogram.record(400);
+        profiler.endTick();
+
+        List<TimingSummary> latest = profiler.getLatest();
+        assertEquals(1, latest.size());
+        assertEquals("EntityManager", latest.get(0).name());
+        assertEquals(3, latest.get(0).calls());
+        assertEquals(400, latest.get(0).maxNanos());
+    }
+
+    @Test
+    @DisplayName("each window should start over and skip names that did not run")
+    void windowsShouldStartOver() {
+        TickProfiler profiler = new TickProfiler(1);
+        profiler.histogram("EggManager.onMinute").record(1_000);
+        profiler.histogram("EntityManager").record(100);
+        profiler.endTick();
+        assertEquals(2, profiler.getLatest().size());
+
+        profiler.histogram("EntityManager").record(50);
+        profiler.endTick();
+
+        List<TimingSummary> latest = profiler.getLatest();
+        assertEquals(1, latest.size());
+        assertEquals(1, latest.get(0).calls());
+        assertEquals(50, latest.get(0).maxNanos());
+    }
+
+    @Test
+    @DisplayName("timings should be named after the class of the timed object")
+    void nameShouldBeClassName() {
+        assertEquals("String", TickProfiler.nameOf("text"));
+    }
+}
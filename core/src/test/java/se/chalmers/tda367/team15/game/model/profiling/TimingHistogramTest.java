@@ -0,0 +1,75 @@
+package se.chalmers.tda367.team15.game.model.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TimingHistogramTest {
+
+    @Test
+    @DisplayName("an empty histogram should report zero")
+    void emptyHistogramShouldReportZero() {
+        TimingHistogram histogram = new TimingHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("short durations should be counted exactly")
+    void shortDurationsShouldBeExact() {
+        TimingHistogram histogram = new TimingHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(10, histogram.getPercentile(0.99));
+        assertEquals(55, histogram.getTotal());
+        assertEquals(10, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("percentiles should be within an eighth of the recorded durations")
+    void percentilesShouldBeCloseToRecordedDurations() {
+        TimingHistogram histogram = new TimingHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        long p50 = histogram.getPercentile(0.5);
+        long p99 = histogram.getPercentile(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 9 / 8, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 9 / 8, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("every duration should fall within its bucket")
+    void bucketsShouldCoverTheirDurations() {
+        for (long nanos : new long[] { 0, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE }) {
+            int index = TimingHistogram.bucketIndex(nanos);
+            assertTrue(TimingHistogram.bucketUpperBound(index) >= nanos);
+            if (index > 0) {
+                assertTrue(TimingHistogram.bucketUpperBound(index - 1) < nanos);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("reset should clear all recorded durations")
+    void resetShouldClear() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(1_000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+}
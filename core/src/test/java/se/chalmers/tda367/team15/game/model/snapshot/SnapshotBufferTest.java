@@ -0,0 +1,66 @@
+package se.chalmers.tda367.team15.game.model.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SnapshotBufferTest {
+    private SnapshotBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new SnapshotBuffer();
+    }
+
+    private void publishTick(long tick) {
+        buffer.write().tick = tick;
+        buffer.publish();
+    }
+
+    @Test
+    @DisplayName("should return an empty snapshot before anything is published")
+    void shouldReturnEmptySnapshotInitially() {
+        WorldSnapshot snapshot = buffer.latest();
+
+        assertEquals(0, snapshot.getTick());
+        assertEquals(0, snapshot.getDrawableCount());
+    }
+
+    @Test
+    @DisplayName("should return the most recently published snapshot")
+    void shouldReturnLatestPublished() {
+        publishTick(1);
+        publishTick(2);
+
+        assertEquals(2, buffer.latest().getTick());
+    }
+
+    @Test
+    @DisplayName("should keep returning the same snapshot until a new one is published")
+    void shouldKeepSnapshotWithoutNewPublish() {
+        publishTick(1);
+        WorldSnapshot first = buffer.latest();
+
+        assertSame(first, buffer.latest());
+        assertEquals(1, first.getTick());
+    }
+
+    @Test
+    @DisplayName("should never write to the snapshot the reader holds")
+    void writerShouldNotTouchHeldSnapshot() {
+        publishTick(1);
+        WorldSnapshot held = buffer.latest();
+
+        for (int tick = 2; tick < 10; tick++) {
+            assertNotSame(held, buffer.write());
+            publishTick(tick);
+        }
+
+        assertEquals(1, held.getTick());
+        assertEquals(9, buffer.latest().getTick());
+    }
+}
@@ -0,0 +1,51 @@
+package se.chalmers.tda367.team15.game.headless;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Unmatched;
+import se.chalmers.tda367.team15.game.GameConfiguration;
+
+/**
+ * Launches the simulation without a window, OpenGL context or any view code.
+ *
+ * Accepts the same flags as the desktop launcher (e.g. {@code --start-ants},
+ * {@code --seed}, {@code --map-size}) plus {@code --ticks}, and
+ * {@code --checksums=<file>} to write the state checksum after every tick. With
+ * {@code --seed} the simulation is deterministic, so comparing the checksum
+ * files of two runs shows whether and at which tick they diverge.
+ */
+public class HeadlessLauncher {
+
+    @Command(name = "headless", mixinStandardHelpOptions = true, description = "Runs the simulation headless")
+    private static class HeadlessArgs {
+        @Option(names = "--ticks", defaultValue = "10000")
+        int ticks;
+        @Option(names = "--checksums")
+        String checksumFile;
+        @Unmatched
+        List<String> gameArgs = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        HeadlessArgs cli = new HeadlessArgs();
+        new CommandLine(cli).parseArgs(args);
+
+        GameConfiguration gameConfiguration = GameConfiguration.fromArgs(cli.gameArgs.toArray(new String[0]));
+
+        HeadlessRunner runner = new HeadlessRunner(gameConfiguration);
+        if (cli.checksumFile == null) {
+            runner.run(cli.ticks);
+        } else {
+            try (PrintStream checksums = new PrintStream(cli.checksumFile)) {
+                runner.run(cli.ticks, checksums);
+            }
+        }
+        runner.printReport(System.out);
+    }
+}
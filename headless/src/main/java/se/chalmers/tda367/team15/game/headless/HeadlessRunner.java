@@ -0,0 +1,132 @@
+package se.chalmers.tda367.team15.game.headless;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+import se.chalmers.tda367.team15.game.GameConfiguration;
+import se.chalmers.tda367.team15.game.model.GameModel;
+import se.chalmers.tda367.team15.game.model.GameModelFactory;
+import se.chalmers.tda367.team15.game.model.interfaces.GameObject;
+import se.chalmers.tda367.team15.game.model.interfaces.observers.SimulationObserver;
+import se.chalmers.tda367.team15.game.model.managers.SimulationManager;
+import se.chalmers.tda367.team15.game.model.profiling.TickProfiler;
+import se.chalmers.tda367.team15.game.model.profiling.TimingHistogram;
+
+/**
+ * Drives a {@link GameModel} tick by tick as fast as the CPU allows and
+ * collects timing statistics.
+ *
+ * Unlike {@link SimulationManager#handleSimulation()} there is no wall-clock
+ * accumulator, every loop iteration runs the queued commands and exactly one
+ * tick. Observer times are read from the profiler's histograms, which cover the
+ * whole run.
+ */
+public class HeadlessRunner {
+    // A window longer than any run, so the histograms are never started over
+    private static final int WHOLE_RUN = Integer.MAX_VALUE;
+
+    private final GameConfiguration gameConfiguration;
+    private final SimulationManager simulationManager;
+    private final GameModel gameModel;
+    private final long seed;
+    private final TickProfiler profiler = new TickProfiler(WHOLE_RUN);
+
+    private long elapsedNanos = 0;
+
+    public HeadlessRunner(GameConfiguration gameConfiguration) {
+        this.gameConfiguration = gameConfiguration;
+        this.simulationManager = new SimulationManager();
+        GameModelFactory gameModelFactory = new GameModelFactory(gameConfiguration);
+        this.seed = gameModelFactory.getSeed();
+        this.gameModel = gameModelFactory.createGameModel(simulationManager, profiler);
+    }
+
+    /**
+     * Runs the given number of ticks, timing each simulation observer
+     * separately.
+     *
+     * @param ticks number of ticks to run
+     */
+    public void run(int ticks) {
+        run(ticks, null);
+    }
+
+    /**
+     * Runs the given number of ticks like {@link #run(int)}, writing the state
+     * checksum after every tick. Two runs with the same seed and configuration
+     * should write identical lines.
+     *
+     * @param ticks     number of ticks to run
+     * @param checksums where to write one "tick checksum" line per tick, or null
+     *                  to skip computing them
+     */
+    public void run(int ticks, PrintStream checksums) {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < ticks; i++) {
+            simulationManager.processCommands();
+            simulationManager.tick();
+            if (checksums != null) {
+                // Not part of the tick, so keep it out of the elapsed time
+                long checksumStart = System.nanoTime();
+                checksums.printf("%d %016x%n", simulationManager.getTickCount(), gameModel.computeChecksum());
+                start += System.nanoTime() - checksumStart;
+            }
+        }
+
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    public GameModel getGameModel() {
+        return gameModel;
+    }
+
+    public void printReport(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        long ticksRun = simulationManager.getTickCount();
+
+        out.println("========== Headless simulation ==========");
+        out.printf("Map size:      %d x %d%n", gameConfiguration.mapSize().x, gameConfiguration.mapSize().y);
+        out.printf("Seed:          %d%s%n", seed, gameConfiguration.seed() != null ? "" : " (random)");
+        out.printf("Start ants:    %d (%s)%n", gameConfiguration.startAnts(), gameConfiguration.antType());
+        out.printf("Entities:      %s update%n", gameConfiguration.parallelEntities() ? "parallel" : "serial");
+        out.printf("Ticks:         %d in %.3f s%n", ticksRun, seconds);
+        out.printf("Ticks/sec:     %.1f%n", seconds > 0 ? ticksRun / seconds : 0.0);
+        out.printf("In-game time:  day %d, %02d:%02d%n",
+                gameModel.getTimeProvider().getGameTime().totalDays(),
+                gameModel.getTimeProvider().getGameTime().currentHour(),
+                gameModel.getTimeProvider().getGameTime().currentMinute());
+        out.printf("Checksum:      %016x%n", gameModel.computeChecksum());
+
+        out.println("---------- Entities ----------");
+        Map<String, Integer> counts = new TreeMap<>();
+        for (GameObject drawable : gameModel.getDrawables()) {
+            counts.merge(drawable.getTypeId(), 1, Integer::sum);
+        }
+        counts.forEach((typeId, count) -> out.printf("%-14s %d%n", typeId, count));
+
+        out.println("---------- Observers ----------");
+        out.printf("%-20s %12s %12s %8s %10s %10s%n", "observer", "total ms", "us/tick", "share", "p99 us",
+                "max us");
+        long totalObserverNanos = 0;
+        for (SimulationObserver observer : simulationManager.getUpdateObservers()) {
+            totalObserverNanos += observerHistogram(observer).getTotal();
+        }
+        for (SimulationObserver observer : simulationManager.getUpdateObservers()) {
+            TimingHistogram histogram = observerHistogram(observer);
+            long nanos = histogram.getTotal();
+            out.printf("%-20s %12.2f %12.2f %7.1f%% %10.2f %10.2f%n",
+                    TickProfiler.nameOf(observer),
+                    nanos / 1e6,
+                    ticksRun > 0 ? nanos / 1e3 / ticksRun : 0.0,
+                    totalObserverNanos > 0 ? 100.0 * nanos / totalObserverNanos : 0.0,
+                    histogram.getPercentile(0.99) / 1e3,
+                    histogram.getMax() / 1e3);
+        }
+    }
+
+    private TimingHistogram observerHistogram(SimulationObserver observer) {
+        return profiler.histogram(TickProfiler.nameOf(observer));
+    }
+}